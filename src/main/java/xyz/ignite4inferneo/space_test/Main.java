@@ -8,10 +8,17 @@ import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
 import xyz.ignite4inferneo.space_test.common.VanillaItems;
 import xyz.ignite4inferneo.space_test.common.util.EntitySpawnHelper;
 import xyz.ignite4inferneo.space_test.common.world.ImprovedWorldGenerator;
+import xyz.ignite4inferneo.space_test.common.world.RegionStorage;
 import xyz.ignite4inferneo.space_test.common.world.World;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 public class Main {
 
+    private static final Path SAVE_DIR = Paths.get("saves", "world");
+
     private static World world;
 
     public static void main(String[] args) {
@@ -35,8 +42,8 @@ public class Main {
         System.out.println("[Init] Freezing registries...");
         Registries.freezeAll();
 
-        System.out.println("[Init] Creating world with improved terrain...");
-        world = new World(new ImprovedWorldGenerator(System.currentTimeMillis()));
+        System.out.println("[Init] Loading world from " + SAVE_DIR.toAbsolutePath() + "...");
+        world = createWorld();
 
         System.out.println("[Init] Initializing client...");
         KeyInput.init();
@@ -49,7 +56,7 @@ public class Main {
         new Thread(() -> {
             try {
                 Thread.sleep(2000); // Wait 2 seconds for chunks to load
-                int[] spawn = {0, 70, 0};
+                int[] spawn = world.getSpawnPosition();
                 EntitySpawnHelper.spawnTestEntities(world, spawn[0], spawn[1], spawn[2]);
             } catch (InterruptedException e) {
                 e.printStackTrace();
@@ -79,6 +86,17 @@ public class Main {
         System.out.println("  - Crafting system with recipes");
     }
 
+    private static World createWorld() {
+        try {
+            long seed = World.loadOrCreateSeed(SAVE_DIR);
+            System.out.println("[Init] World seed: " + seed);
+            return new World(new ImprovedWorldGenerator(seed), new RegionStorage(SAVE_DIR.resolve("region")));
+        } catch (IOException e) {
+            System.err.println("[Init] Could not open save directory, world will not be saved: " + e.getMessage());
+            return new World(new ImprovedWorldGenerator(System.currentTimeMillis()));
+        }
+    }
+
     private static void loadMods() {
         System.out.println("[ModLoader] No mods found");
     }
@@ -0,0 +1,90 @@
+package xyz.ignite4inferneo.space_test;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+import xyz.ignite4inferneo.space_test.common.VanillaItems;
+import xyz.ignite4inferneo.space_test.common.VanillaRecipes;
+import xyz.ignite4inferneo.space_test.common.world.ImprovedWorldGenerator;
+import xyz.ignite4inferneo.space_test.common.world.RegionStorage;
+import xyz.ignite4inferneo.space_test.common.world.World;
+import xyz.ignite4inferneo.space_test.common.world.WorldPregenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Headless world pre-generation, e.g. before opening a server:
+ * <pre>
+ * java xyz.ignite4inferneo.space_test.Pregenerate --radius 64 [--seed 12345] [--threads 8]
+ *     [--center 0,0] [--dir saves/world]
+ * </pre>
+ * Generates every chunk within the radius into the world's region files.
+ * Run it again with the same arguments after an interruption to finish.
+ */
+public class Pregenerate {
+
+    private static final String USAGE = "Usage: Pregenerate --radius <chunks> [--seed <seed>] [--threads <count>]"
+            + " [--center <chunkX>,<chunkZ>] [--dir <save directory>]";
+
+    public static void main(String[] args) {
+        Path saveDir = Paths.get("saves", "world");
+        Long seed = null;
+        int radius = -1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int centerX = 0, centerZ = 0;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--radius" -> radius = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--dir" -> saveDir = Paths.get(value);
+                    case "--center" -> {
+                        String[] parts = value.split(",");
+                        centerX = Integer.parseInt(parts[0].trim());
+                        centerZ = Integer.parseInt(parts[1].trim());
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+                i++;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[Pregenerate] Bad arguments: " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        if (radius < 0 || threads < 1) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        VanillaBlocks.register();
+        VanillaItems.register();
+        VanillaRecipes.register();
+        Registries.freezeAll();
+
+        WorldPregenerator pregenerator;
+        try {
+            long worldSeed = seed != null ? World.loadOrCreateSeed(saveDir, seed) : World.loadOrCreateSeed(saveDir);
+            if (seed != null && worldSeed != seed) {
+                System.err.println("[Pregenerate] " + saveDir + " already has seed " + worldSeed + ", not " + seed);
+                System.exit(1);
+            }
+            System.out.println("[Pregenerate] World " + saveDir.toAbsolutePath() + ", seed " + worldSeed);
+            pregenerator = new WorldPregenerator(new ImprovedWorldGenerator(worldSeed),
+                    new RegionStorage(saveDir.resolve("region")), threads);
+        } catch (IOException e) {
+            System.err.println("[Pregenerate] Could not open save directory: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        // Ctrl-C: save what is done so the next run resumes from there
+        Runtime.getRuntime().addShutdownHook(new Thread(pregenerator::stop, "PregenShutdown"));
+        boolean complete = pregenerator.run(centerX, centerZ, radius);
+        System.exit(complete ? 0 : 1);
+    }
+}
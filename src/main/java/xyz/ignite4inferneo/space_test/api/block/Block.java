@@ -70,12 +70,21 @@ public interface Block {
     default void onBreak(World world, int x, int y, int z) {}
 
     /**
-     * Called when a neighbor block changes
+     * Called on the world tick after a neighbor block changed, once per tick
+     * however many neighbors changed
      */
     default void onNeighborChange(World world, int x, int y, int z) {}
 
     /**
-     * Called every tick (if block needs updates)
+     * Called when a tick scheduled with {@link World#scheduleTick} comes due,
+     * if this block is still there
      */
     default void onUpdate(World world, int x, int y, int z) {}
+
+    /**
+     * Called now and then at random for blocks that override it (growth,
+     * decay, spreading). Each section with such blocks gets a few random
+     * positions per tick, so any one block is picked rarely.
+     */
+    default void onRandomTick(World world, int x, int y, int z) {}
 }
\ No newline at end of file
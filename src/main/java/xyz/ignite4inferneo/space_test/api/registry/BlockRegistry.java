@@ -0,0 +1,137 @@
+package xyz.ignite4inferneo.space_test.api.registry;
+
+import xyz.ignite4inferneo.space_test.api.block.Block;
+import xyz.ignite4inferneo.space_test.common.world.World;
+
+/**
+ * Block registry that bakes per-block properties into flat arrays at freeze time.
+ * Hot loops (meshing, collision, raycasts) index these by numeric block ID
+ * instead of calling through the Block interface for every voxel.
+ *
+ * Table lookups do not bounds check; IDs read from chunk storage are always valid.
+ * ID 0 (air) is never solid or opaque and always transparent.
+ *
+ * Callback flags record which Block callbacks a block actually overrides, so
+ * bulk edits can skip calling the empty defaults and the ticker can skip
+ * sections without randomly ticking blocks.
+ */
+public class BlockRegistry extends Registry<Block> {
+    public static final int FACES = 6;
+
+    public static final int CALLBACK_PLACE = 1;
+    public static final int CALLBACK_BREAK = 2;
+    public static final int CALLBACK_NEIGHBOR = 4;
+    public static final int CALLBACK_RANDOM_TICK = 8;
+
+    private boolean[] solid = new boolean[0];
+    private boolean[] opaque = new boolean[0];
+    private boolean[] transparent = new boolean[0];
+    private int[] textures = new int[0]; // FACES entries per block
+    private byte[] lightLevel = new byte[0];
+    private byte[] callbacks = new byte[0];
+    private int anyCallbacks; // Union of all callback flags
+
+    public BlockRegistry() {
+        super("blocks");
+    }
+
+    @Override
+    protected void onFreeze() {
+        int count = size();
+        solid = new boolean[count];
+        opaque = new boolean[count];
+        transparent = new boolean[count];
+        textures = new int[count * FACES];
+        lightLevel = new byte[count];
+        callbacks = new byte[count];
+        anyCallbacks = 0;
+
+        for (int id = 0; id < count; id++) {
+            Block block = byId(id);
+            if (block == null) continue;
+
+            int flags = 0;
+            if (overrides(block, "onPlace")) flags |= CALLBACK_PLACE;
+            if (overrides(block, "onBreak")) flags |= CALLBACK_BREAK;
+            if (overrides(block, "onNeighborChange")) flags |= CALLBACK_NEIGHBOR;
+            if (overrides(block, "onRandomTick")) flags |= CALLBACK_RANDOM_TICK;
+            callbacks[id] = (byte) flags;
+            anyCallbacks |= flags;
+
+            if (id == 0) {
+                transparent[id] = true;
+                continue;
+            }
+
+            solid[id] = block.isSolid();
+            transparent[id] = block.isTransparent();
+            opaque[id] = !transparent[id];
+            lightLevel[id] = (byte) Math.max(0, Math.min(15, block.getLightLevel()));
+
+            int[] faces = block.getTextureIndices();
+            for (int face = 0; face < FACES; face++) {
+                textures[id * FACES + face] = faces != null && face < faces.length ? faces[face] : 0;
+            }
+        }
+    }
+
+    private static boolean overrides(Block block, String callback) {
+        try {
+            Class<?> owner = block.getClass()
+                    .getMethod(callback, World.class, int.class, int.class, int.class)
+                    .getDeclaringClass();
+            return owner != Block.class;
+        } catch (NoSuchMethodException e) {
+            return true; // Be safe and call it
+        }
+    }
+
+    /**
+     * Does this block collide with entities?
+     */
+    public boolean isSolid(int id) {
+        return solid[id];
+    }
+
+    /**
+     * Is this block drawn and does it hide the faces behind it?
+     */
+    public boolean isOpaque(int id) {
+        return opaque[id];
+    }
+
+    /**
+     * Can neighbors be seen through this block (air, leaves, ...)?
+     */
+    public boolean isTransparent(int id) {
+        return transparent[id];
+    }
+
+    /**
+     * Get texture index for a face [bottom, top, north, south, west, east]
+     */
+    public int getTexture(int id, int face) {
+        return textures[id * FACES + face];
+    }
+
+    /**
+     * Get light emission level (0-15)
+     */
+    public int getLightLevel(int id) {
+        return lightLevel[id];
+    }
+
+    /**
+     * Does this block override any of the given CALLBACK_* flags?
+     */
+    public boolean hasCallback(int id, int flags) {
+        return (callbacks[id] & flags) != 0;
+    }
+
+    /**
+     * Does any registered block override any of the given CALLBACK_* flags?
+     */
+    public boolean anyHasCallback(int flags) {
+        return (anyCallbacks & flags) != 0;
+    }
+}
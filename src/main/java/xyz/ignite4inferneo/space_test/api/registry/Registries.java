@@ -1,7 +1,6 @@
 
 package xyz.ignite4inferneo.space_test.api.registry;
 
-import xyz.ignite4inferneo.space_test.api.block.Block;
 import xyz.ignite4inferneo.space_test.api.item.Item;
 
 /**
@@ -9,7 +8,7 @@ import xyz.ignite4inferneo.space_test.api.item.Item;
  * Mods access these to register their content.
  */
 public class Registries {
-    public static final Registry<Block> BLOCKS = new Registry<>("blocks");
+    public static final BlockRegistry BLOCKS = new BlockRegistry();
     public static final Registry<Item> ITEMS = new Registry<>("items");
 
     // Additional registries can be added here:
@@ -23,6 +22,11 @@ public class Registries {
     public static void freezeAll() {
         BLOCKS.freeze();
         ITEMS.freeze();
+
+        // Chunk storage treats block ID 0 as empty space
+        if (BLOCKS.idOf("space_test:air") != 0) {
+            throw new IllegalStateException("space_test:air must be the first registered block");
+        }
     }
 
     private Registries() {} // Prevent instantiation
@@ -1,18 +1,28 @@
 package xyz.ignite4inferneo.space_test.api.registry;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Generic registry for game objects (blocks, items, entities, etc.)
  * Allows mods to register their content with unique identifiers.
+ *
+ * When frozen, every entry is assigned a dense int ID in registration order
+ * (0..size-1). Hot paths should store and compare these IDs and resolve
+ * them with the array-backed {@link #byId(int)} instead of hashing strings.
  */
 public class Registry<T> {
-    private final Map<String, T> entries = new HashMap<>();
+    private final Map<String, T> entries = new LinkedHashMap<>();
     private final String name;
     private boolean frozen = false;
 
+    // Assigned at freeze time
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private Object[] objectsById = new Object[0];
+    private String[] keysById = new String[0];
+
     public Registry(String name) {
         this.name = name;
     }
@@ -40,6 +50,35 @@ public class Registry<T> {
         return entries.get(id);
     }
 
+    /**
+     * Get an object by its numeric ID (registry must be frozen)
+     * @return the object, or null if the ID is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public T byId(int id) {
+        checkFrozen();
+        return id >= 0 && id < objectsById.length ? (T) objectsById[id] : null;
+    }
+
+    /**
+     * Get the numeric ID of a registered key (registry must be frozen)
+     * @return the ID, or -1 if the key is not registered
+     */
+    public int idOf(String id) {
+        checkFrozen();
+        Integer numericId = idsByKey.get(id);
+        return numericId != null ? numericId : -1;
+    }
+
+    /**
+     * Get the string key for a numeric ID (registry must be frozen)
+     * @return the key, or null if the ID is out of range
+     */
+    public String getKey(int id) {
+        checkFrozen();
+        return id >= 0 && id < keysById.length ? keysById[id] : null;
+    }
+
     /**
      * Check if an ID is registered
      */
@@ -63,17 +102,47 @@ public class Registry<T> {
 
     /**
      * Freeze the registry (prevent further modifications)
-     * Called after initialization to prevent runtime changes
+     * Called after initialization to prevent runtime changes.
+     * Assigns dense numeric IDs in registration order.
      */
     public void freeze() {
+        if (frozen) return;
+
+        keysById = new String[entries.size()];
+        objectsById = new Object[entries.size()];
+        int nextId = 0;
+        for (Map.Entry<String, T> entry : entries.entrySet()) {
+            idsByKey.put(entry.getKey(), nextId);
+            objectsById[nextId] = entry.getValue();
+            keysById[nextId] = entry.getKey();
+            nextId++;
+        }
+
         frozen = true;
+        onFreeze();
         System.out.println("[Registry/" + name + "] Frozen with " + entries.size() + " entries");
     }
 
+    /**
+     * Called once after numeric IDs are assigned.
+     * Subclasses can bake per-ID lookup tables here.
+     */
+    protected void onFreeze() {}
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkFrozen() {
+        if (!frozen) {
+            throw new IllegalStateException("Numeric IDs are not assigned until registry is frozen: " + name);
+        }
+    }
+
     /**
      * Get the registry name
      */
     public String getName() {
         return name;
     }
-}
\ No newline at end of file
+}
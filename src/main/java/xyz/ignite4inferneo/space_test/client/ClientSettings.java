@@ -32,4 +32,9 @@ public class ClientSettings {
 
     // Render settings
     public static int RENDER_DISTANCE = 8; // chunks
+    public static int MAX_QUAD_SIZE = 16; // blocks per side of a merged face, 16 = a whole section
+
+    // Memory budgets
+    public static long CHUNK_MEMORY_BUDGET = 64L * 1024 * 1024; // bytes of loaded block storage
+    public static long MESH_MEMORY_BUDGET = 32L * 1024 * 1024; // bytes of cached chunk meshes
 }
\ No newline at end of file
@@ -69,9 +69,15 @@ public class Window {
         inventory.addItem("space_test:wood", 16);
 
         // Create player at spawn position
-        int[] spawnPos = new int[]{0, 70, 0};
+        int[] spawnPos = world.getSpawnPosition();
         this.player = PlayerEntity.createLocal(world, spawnPos[0], spawnPos[1], spawnPos[2], "Player");
 
+        // Keep the chunks around the player loaded, evict the rest once over budget
+        world.getChunkLifecycleManager().setMemoryBudget(ClientSettings.CHUNK_MEMORY_BUDGET);
+        world.getChunkLifecycleManager().setProtectedRadius(ClientSettings.RENDER_DISTANCE + 2);
+        world.getChunkLifecycleManager().addAnchor(player);
+        world.getTicketManager().addPlayer(player, ClientSettings.RENDER_DISTANCE + 2);
+
         this.blockInteractionHandler = new BlockInteractionHandler(world, player);
 
         displayWindow = new JFrame("Space Test - Voxel Engine [ULTRA-OPTIMIZED + ENTITIES]");
@@ -101,6 +107,9 @@ public class Window {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("[Window] Shutting down renderer...");
             renderer.shutdown();
+            world.getLightEngine().shutdown();
+            System.out.println("[Window] Saving world...");
+            world.getChunkProvider().shutdown();
         }));
 
         // Start render loop (60+ FPS)
@@ -129,7 +138,10 @@ public class Window {
                     double deltaTime = (now - lastPhysicsTime) / 1_000_000_000.0;
                     lastPhysicsTime = now;
 
-                    player.tick(deltaTime);
+                    // Hold the player still until the chunk under them is loaded and ticking
+                    if (world.isEntityTicking(player.x, player.z)) {
+                        player.tick(deltaTime);
+                    }
 
                     Thread.sleep(16);
                 } catch (InterruptedException ex) {
@@ -380,7 +392,6 @@ public class Window {
             inventory.addItem(blockId, 1);
 
             world.setBlock(currentBlockTarget.x, currentBlockTarget.y, currentBlockTarget.z, "space_test:air");
-            renderer.markChunkDirty(currentBlockTarget.x >> 4, currentBlockTarget.z >> 4);
         }
     }
 
@@ -401,7 +412,6 @@ public class Window {
 
             world.setBlock(placeX, placeY, placeZ, selectedStack.getBlockId());
             inventory.removeItem(selectedStack.getBlockId(), 1);
-            renderer.markChunkDirty(placeX >> 4, placeZ >> 4);
         }
     }
 
@@ -450,6 +460,8 @@ public class Window {
             double[] pos = player.getFeetPosition();
             graphics.drawString(String.format("Pos: %.1f, %.1f, %.1f", pos[0], pos[1], pos[2]), 10, y);
             y += 20;
+            graphics.drawString("Biome: " + world.getBiome((int) Math.floor(pos[0]), (int) Math.floor(pos[2])), 10, y);
+            y += 20;
             graphics.drawString("On Ground: " + player.isOnGround(), 10, y);
             y += 20;
 
@@ -0,0 +1,267 @@
+package xyz.ignite4inferneo.space_test.client.renderer;
+
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.common.world.Chunk;
+import xyz.ignite4inferneo.space_test.common.world.ChunkAccess;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Greedy mesher working on bitmasks instead of per-voxel arrays.
+ *
+ * Each section is read once into three sets of 16-bit column masks, one per
+ * axis, of which voxels draw faces and which let faces show through. A
+ * whole column's exposed faces in one direction are then a shift and an
+ * AND-NOT away. The faces are regrouped into one mask per row of each
+ * slice, and merged by taking the lowest set bit, growing the run along the
+ * row while the face keys match, and growing it across the following rows
+ * while they contain the whole run with the same keys. Only exposed faces
+ * are ever looked at individually, for their texture and light.
+ *
+ * Produces the same visible surface as {@link GreedyMesher} (same faces,
+ * textures and brightness, same quad size limit), though runs may be cut
+ * into quads differently.
+ */
+public class BinaryGreedyMesher {
+
+    private static final int SIZE = ChunkSection.SIZE;
+    private static final int ROW_BITS = (1 << SIZE) - 1;
+    private static final int BORDER_BITS = 1 | 1 << (SIZE + 1); // See-through padding on both ends
+
+    // Face order matches BlockRegistry.FACES / ChunkSection.FACE_*
+    private static final int[] FACE_AXIS = {1, 1, 2, 2, 0, 0};
+    private static final int[] FACE_DIR = {-1, 1, -1, 1, -1, 1};
+    private static final float[] FACE_SHADE = {0.6f, 1.0f, 0.8f, 0.8f, 0.8f, 0.8f};
+
+    /**
+     * Per-call working memory, reused for every section and direction
+     */
+    private static final class Scratch {
+        final int[] indices = new int[ChunkSection.VOLUME]; // Palette index, (y << 8) | (z << 4) | x
+
+        // Bit i of a column is the voxel at coordinate i along the column's axis.
+        // See-through columns are shifted up one bit, with bit 0 and bit 17 the voxels just outside.
+        final int[] solidY = new int[SIZE * SIZE];  // By z * 16 + x
+        final int[] seeY = new int[SIZE * SIZE];
+        final int[] solidZ = new int[SIZE * SIZE];  // By y * 16 + x
+        final int[] seeZ = new int[SIZE * SIZE];
+        final int[] solidX = new int[SIZE * SIZE];  // By y * 16 + z
+        final int[] seeX = new int[SIZE * SIZE];
+
+        final int[] rows = new int[SIZE * SIZE];             // Exposed faces by slice * 16 + row, bit per column
+        final int[] keys = new int[SIZE * SIZE * SIZE];      // Texture << 4 | light by (slice * 16 + row) * 16 + bit
+    }
+
+    /**
+     * Mesh a chunk. Off the game thread, pass a {@link Chunk#snapshot()}
+     * so concurrent edits cannot tear the mesh.
+     */
+    public static List<GreedyMesher.Quad> mesh(ChunkAccess chunk) {
+        List<GreedyMesher.Quad> quads = new ArrayList<>();
+        for (List<GreedyMesher.Quad> section : meshSections(chunk, GreedyMesher.ALL_SECTIONS, null)) {
+            if (section != null) quads.addAll(section);
+        }
+        return quads;
+    }
+
+    /**
+     * Mesh selected sections, lighting chunk border faces from the
+     * neighboring chunks. Same contract as
+     * {@link GreedyMesher#meshSections(ChunkAccess, int, ChunkAccess[])}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static List<GreedyMesher.Quad>[] meshSections(ChunkAccess chunk, int sectionMask, ChunkAccess[] neighbors) {
+        List<GreedyMesher.Quad>[] sections = new List[Chunk.SECTION_COUNT];
+        GreedyMesher.ChunkView view = new GreedyMesher.ChunkView(chunk, neighbors);
+        Scratch scratch = null;
+
+        for (int sectionY = 0; sectionY < Chunk.SECTION_COUNT; sectionY++) {
+            if ((sectionMask & (1 << sectionY)) == 0) continue;
+            List<GreedyMesher.Quad> quads = new ArrayList<>();
+            sections[sectionY] = quads;
+
+            int startY = Math.max(view.minY, sectionY * SIZE);
+            int endY = Math.min(view.maxY, (sectionY + 1) * SIZE);
+            if (endY <= startY || view.sections[sectionY] == null) continue;
+
+            if (scratch == null) scratch = new Scratch();
+            buildColumns(view, sectionY, scratch);
+            for (int face = 0; face < BlockRegistry.FACES; face++) {
+                if (collectFaces(view, sectionY, face, scratch)) {
+                    merge(sectionY, face, scratch, quads);
+                }
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Read a section into solid and see-through column masks along all
+     * three axes
+     */
+    private static void buildColumns(GreedyMesher.ChunkView view, int sectionY, Scratch s) {
+        ChunkSection section = view.sections[sectionY];
+        GreedyMesher.PaletteInfo info = view.infos[sectionY];
+        section.getBlockIndices(s.indices);
+
+        Arrays.fill(s.solidY, 0);
+        Arrays.fill(s.seeY, 0);
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                int base = (y << 8) | (z << 4);
+                int solidRow = 0, seeRow = 0;
+                for (int x = 0; x < SIZE; x++) {
+                    int block = s.indices[base | x];
+                    if (info.opaque[block]) {
+                        solidRow |= 1 << x;
+                        s.solidY[(z << 4) | x] |= 1 << y;
+                    } else if (info.seeThrough[block]) {
+                        seeRow |= 1 << x;
+                        s.seeY[(z << 4) | x] |= 2 << y;
+                    }
+                }
+                s.solidX[(y << 4) | z] = solidRow;
+                s.seeX[(y << 4) | z] = seeRow << 1 | BORDER_BITS; // Chunk borders always draw
+            }
+        }
+
+        // Z columns from the X rows: transpose each 16x16 y-slice
+        for (int y = 0; y < SIZE; y++) {
+            int solidBase = y << 4;
+            for (int x = 0; x < SIZE; x++) {
+                int solidCol = 0, seeCol = 0;
+                for (int z = 0; z < SIZE; z++) {
+                    solidCol |= (s.solidX[solidBase | z] >>> x & 1) << z;
+                    seeCol |= (s.seeX[solidBase | z] >>> (x + 1) & 1) << z;
+                }
+                s.solidZ[solidBase | x] = solidCol;
+                s.seeZ[solidBase | x] = seeCol << 1 | BORDER_BITS;
+            }
+        }
+
+        // Voxels just below and above the section; outside the world always draws
+        int below = sectionY * SIZE - 1;
+        int above = (sectionY + 1) * SIZE;
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                int column = (z << 4) | x;
+                if (below < 0 || view.isSeeThrough(x, below, z)) s.seeY[column] |= 1;
+                if (above >= Chunk.HEIGHT || view.isSeeThrough(x, above, z)) s.seeY[column] |= 1 << (SIZE + 1);
+            }
+        }
+    }
+
+    /**
+     * Gather the exposed faces of one direction into per-row masks with
+     * their keys
+     * @return false if there are none
+     */
+    private static boolean collectFaces(GreedyMesher.ChunkView view, int sectionY, int face, Scratch s) {
+        int axis = FACE_AXIS[face];
+        int dir = FACE_DIR[face];
+        int[] solid = axis == 1 ? s.solidY : axis == 2 ? s.solidZ : s.solidX;
+        int[] see = axis == 1 ? s.seeY : axis == 2 ? s.seeZ : s.seeX;
+        // Neighbor at i + dir sits at bit i + 1 + dir of the padded mask
+        int shift = 1 + dir;
+
+        GreedyMesher.PaletteInfo info = view.infos[sectionY];
+        int baseY = sectionY * SIZE;
+        Arrays.fill(s.rows, 0);
+        boolean any = false;
+
+        for (int column = 0; column < SIZE * SIZE; column++) {
+            int exposed = solid[column] & (see[column] >>> shift) & ROW_BITS;
+            any |= exposed != 0;
+            int u = column & 15;   // x for Y and Z columns, z for X columns
+            int v = column >>> 4;  // z for Y columns, y for Z and X columns
+            while (exposed != 0) {
+                int i = Integer.numberOfTrailingZeros(exposed);
+                exposed &= exposed - 1;
+
+                // Voxel and slice / row / bit of the face in the merge layout
+                int x, y, z, slice, row, bit;
+                if (axis == 1) {        // Slice y, row x, bit z
+                    x = u; z = v; y = i;
+                    slice = y; row = x; bit = z;
+                } else if (axis == 2) { // Slice z, row x, bit y
+                    x = u; y = v; z = i;
+                    slice = z; row = x; bit = y;
+                } else {                // Slice x, row z, bit y
+                    z = u; y = v; x = i;
+                    slice = x; row = z; bit = y;
+                }
+
+                int block = s.indices[(y << 8) | (z << 4) | x];
+                int light = axis == 1 ? view.getLight(x, baseY + y + dir, z)
+                        : axis == 2 ? view.getLight(x, baseY + y, z + dir)
+                        : view.getLight(x + dir, baseY + y, z);
+                int rowIndex = (slice << 4) | row;
+                s.rows[rowIndex] |= 1 << bit;
+                s.keys[(rowIndex << 4) | bit] = info.textures[block * BlockRegistry.FACES + face] << 4 | light;
+            }
+        }
+        return any;
+    }
+
+    /**
+     * Greedy merge of the collected faces: runs along each row's bits,
+     * then down the following rows
+     */
+    private static void merge(int sectionY, int face, Scratch s, List<GreedyMesher.Quad> quads) {
+        int axis = FACE_AXIS[face];
+        int dir = FACE_DIR[face];
+        float shade = FACE_SHADE[face];
+        int baseY = sectionY * SIZE;
+        int max = GreedyMesher.maxQuadSize();
+        int[] rows = s.rows;
+        int[] keys = s.keys;
+
+        for (int slice = 0; slice < SIZE; slice++) {
+            int sliceBase = slice << 4;
+            for (int row = 0; row < SIZE; row++) {
+                int bits;
+                while ((bits = rows[sliceBase | row]) != 0) {
+                    int start = Integer.numberOfTrailingZeros(bits);
+                    int keyBase = (sliceBase | row) << 4;
+                    int key = keys[keyBase | start];
+
+                    // Run along the row: consecutive set bits with the same key
+                    int runs = ~(bits >>> start);
+                    int length = Math.min(Integer.numberOfTrailingZeros(runs), max); // Bits past 15 are clear, so runs stop there
+                    int h = 1;
+                    while (h < length && keys[keyBase | (start + h)] == key) h++;
+                    int run = ((1 << h) - 1) << start;
+
+                    // Grow across rows that contain the whole run with the same keys
+                    int w = 1;
+                    grow:
+                    while (w < max && row + w < SIZE) {
+                        int next = sliceBase | (row + w);
+                        if ((rows[next] & run) != run) break;
+                        int nextKeys = next << 4;
+                        for (int b = start; b < start + h; b++) {
+                            if (keys[nextKeys | b] != key) break grow;
+                        }
+                        w++;
+                    }
+                    for (int r = row; r < row + w; r++) {
+                        rows[sliceBase | r] &= ~run;
+                    }
+
+                    float brightness = shade * GreedyMesher.LIGHT_BRIGHTNESS[key & 15];
+                    int texture = key >> 4;
+                    if (axis == 1) {
+                        quads.add(new GreedyMesher.Quad(row, baseY + slice, start, w, h, 1, dir, texture, brightness));
+                    } else if (axis == 2) {
+                        quads.add(new GreedyMesher.Quad(row, baseY + start, slice, w, h, 2, dir, texture, brightness));
+                    } else {
+                        quads.add(new GreedyMesher.Quad(slice, baseY + start, row, w, h, 0, dir, texture, brightness));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,19 +1,42 @@
 package xyz.ignite4inferneo.space_test.client.renderer;
 
-import xyz.ignite4inferneo.space_test.api.block.Block;
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
 import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.client.ClientSettings;
 import xyz.ignite4inferneo.space_test.common.world.Chunk;
+import xyz.ignite4inferneo.space_test.common.world.ChunkAccess;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSection;
+import xyz.ignite4inferneo.space_test.common.world.LightEngine;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * FIXED: Greedy mesher with proper chunk border handling
+ *
+ * Light is baked per face: a face takes the light of the voxel it looks
+ * into, scaled by a fixed shade per direction, so rasterizers just multiply
+ * by quad brightness. Faces only merge when their light matches.
  */
 public class GreedyMesher {
 
-    private static final int MAX_QUAD_SIZE = 4;
-    private static final String AIR = "space_test:air";
+    public static final int ALL_SECTIONS = (1 << Chunk.SECTION_COUNT) - 1;
+
+    /**
+     * Longest side of a merged face, from ClientSettings.MAX_QUAD_SIZE.
+     * Rasterizers tile textures by block, so any size draws the same.
+     */
+    static int maxQuadSize() {
+        return Math.max(1, Math.min(Chunk.SIZE, ClientSettings.MAX_QUAD_SIZE));
+    }
+
+    // Brightness per light level; level 0 keeps a little ambient light
+    static final float[] LIGHT_BRIGHTNESS = new float[LightEngine.MAX_LIGHT + 1];
+    static {
+        for (int level = 0; level <= LightEngine.MAX_LIGHT; level++) {
+            LIGHT_BRIGHTNESS[level] = 0.1f + 0.9f * (float) Math.pow(0.8, LightEngine.MAX_LIGHT - level);
+        }
+    }
 
     public static class Quad {
         public int x, y, z;
@@ -32,28 +55,175 @@ public class GreedyMesher {
         }
     }
 
-    public static List<Quad> mesh(Chunk chunk) {
-        List<Quad> quads = new ArrayList<>();
-        String[][][] blocks = chunk.getBlocks();
+    /**
+     * Halves of a quad, cut across its longer side. Textures repeat every
+     * block, so the halves draw exactly what the whole quad did.
+     */
+    static Quad[] splitQuad(Quad quad) {
+        int x = quad.x, y = quad.y, z = quad.z;
+        if (quad.w >= quad.h) {
+            int w = quad.w / 2;
+            if (quad.axis == 0) z += w; else x += w;
+            return new Quad[]{
+                    new Quad(quad.x, quad.y, quad.z, w, quad.h, quad.axis, quad.dir, quad.texIndex, quad.brightness),
+                    new Quad(x, y, z, quad.w - w, quad.h, quad.axis, quad.dir, quad.texIndex, quad.brightness)
+            };
+        }
+        int h = quad.h / 2;
+        if (quad.axis == 1) z += h; else y += h;
+        return new Quad[]{
+                new Quad(quad.x, quad.y, quad.z, quad.w, h, quad.axis, quad.dir, quad.texIndex, quad.brightness),
+                new Quad(x, y, z, quad.w, quad.h - h, quad.axis, quad.dir, quad.texIndex, quad.brightness)
+        };
+    }
+
+    /**
+     * Block properties copied from the registry tables once per section
+     * palette entry, so the inner loops index by palette slot directly
+     */
+    static class PaletteInfo {
+        final boolean[] opaque;      // registered, non-air, non-transparent: faces get drawn
+        final boolean[] seeThrough;  // air or transparent: neighbor faces show through
+        final int[] textures;        // BlockRegistry.FACES entries per palette slot
+
+        PaletteInfo(ChunkSection section) {
+            int size = section.getPaletteSize();
+            opaque = new boolean[size];
+            seeThrough = new boolean[size];
+            textures = new int[size * BlockRegistry.FACES];
+
+            BlockRegistry blocks = Registries.BLOCKS;
+            for (int i = 0; i < size; i++) {
+                int id = section.getPaletteEntry(i);
+                opaque[i] = blocks.isOpaque(id);
+                seeThrough[i] = blocks.isTransparent(id);
+                for (int face = 0; face < BlockRegistry.FACES; face++) {
+                    textures[i * BlockRegistry.FACES + face] = blocks.getTexture(id, face);
+                }
+            }
+        }
+    }
+
+    /**
+     * Non-empty sections of a chunk with their resolved palettes.
+     * Empty (null) sections are skipped by every pass.
+     */
+    static class ChunkView {
+        final ChunkAccess chunk;
+        final ChunkAccess[] neighbors; // By ChunkSection face index, only read for light; may be null
+        final ChunkSection[] sections = new ChunkSection[Chunk.SECTION_COUNT];
+        final PaletteInfo[] infos = new PaletteInfo[Chunk.SECTION_COUNT];
+        final int minY, maxY; // Y range [minY, maxY) that can contain blocks
+
+        ChunkView(ChunkAccess chunk, ChunkAccess[] neighbors) {
+            this.chunk = chunk;
+            this.neighbors = neighbors;
+            for (int i = 0; i < Chunk.SECTION_COUNT; i++) {
+                ChunkSection section = chunk.getSection(i);
+                if (section != null) {
+                    sections[i] = section;
+                    infos[i] = new PaletteInfo(section);
+                }
+            }
+            minY = Math.max(0, chunk.getLowestSection()) * ChunkSection.SIZE;
+            // Nothing above the tallest column needs meshing
+            maxY = Math.min((chunk.getHighestSection() + 1) * ChunkSection.SIZE, chunk.getMaxHeight() + 1);
+        }
+
+        /**
+         * Light a face looking into this voxel gets. x and z may be one
+         * step outside the chunk; unknown neighbors count as fully lit.
+         */
+        int getLight(int x, int y, int z) {
+            if (y >= Chunk.HEIGHT) return LightEngine.MAX_LIGHT;
+            if (y < 0) return 0;
+            ChunkAccess source = chunk;
+            if (x < 0) source = neighbor(ChunkSection.FACE_WEST);
+            else if (x >= Chunk.SIZE) source = neighbor(ChunkSection.FACE_EAST);
+            else if (z < 0) source = neighbor(ChunkSection.FACE_NORTH);
+            else if (z >= Chunk.SIZE) source = neighbor(ChunkSection.FACE_SOUTH);
+            if (source == null) return LightEngine.MAX_LIGHT;
+            return Math.max(source.getSkyLight(x & 15, y, z & 15), source.getBlockLight(x & 15, y, z & 15));
+        }
+
+        private ChunkAccess neighbor(int face) {
+            return neighbors == null ? null : neighbors[face];
+        }
 
-        meshYFaces(blocks, quads, -1);
-        meshYFaces(blocks, quads, 1);
-        meshZFaces(blocks, quads, -1);
-        meshZFaces(blocks, quads, 1);
-        meshXFaces(blocks, quads, -1);
-        meshXFaces(blocks, quads, 1);
+        boolean isSeeThrough(int x, int y, int z) {
+            ChunkSection section = sections[y >> 4];
+            if (section == null) return true; // Empty section is all air
+            return infos[y >> 4].seeThrough[section.getBlockIndex(x, y & 15, z)];
+        }
+    }
 
+    /**
+     * Mesh a chunk. Off the game thread, pass a {@link Chunk#snapshot()}
+     * so concurrent edits cannot tear the mesh.
+     */
+    public static List<Quad> mesh(ChunkAccess chunk) {
+        List<Quad> quads = new ArrayList<>();
+        for (List<Quad> section : meshSections(chunk, ALL_SECTIONS)) {
+            if (section != null) quads.addAll(section);
+        }
         return quads;
     }
 
-    private static void meshYFaces(String[][][] blocks, List<Quad> quads, int dir) {
+    /**
+     * Mesh selected 16x16x16 sections of a chunk. Quads never cross a section
+     * boundary, so a section's quads can be replaced without touching the
+     * rest of the chunk mesh.
+     * @param sectionMask bit per section index to mesh
+     * @return quads per section; empty lists for requested sections with
+     *         nothing to draw, null for sections not requested
+     */
+    public static List<Quad>[] meshSections(ChunkAccess chunk, int sectionMask) {
+        return meshSections(chunk, sectionMask, null);
+    }
+
+    /**
+     * Mesh selected sections, lighting chunk border faces from the
+     * neighboring chunks
+     * @param neighbors adjacent chunks indexed by ChunkSection face
+     *                  (FACE_NORTH..FACE_EAST), only read for light; null
+     *                  entries light border faces fully
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static List<Quad>[] meshSections(ChunkAccess chunk, int sectionMask, ChunkAccess[] neighbors) {
+        List<Quad>[] sections = new List[Chunk.SECTION_COUNT];
+        ChunkView view = new ChunkView(chunk, neighbors);
+
+        for (int sectionY = 0; sectionY < Chunk.SECTION_COUNT; sectionY++) {
+            if ((sectionMask & (1 << sectionY)) == 0) continue;
+            List<Quad> quads = new ArrayList<>();
+            sections[sectionY] = quads;
+
+            int startY = Math.max(view.minY, sectionY * ChunkSection.SIZE);
+            int endY = Math.min(view.maxY, (sectionY + 1) * ChunkSection.SIZE);
+            if (endY <= startY || view.sections[sectionY] == null) continue;
+
+            meshYFaces(view, quads, -1, startY, endY);
+            meshYFaces(view, quads, 1, startY, endY);
+            meshZFaces(view, quads, -1, startY, endY);
+            meshZFaces(view, quads, 1, startY, endY);
+            meshXFaces(view, quads, -1, startY, endY);
+            meshXFaces(view, quads, 1, startY, endY);
+        }
+        return sections;
+    }
+
+    private static void meshYFaces(ChunkView view, List<Quad> quads, int dir, int startY, int endY) {
         boolean[][] mask = new boolean[Chunk.SIZE][Chunk.SIZE];
-        int[][] texMask = new int[Chunk.SIZE][Chunk.SIZE];
+        int[][] faceMask = new int[Chunk.SIZE][Chunk.SIZE]; // Texture << 4 | light
 
         int faceIndex = dir > 0 ? 1 : 0;
         float brightness = dir > 0 ? 1.0f : 0.6f;
+        int maxSize = maxQuadSize();
+
+        for (int y = startY; y < endY; y++) {
+            ChunkSection section = view.sections[y >> 4];
+            PaletteInfo info = view.infos[y >> 4];
 
-        for (int y = 0; y < Chunk.HEIGHT; y++) {
             for (int x = 0; x < Chunk.SIZE; x++) {
                 for (int z = 0; z < Chunk.SIZE; z++) {
                     mask[x][z] = false;
@@ -62,8 +232,8 @@ public class GreedyMesher {
 
             for (int x = 0; x < Chunk.SIZE; x++) {
                 for (int z = 0; z < Chunk.SIZE; z++) {
-                    String block = blocks[x][y][z];
-                    if (block.equals(AIR)) continue;
+                    int block = section.getBlockIndex(x, y & 15, z);
+                    if (!info.opaque[block]) continue;
 
                     int checkY = y + dir;
 
@@ -73,24 +243,14 @@ public class GreedyMesher {
                         // At chunk boundary - always render (will be culled by neighbor chunk)
                         shouldRender = true;
                     } else {
-                        String neighbor = blocks[x][checkY][z];
                         // Render if neighbor is air OR transparent
-                        if (neighbor.equals(AIR)) {
-                            shouldRender = true;
-                        } else {
-                            Block neighborBlock = Registries.BLOCKS.get(neighbor);
-                            if (neighborBlock != null && neighborBlock.isTransparent()) {
-                                shouldRender = true;
-                            }
-                        }
+                        shouldRender = view.isSeeThrough(x, checkY, z);
                     }
 
                     if (shouldRender) {
-                        Block blockObj = Registries.BLOCKS.get(block);
-                        if (blockObj != null && !blockObj.isTransparent()) {
-                            mask[x][z] = true;
-                            texMask[x][z] = blockObj.getTextureIndices()[faceIndex];
-                        }
+                        mask[x][z] = true;
+                        faceMask[x][z] = info.textures[block * BlockRegistry.FACES + faceIndex] << 4
+                                | view.getLight(x, checkY, z);
                     }
                 }
             }
@@ -103,19 +263,19 @@ public class GreedyMesher {
                         continue;
                     }
 
-                    int tex = texMask[x][z];
+                    int key = faceMask[x][z];
 
                     int w = 1;
-                    while (x + w < Chunk.SIZE && w < MAX_QUAD_SIZE &&
-                            mask[x + w][z] && texMask[x + w][z] == tex) {
+                    while (x + w < Chunk.SIZE && w < maxSize &&
+                            mask[x + w][z] && faceMask[x + w][z] == key) {
                         w++;
                     }
 
                     int h = 1;
                     boolean done = false;
-                    while (z + h < Chunk.SIZE && h < MAX_QUAD_SIZE && !done) {
+                    while (z + h < Chunk.SIZE && h < maxSize && !done) {
                         for (int k = 0; k < w; k++) {
-                            if (!mask[x + k][z + h] || texMask[x + k][z + h] != tex) {
+                            if (!mask[x + k][z + h] || faceMask[x + k][z + h] != key) {
                                 done = true;
                                 break;
                             }
@@ -123,7 +283,7 @@ public class GreedyMesher {
                         if (!done) h++;
                     }
 
-                    quads.add(new Quad(x, y, z, w, h, 1, dir, tex, brightness));
+                    quads.add(new Quad(x, y, z, w, h, 1, dir, key >> 4, brightness * LIGHT_BRIGHTNESS[key & 15]));
 
                     for (int i = 0; i < w; i++) {
                         for (int k = 0; k < h; k++) {
@@ -137,24 +297,27 @@ public class GreedyMesher {
         }
     }
 
-    private static void meshZFaces(String[][][] blocks, List<Quad> quads, int dir) {
-        boolean[][] mask = new boolean[Chunk.SIZE][Chunk.HEIGHT];
-        int[][] texMask = new int[Chunk.SIZE][Chunk.HEIGHT];
+    private static void meshZFaces(ChunkView view, List<Quad> quads, int dir, int startY, int endY) {
+        boolean[][] mask = new boolean[Chunk.SIZE][ChunkSection.SIZE];
+        int[][] faceMask = new int[Chunk.SIZE][ChunkSection.SIZE]; // Texture << 4 | light
 
         int faceIndex = dir > 0 ? 3 : 2;
         float brightness = 0.8f;
+        int maxSize = maxQuadSize();
 
         for (int z = 0; z < Chunk.SIZE; z++) {
             for (int x = 0; x < Chunk.SIZE; x++) {
-                for (int y = 0; y < Chunk.HEIGHT; y++) {
-                    mask[x][y] = false;
+                for (int y = startY; y < endY; y++) {
+                    mask[x][y & 15] = false;
                 }
             }
 
             for (int x = 0; x < Chunk.SIZE; x++) {
-                for (int y = 0; y < Chunk.HEIGHT; y++) {
-                    String block = blocks[x][y][z];
-                    if (block.equals(AIR)) continue;
+                for (int y = startY; y < endY; y++) {
+                    ChunkSection section = view.sections[y >> 4];
+                    int block = section.getBlockIndex(x, y & 15, z);
+                    PaletteInfo info = view.infos[y >> 4];
+                    if (!info.opaque[block]) continue;
 
                     int checkZ = z + dir;
 
@@ -162,47 +325,38 @@ public class GreedyMesher {
                     if (checkZ < 0 || checkZ >= Chunk.SIZE) {
                         shouldRender = true; // Chunk boundary
                     } else {
-                        String neighbor = blocks[x][y][checkZ];
-                        if (neighbor.equals(AIR)) {
-                            shouldRender = true;
-                        } else {
-                            Block neighborBlock = Registries.BLOCKS.get(neighbor);
-                            if (neighborBlock != null && neighborBlock.isTransparent()) {
-                                shouldRender = true;
-                            }
-                        }
+                        // Render if neighbor is air OR transparent
+                        shouldRender = view.isSeeThrough(x, y, checkZ);
                     }
 
                     if (shouldRender) {
-                        Block blockObj = Registries.BLOCKS.get(block);
-                        if (blockObj != null && !blockObj.isTransparent()) {
-                            mask[x][y] = true;
-                            texMask[x][y] = blockObj.getTextureIndices()[faceIndex];
-                        }
+                        mask[x][y & 15] = true;
+                        faceMask[x][y & 15] = info.textures[block * BlockRegistry.FACES + faceIndex] << 4
+                                | view.getLight(x, y, checkZ);
                     }
                 }
             }
 
             for (int x = 0; x < Chunk.SIZE; x++) {
-                for (int y = 0; y < Chunk.HEIGHT; ) {
-                    if (!mask[x][y]) {
+                for (int y = startY; y < endY; ) {
+                    if (!mask[x][y & 15]) {
                         y++;
                         continue;
                     }
 
-                    int tex = texMask[x][y];
+                    int key = faceMask[x][y & 15];
 
                     int w = 1;
-                    while (x + w < Chunk.SIZE && w < MAX_QUAD_SIZE &&
-                            mask[x + w][y] && texMask[x + w][y] == tex) {
+                    while (x + w < Chunk.SIZE && w < maxSize &&
+                            mask[x + w][y & 15] && faceMask[x + w][y & 15] == key) {
                         w++;
                     }
 
                     int h = 1;
                     boolean done = false;
-                    while (y + h < Chunk.HEIGHT && h < MAX_QUAD_SIZE && !done) {
+                    while (y + h < endY && h < maxSize && !done) {
                         for (int k = 0; k < w; k++) {
-                            if (!mask[x + k][y + h] || texMask[x + k][y + h] != tex) {
+                            if (!mask[x + k][(y + h) & 15] || faceMask[x + k][(y + h) & 15] != key) {
                                 done = true;
                                 break;
                             }
@@ -210,11 +364,11 @@ public class GreedyMesher {
                         if (!done) h++;
                     }
 
-                    quads.add(new Quad(x, y, z, w, h, 2, dir, tex, brightness));
+                    quads.add(new Quad(x, y, z, w, h, 2, dir, key >> 4, brightness * LIGHT_BRIGHTNESS[key & 15]));
 
                     for (int i = 0; i < w; i++) {
                         for (int k = 0; k < h; k++) {
-                            mask[x + i][y + k] = false;
+                            mask[x + i][(y + k) & 15] = false;
                         }
                     }
 
@@ -224,24 +378,27 @@ public class GreedyMesher {
         }
     }
 
-    private static void meshXFaces(String[][][] blocks, List<Quad> quads, int dir) {
-        boolean[][] mask = new boolean[Chunk.SIZE][Chunk.HEIGHT];
-        int[][] texMask = new int[Chunk.SIZE][Chunk.HEIGHT];
+    private static void meshXFaces(ChunkView view, List<Quad> quads, int dir, int startY, int endY) {
+        boolean[][] mask = new boolean[Chunk.SIZE][ChunkSection.SIZE];
+        int[][] faceMask = new int[Chunk.SIZE][ChunkSection.SIZE]; // Texture << 4 | light
 
         int faceIndex = dir > 0 ? 5 : 4;
         float brightness = 0.8f;
+        int maxSize = maxQuadSize();
 
         for (int x = 0; x < Chunk.SIZE; x++) {
             for (int z = 0; z < Chunk.SIZE; z++) {
-                for (int y = 0; y < Chunk.HEIGHT; y++) {
-                    mask[z][y] = false;
+                for (int y = startY; y < endY; y++) {
+                    mask[z][y & 15] = false;
                 }
             }
 
             for (int z = 0; z < Chunk.SIZE; z++) {
-                for (int y = 0; y < Chunk.HEIGHT; y++) {
-                    String block = blocks[x][y][z];
-                    if (block.equals(AIR)) continue;
+                for (int y = startY; y < endY; y++) {
+                    ChunkSection section = view.sections[y >> 4];
+                    int block = section.getBlockIndex(x, y & 15, z);
+                    PaletteInfo info = view.infos[y >> 4];
+                    if (!info.opaque[block]) continue;
 
                     int checkX = x + dir;
 
@@ -249,47 +406,38 @@ public class GreedyMesher {
                     if (checkX < 0 || checkX >= Chunk.SIZE) {
                         shouldRender = true; // Chunk boundary
                     } else {
-                        String neighbor = blocks[checkX][y][z];
-                        if (neighbor.equals(AIR)) {
-                            shouldRender = true;
-                        } else {
-                            Block neighborBlock = Registries.BLOCKS.get(neighbor);
-                            if (neighborBlock != null && neighborBlock.isTransparent()) {
-                                shouldRender = true;
-                            }
-                        }
+                        // Render if neighbor is air OR transparent
+                        shouldRender = view.isSeeThrough(checkX, y, z);
                     }
 
                     if (shouldRender) {
-                        Block blockObj = Registries.BLOCKS.get(block);
-                        if (blockObj != null && !blockObj.isTransparent()) {
-                            mask[z][y] = true;
-                            texMask[z][y] = blockObj.getTextureIndices()[faceIndex];
-                        }
+                        mask[z][y & 15] = true;
+                        faceMask[z][y & 15] = info.textures[block * BlockRegistry.FACES + faceIndex] << 4
+                                | view.getLight(checkX, y, z);
                     }
                 }
             }
 
             for (int z = 0; z < Chunk.SIZE; z++) {
-                for (int y = 0; y < Chunk.HEIGHT; ) {
-                    if (!mask[z][y]) {
+                for (int y = startY; y < endY; ) {
+                    if (!mask[z][y & 15]) {
                         y++;
                         continue;
                     }
 
-                    int tex = texMask[z][y];
+                    int key = faceMask[z][y & 15];
 
                     int w = 1;
-                    while (z + w < Chunk.SIZE && w < MAX_QUAD_SIZE &&
-                            mask[z + w][y] && texMask[z + w][y] == tex) {
+                    while (z + w < Chunk.SIZE && w < maxSize &&
+                            mask[z + w][y & 15] && faceMask[z + w][y & 15] == key) {
                         w++;
                     }
 
                     int h = 1;
                     boolean done = false;
-                    while (y + h < Chunk.HEIGHT && h < MAX_QUAD_SIZE && !done) {
+                    while (y + h < endY && h < maxSize && !done) {
                         for (int k = 0; k < w; k++) {
-                            if (!mask[z + k][y + h] || texMask[z + k][y + h] != tex) {
+                            if (!mask[z + k][(y + h) & 15] || faceMask[z + k][(y + h) & 15] != key) {
                                 done = true;
                                 break;
                             }
@@ -297,11 +445,11 @@ public class GreedyMesher {
                         if (!done) h++;
                     }
 
-                    quads.add(new Quad(x, y, z, w, h, 0, dir, tex, brightness));
+                    quads.add(new Quad(x, y, z, w, h, 0, dir, key >> 4, brightness * LIGHT_BRIGHTNESS[key & 15]));
 
                     for (int i = 0; i < w; i++) {
                         for (int k = 0; k < h; k++) {
-                            mask[z + i][y + k] = false;
+                            mask[z + i][(y + k) & 15] = false;
                         }
                     }
 
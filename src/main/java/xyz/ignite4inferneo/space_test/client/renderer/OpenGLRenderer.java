@@ -34,6 +34,7 @@ public class OpenGLRenderer {
     private int height = 720;
 
     // OpenGL objects
+    private static final int VERTEX_FLOATS = 8; // Position, block UV, brightness, texture tile corner
     private int shaderProgram;
     private int textureAtlasID;
 
@@ -141,17 +142,20 @@ public class OpenGLRenderer {
             layout (location = 0) in vec3 aPos;
             layout (location = 1) in vec2 aTexCoord;
             layout (location = 2) in float aBrightness;
+            layout (location = 3) in vec2 aTile;
             
             uniform mat4 projection;
             uniform mat4 view;
             
             out vec2 TexCoord;
             out float Brightness;
+            flat out vec2 Tile;
             
             void main() {
                 gl_Position = projection * view * vec4(aPos, 1.0);
                 TexCoord = aTexCoord;
                 Brightness = aBrightness;
+                Tile = aTile;
             }
             """;
 
@@ -160,13 +164,15 @@ public class OpenGLRenderer {
             #version 330 core
             in vec2 TexCoord;
             in float Brightness;
+            flat in vec2 Tile;
             
             uniform sampler2D texAtlas;
             
             out vec4 FragColor;
             
             void main() {
-                vec4 texColor = texture(texAtlas, TexCoord);
+                // TexCoord counts blocks; repeat the texture's tile once per block
+                vec4 texColor = texture(texAtlas, Tile + fract(TexCoord) / 16.0);
                 if (texColor.a < 0.1)
                     discard;
                 FragColor = vec4(texColor.rgb * Brightness, texColor.a);
@@ -356,6 +362,7 @@ public class OpenGLRenderer {
         int camChunkX = (int) Math.floor(x / 16.0);
         int camChunkZ = (int) Math.floor(z / 16.0);
         int renderDistance = 8;
+        world.getChunkProvider().setCenter(camChunkX, camChunkZ);
 
         for (int dx = -renderDistance; dx <= renderDistance; dx++) {
             for (int dz = -renderDistance; dz <= renderDistance; dz++) {
@@ -368,8 +375,10 @@ public class OpenGLRenderer {
                 // Get or create mesh
                 ChunkGLMesh mesh = glMeshCache.get(key);
                 if (mesh == null) {
-                    Chunk chunk = world.getChunk(chunkX, chunkZ);
-                    if (chunk != null) {
+                    Chunk chunk = world.getChunkIfLoaded(chunkX, chunkZ);
+                    if (chunk == null) {
+                        world.getChunkProvider().requestChunk(chunkX, chunkZ, true);
+                    } else {
                         mesh = createChunkMesh(chunk, chunkX, chunkZ);
                         glMeshCache.put(key, mesh);
                     }
@@ -389,8 +398,8 @@ public class OpenGLRenderer {
      * Create OpenGL mesh from chunk
      */
     private ChunkGLMesh createChunkMesh(Chunk chunk, int chunkX, int chunkZ) {
-        // Use GreedyMesher to get quads
-        List<GreedyMesher.Quad> quads = GreedyMesher.mesh(chunk);
+        // Use BinaryGreedyMesher to get quads
+        List<GreedyMesher.Quad> quads = BinaryGreedyMesher.mesh(chunk);
 
         if (quads.isEmpty()) {
             ChunkGLMesh mesh = new ChunkGLMesh();
@@ -399,9 +408,9 @@ public class OpenGLRenderer {
         }
 
         // Convert quads to vertex data
-        // Format: x, y, z, u, v, brightness (6 floats per vertex)
+        // Format: x, y, z, u, v, brightness, tile u, tile v (8 floats per vertex)
         int vertexCount = quads.size() * 6; // 2 triangles per quad
-        float[] vertices = new float[vertexCount * 6];
+        float[] vertices = new float[vertexCount * VERTEX_FLOATS];
 
         int baseX = chunkX * 16;
         int baseZ = chunkZ * 16;
@@ -412,12 +421,16 @@ public class OpenGLRenderer {
             float wy = quad.y;
             float wz = baseZ + quad.z;
 
-            // Calculate UV coordinates (16 textures per row in 256x256 atlas)
+            // Texture tile corner (16 textures per row in 256x256 atlas); the
+            // shader repeats it per block, as the software renderers do
             float texSize = 1.0f / 16.0f;
-            float u0 = (quad.texIndex % 16) * texSize;
-            float v0 = (quad.texIndex / 16) * texSize;
-            float u1 = u0 + quad.w * (texSize / 16.0f);
-            float v1 = v0 + quad.h * (texSize / 16.0f);
+            float tileU = (quad.texIndex % 16) * texSize;
+            float tileV = (quad.texIndex / 16) * texSize;
+
+            // UVs in blocks; side faces run v down from the top like the software renderers
+            float u0 = 0, u1 = quad.w;
+            float v0 = quad.axis == 1 ? 0 : quad.h;
+            float v1 = quad.axis == 1 ? quad.h : 0;
 
             float brightness = quad.brightness;
 
@@ -445,14 +458,14 @@ public class OpenGLRenderer {
             }
 
             // Triangle 1: 0, 1, 2
-            addVertex(vertices, idx++, corners[0], u0, v0, brightness);
-            addVertex(vertices, idx++, corners[1], u1, v0, brightness);
-            addVertex(vertices, idx++, corners[2], u1, v1, brightness);
+            addVertex(vertices, idx++, corners[0], u0, v0, brightness, tileU, tileV);
+            addVertex(vertices, idx++, corners[1], u1, v0, brightness, tileU, tileV);
+            addVertex(vertices, idx++, corners[2], u1, v1, brightness, tileU, tileV);
 
             // Triangle 2: 0, 2, 3
-            addVertex(vertices, idx++, corners[0], u0, v0, brightness);
-            addVertex(vertices, idx++, corners[2], u1, v1, brightness);
-            addVertex(vertices, idx++, corners[3], u0, v1, brightness);
+            addVertex(vertices, idx++, corners[0], u0, v0, brightness, tileU, tileV);
+            addVertex(vertices, idx++, corners[2], u1, v1, brightness, tileU, tileV);
+            addVertex(vertices, idx++, corners[3], u0, v1, brightness, tileU, tileV);
         }
 
         // Create VAO/VBO
@@ -464,17 +477,21 @@ public class OpenGLRenderer {
         glBufferData(GL_ARRAY_BUFFER, vertices, GL_STATIC_DRAW);
 
         // Position attribute
-        glVertexAttribPointer(0, 3, GL_FLOAT, false, 6 * Float.BYTES, 0);
+        glVertexAttribPointer(0, 3, GL_FLOAT, false, VERTEX_FLOATS * Float.BYTES, 0);
         glEnableVertexAttribArray(0);
 
         // TexCoord attribute
-        glVertexAttribPointer(1, 2, GL_FLOAT, false, 6 * Float.BYTES, 3 * Float.BYTES);
+        glVertexAttribPointer(1, 2, GL_FLOAT, false, VERTEX_FLOATS * Float.BYTES, 3 * Float.BYTES);
         glEnableVertexAttribArray(1);
 
         // Brightness attribute
-        glVertexAttribPointer(2, 1, GL_FLOAT, false, 6 * Float.BYTES, 5 * Float.BYTES);
+        glVertexAttribPointer(2, 1, GL_FLOAT, false, VERTEX_FLOATS * Float.BYTES, 5 * Float.BYTES);
         glEnableVertexAttribArray(2);
 
+        // Texture tile attribute
+        glVertexAttribPointer(3, 2, GL_FLOAT, false, VERTEX_FLOATS * Float.BYTES, 6 * Float.BYTES);
+        glEnableVertexAttribArray(3);
+
         glBindVertexArray(0);
 
         ChunkGLMesh mesh = new ChunkGLMesh();
@@ -486,14 +503,17 @@ public class OpenGLRenderer {
         return mesh;
     }
 
-    private void addVertex(float[] vertices, int index, float[] pos, float u, float v, float brightness) {
-        int i = index * 6;
+    private void addVertex(float[] vertices, int index, float[] pos, float u, float v, float brightness,
+                           float tileU, float tileV) {
+        int i = index * VERTEX_FLOATS;
         vertices[i + 0] = pos[0];
         vertices[i + 1] = pos[1];
         vertices[i + 2] = pos[2];
         vertices[i + 3] = u;
         vertices[i + 4] = v;
         vertices[i + 5] = brightness;
+        vertices[i + 6] = tileU;
+        vertices[i + 7] = tileV;
     }
 
     private static long chunkKey(int x, int z) {
@@ -1,8 +1,12 @@
 package xyz.ignite4inferneo.space_test.client.renderer;
 
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.client.ClientSettings;
 import xyz.ignite4inferneo.space_test.common.entity.*;
 import xyz.ignite4inferneo.space_test.common.inventory.ItemStack;
 import xyz.ignite4inferneo.space_test.common.world.Chunk;
+import xyz.ignite4inferneo.space_test.common.world.ChunkProvider;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSection;
 import xyz.ignite4inferneo.space_test.common.world.World;
 
 import java.util.*;
@@ -33,7 +37,7 @@ public class PerspectiveCorrectRenderer {
 
     private final Frustum frustum = new Frustum();
     private final ConcurrentHashMap<Long, ChunkMesh> meshCache = new ConcurrentHashMap<>(256);
-    private final Set<Long> dirtyChunks = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, Integer> dirtySections = new ConcurrentHashMap<>(); // Section bits per chunk
     private final Set<Long> meshingInProgress = ConcurrentHashMap.newKeySet();
 
     private final List<Face> renderFaces = new ArrayList<>(8192);
@@ -43,7 +47,8 @@ public class PerspectiveCorrectRenderer {
     private int chunksRendered = 0, chunksMeshing = 0;
     private int quadsRendered = 0, quadsCulled = 0;
     private long lastCleanupTime = 0;
-    private static final long CLEANUP_INTERVAL = 30000;
+    private static final long CLEANUP_INTERVAL = 5000;
+    private static final long BYTES_PER_QUAD = 56; // Quad object plus list slot
 
     private static class Face {
         int[] x = new int[4];
@@ -57,12 +62,29 @@ public class PerspectiveCorrectRenderer {
     }
 
     private static class ChunkMesh {
-        List<GreedyMesher.Quad> quads;
+        final List<GreedyMesher.Quad>[] sections; // Quads per 16-high section
+        final int quadCount;
         long lastUsed;
-        ChunkMesh(List<GreedyMesher.Quad> quads) {
-            this.quads = quads;
+        ChunkMesh(List<GreedyMesher.Quad>[] sections) {
+            this.sections = sections;
+            int count = 0;
+            for (List<GreedyMesher.Quad> section : sections) {
+                if (section != null) count += section.size();
+            }
+            this.quadCount = count;
             this.lastUsed = System.currentTimeMillis();
         }
+
+        /**
+         * Copy of this mesh with the remeshed sections of a result swapped in
+         */
+        ChunkMesh with(ThreadedChunkMesher.MeshResult result) {
+            List<GreedyMesher.Quad>[] merged = sections.clone();
+            for (int i = 0; i < merged.length; i++) {
+                if ((result.sectionMask & (1 << i)) != 0) merged[i] = result.sections[i];
+            }
+            return new ChunkMesh(merged);
+        }
     }
 
     private static class Frustum {
@@ -111,8 +133,14 @@ public class PerspectiveCorrectRenderer {
         }
 
         boolean isChunkVisible(int chunkX, int chunkZ) {
+            return isChunkVisible(chunkX, chunkZ, 0, Chunk.HEIGHT);
+        }
+
+        /**
+         * Test only the Y range covered by a chunk's non-empty sections
+         */
+        boolean isChunkVisible(int chunkX, int chunkZ, double minY, double maxY) {
             double minX = chunkX * 16.0, maxX = minX + 16.0;
-            double minY = 0, maxY = 256;
             double minZ = chunkZ * 16.0, maxZ = minZ + 16.0;
 
             for (int i = 0; i < 6; i++) {
@@ -168,6 +196,10 @@ public class PerspectiveCorrectRenderer {
         this.world = world;
         this.textureAtlas = new TextureAtlas();
         this.mesher = new ThreadedChunkMesher(threadCount);
+        world.getChunkProvider().addUnloadListener(
+                chunk -> meshCache.remove(chunkKey(chunk.getChunkX(), chunk.getChunkZ())));
+        world.addSectionListener(this::onSectionChanged);
+        world.getLightEngine().addListener(this::onLightChanged);
         System.out.println("[PerspectiveCorrectRenderer] Initialized with " + threadCount + " threads");
     }
 
@@ -190,7 +222,36 @@ public class PerspectiveCorrectRenderer {
     public int[] getPixels() { return pixels; }
 
     public void markChunkDirty(int chunkX, int chunkZ) {
-        dirtyChunks.add(chunkKey(chunkX, chunkZ));
+        markSectionsDirty(chunkX, chunkZ, GreedyMesher.ALL_SECTIONS);
+    }
+
+    /**
+     * Remesh one 16x16x16 section of a chunk; the rest of its mesh is kept
+     */
+    public void markSectionDirty(int chunkX, int sectionY, int chunkZ) {
+        markSectionsDirty(chunkX, chunkZ, 1 << sectionY);
+    }
+
+    private void markSectionsDirty(int chunkX, int chunkZ, int sectionMask) {
+        dirtySections.merge(chunkKey(chunkX, chunkZ), sectionMask, (a, b) -> a | b);
+    }
+
+    private void onSectionChanged(int chunkX, int sectionY, int chunkZ, int borderFaces) {
+        int sections = 1 << sectionY;
+        // Top and bottom faces hide or show faces in the section above or below.
+        // Faces on chunk borders are always meshed, so neighbor chunks can stay.
+        if ((borderFaces & (1 << ChunkSection.FACE_BOTTOM)) != 0) sections |= 1 << sectionY >> 1;
+        if ((borderFaces & (1 << ChunkSection.FACE_TOP)) != 0) sections |= 1 << sectionY << 1;
+        markSectionsDirty(chunkX, chunkZ, sections & GreedyMesher.ALL_SECTIONS);
+    }
+
+    private void onLightChanged(int chunkX, int sectionY, int chunkZ, int borderFaces) {
+        onSectionChanged(chunkX, sectionY, chunkZ, borderFaces);
+        // Border faces of the neighboring chunks show light from this one
+        if ((borderFaces & (1 << ChunkSection.FACE_NORTH)) != 0) markSectionDirty(chunkX, sectionY, chunkZ - 1);
+        if ((borderFaces & (1 << ChunkSection.FACE_SOUTH)) != 0) markSectionDirty(chunkX, sectionY, chunkZ + 1);
+        if ((borderFaces & (1 << ChunkSection.FACE_WEST)) != 0) markSectionDirty(chunkX - 1, sectionY, chunkZ);
+        if ((borderFaces & (1 << ChunkSection.FACE_EAST)) != 0) markSectionDirty(chunkX + 1, sectionY, chunkZ);
     }
 
     public void preloadChunksAround(double x, double z, int radius) {
@@ -201,10 +262,11 @@ public class PerspectiveCorrectRenderer {
                 int chunkX = centerChunkX + dx;
                 int chunkZ = centerChunkZ + dz;
                 long key = chunkKey(chunkX, chunkZ);
-                Chunk chunk = world.getChunk(chunkX, chunkZ);
-                if (chunk != null && !meshingInProgress.contains(key)) {
-                    startMeshing(chunk, chunkX, chunkZ, key);
-                }
+                world.getChunkProvider().requestChunk(chunkX, chunkZ, false).thenAccept(chunk -> {
+                    if (!meshingInProgress.contains(key)) {
+                        startMeshing(chunk, chunkX, chunkZ, key);
+                    }
+                });
             }
         }
     }
@@ -228,6 +290,10 @@ public class PerspectiveCorrectRenderer {
         int camChunkX = (int) Math.floor(x / 16.0);
         int camChunkZ = (int) Math.floor(z / 16.0);
 
+        ChunkProvider provider = world.getChunkProvider();
+        provider.setCenter(camChunkX, camChunkZ);
+        provider.cancelOutside(camChunkX, camChunkZ, RENDER_DISTANCE + 2);
+
         processDirtyChunks();
         collectAndSortChunks(camChunkX, camChunkZ);
 
@@ -270,7 +336,19 @@ public class PerspectiveCorrectRenderer {
             for (int dz = -RENDER_DISTANCE; dz <= RENDER_DISTANCE; dz++) {
                 if (dx * dx + dz * dz > RENDER_DISTANCE * RENDER_DISTANCE) continue;
                 int chunkX = camChunkX + dx, chunkZ = camChunkZ + dz;
-                if (!frustum.isChunkVisible(chunkX, chunkZ)) continue;
+                boolean visible = frustum.isChunkVisible(chunkX, chunkZ);
+                Chunk loaded = world.getChunkIfLoaded(chunkX, chunkZ);
+                if (loaded == null) {
+                    // Generate in the background; chunks in view go first
+                    world.getChunkProvider().requestChunk(chunkX, chunkZ, visible);
+                    continue;
+                }
+                if (!visible) continue;
+                // Tighten the box to the non-empty sections
+                int lowest = loaded.getLowestSection();
+                if (lowest < 0) continue; // All air, nothing to draw
+                int highest = loaded.getHighestSection();
+                if (!frustum.isChunkVisible(chunkX, chunkZ, lowest * 16.0, (highest + 1) * 16.0)) continue;
                 long key = chunkKey(chunkX, chunkZ);
                 double centerX = (chunkX * 16.0 + 8.0) - x;
                 double centerZ = (chunkZ * 16.0 + 8.0) - z;
@@ -280,9 +358,9 @@ public class PerspectiveCorrectRenderer {
                 ChunkRenderTask task = new ChunkRenderTask();
                 task.set(chunkX, chunkZ, key, weightedDist);
                 chunkTasks.add(task);
-                if (!meshCache.containsKey(key) && !meshingInProgress.contains(key)) {
-                    Chunk chunk = world.getChunk(chunkX, chunkZ);
-                    if (chunk != null) startMeshing(chunk, chunkX, chunkZ, key);
+                // Unlit chunks would be meshed again as soon as their light lands
+                if (!meshCache.containsKey(key) && !meshingInProgress.contains(key) && loaded.isLightReady()) {
+                    startMeshing(loaded, chunkX, chunkZ, key);
                 }
             }
         }
@@ -290,30 +368,57 @@ public class PerspectiveCorrectRenderer {
     }
 
     private void processDirtyChunks() {
-        if (dirtyChunks.isEmpty()) return;
-        Iterator<Long> it = dirtyChunks.iterator();
+        if (dirtySections.isEmpty()) return;
+        Iterator<Long> it = dirtySections.keySet().iterator();
         int processed = 0;
         while (it.hasNext() && processed < 16) {
             Long key = it.next();
             int chunkX = (int)(key >> 32), chunkZ = (int)(key & 0xFFFFFFFFL);
-            Chunk chunk = world.getChunk(chunkX, chunkZ);
-            if (chunk != null && !meshingInProgress.contains(key)) {
-                startMeshing(chunk, chunkX, chunkZ, key);
-                it.remove();
+            Chunk chunk = world.getChunkIfLoaded(chunkX, chunkZ);
+            if (chunk == null) {
+                it.remove(); // Gets a fresh mesh once it loads
+            } else if (!meshingInProgress.contains(key)) {
+                // Edits arriving after this are kept for the next pass
+                Integer sections = dirtySections.remove(key);
+                if (sections != null) startMeshing(chunk, chunkX, chunkZ, key, sections);
                 processed++;
             }
         }
     }
 
     private void startMeshing(Chunk chunk, int chunkX, int chunkZ, long key) {
+        startMeshing(chunk, chunkX, chunkZ, key, GreedyMesher.ALL_SECTIONS);
+    }
+
+    /**
+     * Loaded horizontal neighbors by ChunkSection face, for border face light
+     */
+    private Chunk[] neighborsOf(int chunkX, int chunkZ) {
+        Chunk[] neighbors = new Chunk[BlockRegistry.FACES];
+        neighbors[ChunkSection.FACE_NORTH] = world.getChunkIfLoaded(chunkX, chunkZ - 1);
+        neighbors[ChunkSection.FACE_SOUTH] = world.getChunkIfLoaded(chunkX, chunkZ + 1);
+        neighbors[ChunkSection.FACE_WEST] = world.getChunkIfLoaded(chunkX - 1, chunkZ);
+        neighbors[ChunkSection.FACE_EAST] = world.getChunkIfLoaded(chunkX + 1, chunkZ);
+        return neighbors;
+    }
+
+    /**
+     * Remesh some sections of a chunk, or all of it if it has no mesh yet
+     */
+    private void startMeshing(Chunk chunk, int chunkX, int chunkZ, long key, int sectionMask) {
+        if (!meshCache.containsKey(key)) sectionMask = GreedyMesher.ALL_SECTIONS;
+        if (sectionMask == GreedyMesher.ALL_SECTIONS) dirtySections.remove(key); // The snapshot below covers them
         meshingInProgress.add(key);
-        CompletableFuture<ThreadedChunkMesher.MeshResult> future = mesher.submitChunk(chunk, chunkX, chunkZ, key);
+        chunk.clearDirty(); // Edits from here on dirty it again
+        CompletableFuture<ThreadedChunkMesher.MeshResult> future =
+                mesher.submitSections(chunk, chunkX, chunkZ, key, sectionMask, neighborsOf(chunkX, chunkZ));
         future.thenAccept(result -> {
-            ChunkMesh mesh = new ChunkMesh(result.quads);
-            meshCache.put(result.key, mesh);
-            chunk.clearDirty();
+            if (result.isFull()) {
+                meshCache.put(result.key, new ChunkMesh(result.sections));
+            } else if (meshCache.computeIfPresent(result.key, (k, mesh) -> mesh.with(result)) == null) {
+                markChunkDirty(result.chunkX, result.chunkZ); // Mesh was dropped meanwhile, rebuild it all
+            }
             meshingInProgress.remove(result.key);
-            dirtyChunks.remove(result.key);
         });
     }
 
@@ -321,7 +426,7 @@ public class PerspectiveCorrectRenderer {
      * FIXED: Enhanced chunk rendering with neighbor-aware face culling
      */
     private boolean renderChunk(int chunkX, int chunkZ, long key) {
-        Chunk chunk = world.getChunk(chunkX, chunkZ);
+        Chunk chunk = world.getChunkIfLoaded(chunkX, chunkZ);
         if (chunk == null) return false;
         ChunkMesh mesh = meshCache.get(key);
         if (mesh == null) return false;
@@ -330,18 +435,21 @@ public class PerspectiveCorrectRenderer {
         int baseX = chunkX << 4, baseZ = chunkZ << 4;
 
         // Get neighbor chunks for proper face culling at borders
-        Chunk chunkNorth = world.getChunk(chunkX, chunkZ - 1);
-        Chunk chunkSouth = world.getChunk(chunkX, chunkZ + 1);
-        Chunk chunkWest = world.getChunk(chunkX - 1, chunkZ);
-        Chunk chunkEast = world.getChunk(chunkX + 1, chunkZ);
-
-        for (GreedyMesher.Quad quad : mesh.quads) {
-            // Check if face is on chunk border and should be culled
-            if (shouldCullBorderFace(quad, chunkNorth, chunkSouth, chunkWest, chunkEast)) {
-                quadsCulled++;
-                continue;
+        Chunk chunkNorth = world.getChunkIfLoaded(chunkX, chunkZ - 1);
+        Chunk chunkSouth = world.getChunkIfLoaded(chunkX, chunkZ + 1);
+        Chunk chunkWest = world.getChunkIfLoaded(chunkX - 1, chunkZ);
+        Chunk chunkEast = world.getChunkIfLoaded(chunkX + 1, chunkZ);
+
+        for (List<GreedyMesher.Quad> section : mesh.sections) {
+            if (section == null) continue;
+            for (GreedyMesher.Quad quad : section) {
+                // Check if face is on chunk border and should be culled
+                if (shouldCullBorderFace(quad, chunkNorth, chunkSouth, chunkWest, chunkEast)) {
+                    quadsCulled++;
+                    continue;
+                }
+                renderQuad(quad, baseX, baseZ);
             }
-            renderQuad(quad, baseX, baseZ);
         }
         return true;
     }
@@ -404,12 +512,10 @@ public class PerspectiveCorrectRenderer {
      * Check if neighbor chunk position has solid block
      */
     private boolean isNeighborSolid(Chunk chunk, int x, int y, int z) {
-        String blockId = chunk.getBlock(x, y, z);
-        if (blockId.equals("space_test:air")) return false;
-
-        xyz.ignite4inferneo.space_test.api.block.Block block =
-                xyz.ignite4inferneo.space_test.api.registry.Registries.BLOCKS.get(blockId);
-        return block != null && block.isSolid() && !block.isTransparent();
+        int blockId = chunk.getBlockId(x, y, z);
+        xyz.ignite4inferneo.space_test.api.registry.BlockRegistry blocks =
+                xyz.ignite4inferneo.space_test.api.registry.Registries.BLOCKS;
+        return blocks.isSolid(blockId) && blocks.isOpaque(blockId);
     }
 
     /**
@@ -449,6 +555,19 @@ public class PerspectiveCorrectRenderer {
             corners[3] = new double[]{ox, wy + quad.h, wz};
         }
 
+        if (quad.w > 1 || quad.h > 1) {
+            // Clamped corners stretch the whole quad; keep the stretch within a block
+            boolean behind = false, inFront = false;
+            for (double[] corner : corners) {
+                double camZ = (corner[0] - x) * fx + (corner[1] - y) * fy + (corner[2] - z) * fz;
+                if (camZ < NEAR_PLANE) behind = true; else inFront = true;
+            }
+            if (behind && inFront) {
+                for (GreedyMesher.Quad half : GreedyMesher.splitQuad(quad)) renderQuad(half, baseX, baseZ);
+                return;
+            }
+        }
+
         Face face = new Face();
         int behindCount = 0;
         double sumCamZ = 0;
@@ -802,18 +921,38 @@ public class PerspectiveCorrectRenderer {
         renderFaces.sort(Comparator.comparingDouble((Face f) -> f.avgDepth).reversed());
     }
 
+    /**
+     * Drop meshes of unloaded chunks, then the least recently used meshes
+     * until the cache fits in ClientSettings.MESH_MEMORY_BUDGET
+     */
     private void cleanupOldMeshes() {
-        if (meshCache.size() < 300) return;
-        long now = System.currentTimeMillis();
         int removed = 0;
+        long bytes = 0;
+        List<Map.Entry<Long, ChunkMesh>> entries = new ArrayList<>(meshCache.size());
+
         Iterator<Map.Entry<Long, ChunkMesh>> it = meshCache.entrySet().iterator();
         while (it.hasNext()) {
             Map.Entry<Long, ChunkMesh> entry = it.next();
-            if (now - entry.getValue().lastUsed > 60000) {
+            if (world.getChunks().get(entry.getKey()) == null) {
                 it.remove();
                 removed++;
+            } else {
+                bytes += entry.getValue().quadCount * BYTES_PER_QUAD;
+                entries.add(entry);
             }
         }
+
+        if (bytes > ClientSettings.MESH_MEMORY_BUDGET) {
+            entries.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+            for (Map.Entry<Long, ChunkMesh> entry : entries) {
+                if (bytes <= ClientSettings.MESH_MEMORY_BUDGET) break;
+                if (meshCache.remove(entry.getKey(), entry.getValue())) {
+                    bytes -= entry.getValue().quadCount * BYTES_PER_QUAD;
+                    removed++;
+                }
+            }
+        }
+
         if (removed > 0) {
             System.out.println("[PerspectiveCorrectRenderer] Cleaned up " + removed + " old meshes");
         }
@@ -1,6 +1,7 @@
 package xyz.ignite4inferneo.space_test.client.renderer;
 
 import xyz.ignite4inferneo.space_test.common.world.Chunk;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,7 +18,17 @@ public class ThreadedChunkMesher {
 
     // Queue for pending mesh tasks
     private final BlockingQueue<MeshTask> taskQueue;
-    private final ConcurrentHashMap<Long, CompletableFuture<MeshResult>> pendingTasks;
+    private final ConcurrentHashMap<Long, PendingTask> pendingTasks;
+
+    private static class PendingTask {
+        final CompletableFuture<MeshResult> future;
+        final int sectionMask;
+
+        PendingTask(CompletableFuture<MeshResult> future, int sectionMask) {
+            this.future = future;
+            this.sectionMask = sectionMask;
+        }
+    }
 
     public static class MeshTask {
         public final Chunk chunk;
@@ -35,16 +46,25 @@ public class ThreadedChunkMesher {
 
     public static class MeshResult {
         public final long key;
-        public final List<GreedyMesher.Quad> quads;
+        public final List<GreedyMesher.Quad>[] sections; // Quads per section, null for sections not meshed
+        public final int sectionMask;                    // Sections that were meshed
         public final int chunkX;
         public final int chunkZ;
 
-        public MeshResult(long key, List<GreedyMesher.Quad> quads, int chunkX, int chunkZ) {
+        public MeshResult(long key, List<GreedyMesher.Quad>[] sections, int sectionMask, int chunkX, int chunkZ) {
             this.key = key;
-            this.quads = quads;
+            this.sections = sections;
+            this.sectionMask = sectionMask;
             this.chunkX = chunkX;
             this.chunkZ = chunkZ;
         }
+
+        /**
+         * True if every section was meshed, so the result replaces the whole chunk mesh
+         */
+        public boolean isFull() {
+            return sectionMask == GreedyMesher.ALL_SECTIONS;
+        }
     }
 
     public ThreadedChunkMesher() {
@@ -74,31 +94,52 @@ public class ThreadedChunkMesher {
 
     /**
      * Submit a chunk for meshing (non-blocking)
-     * Returns a CompletableFuture that completes when meshing is done
+     * Returns a CompletableFuture that completes when meshing is done.
+     * The worker meshes a snapshot taken now, so later edits do not tear it.
      */
     public CompletableFuture<MeshResult> submitChunk(Chunk chunk, int chunkX, int chunkZ, long key) {
+        return submitSections(chunk, chunkX, chunkZ, key, GreedyMesher.ALL_SECTIONS, null);
+    }
+
+    /**
+     * Submit only some sections of a chunk for meshing (non-blocking).
+     * A pending task for the same chunk is reused if it covers every
+     * requested section.
+     * @param sectionMask bit per section index to remesh
+     * @param neighbors loaded adjacent chunks by ChunkSection face, read for
+     *                  the light on border faces; null if unknown
+     */
+    public CompletableFuture<MeshResult> submitSections(Chunk chunk, int chunkX, int chunkZ, long key,
+                                                        int sectionMask, Chunk[] neighbors) {
         // Check if already pending
-        CompletableFuture<MeshResult> existing = pendingTasks.get(key);
-        if (existing != null && !existing.isDone()) {
-            return existing;
+        PendingTask existing = pendingTasks.get(key);
+        if (existing != null && !existing.future.isDone()
+                && (existing.sectionMask & sectionMask) == sectionMask) {
+            return existing.future;
         }
 
         // Create new task
+        ChunkSnapshot snapshot = chunk.snapshot();
         CompletableFuture<MeshResult> future = CompletableFuture.supplyAsync(() -> {
             try {
                 // Perform meshing on worker thread
-                List<GreedyMesher.Quad> quads = GreedyMesher.mesh(chunk);
-                return new MeshResult(key, quads, chunkX, chunkZ);
+                List<GreedyMesher.Quad>[] sections = BinaryGreedyMesher.meshSections(snapshot, sectionMask, neighbors);
+                return new MeshResult(key, sections, sectionMask, chunkX, chunkZ);
             } catch (Exception e) {
                 System.err.println("[ThreadedMesher] Error meshing chunk (" + chunkX + ", " + chunkZ + "): " + e.getMessage());
                 e.printStackTrace();
-                return new MeshResult(key, new ArrayList<>(), chunkX, chunkZ);
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                List<GreedyMesher.Quad>[] none = new List[Chunk.SECTION_COUNT];
+                return new MeshResult(key, none, 0, chunkX, chunkZ);
+            } finally {
+                snapshot.close();
             }
         }, executor);
 
         // Store and clean up when done
-        pendingTasks.put(key, future);
-        future.thenRun(() -> pendingTasks.remove(key));
+        PendingTask task = new PendingTask(future, sectionMask);
+        pendingTasks.put(key, task);
+        future.thenRun(() -> pendingTasks.remove(key, task));
 
         return future;
     }
@@ -121,7 +162,10 @@ public class ThreadedChunkMesher {
      * Useful for loading screens
      */
     public void waitForAll() {
-        List<CompletableFuture<MeshResult>> allFutures = new ArrayList<>(pendingTasks.values());
+        List<CompletableFuture<MeshResult>> allFutures = new ArrayList<>();
+        for (PendingTask task : pendingTasks.values()) {
+            allFutures.add(task.future);
+        }
         CompletableFuture.allOf(allFutures.toArray(new CompletableFuture[0])).join();
     }
 
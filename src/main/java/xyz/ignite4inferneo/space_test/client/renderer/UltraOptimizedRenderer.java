@@ -1,8 +1,12 @@
 package xyz.ignite4inferneo.space_test.client.renderer;
 
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.client.ClientSettings;
 import xyz.ignite4inferneo.space_test.common.entity.*;
 import xyz.ignite4inferneo.space_test.common.inventory.ItemStack;
 import xyz.ignite4inferneo.space_test.common.world.Chunk;
+import xyz.ignite4inferneo.space_test.common.world.ChunkProvider;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSection;
 import xyz.ignite4inferneo.space_test.common.world.World;
 
 import java.awt.image.BufferedImage;
@@ -35,7 +39,7 @@ public class UltraOptimizedRenderer {
 
     private final Frustum frustum = new Frustum();
     private final ConcurrentHashMap<Long, ChunkMesh> meshCache = new ConcurrentHashMap<>(256);
-    private final Set<Long> dirtyChunks = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, Integer> dirtySections = new ConcurrentHashMap<>(); // Section bits per chunk
     private final Set<Long> meshingInProgress = ConcurrentHashMap.newKeySet();
 
     private final FastFaceList renderFaces = new FastFaceList(8192);
@@ -48,17 +52,35 @@ public class UltraOptimizedRenderer {
     private int chunksRendered = 0, chunksMeshing = 0;
     private int quadsRendered = 0, quadsCulled = 0;
     private long lastCleanupTime = 0;
-    private static final long CLEANUP_INTERVAL = 30000;
+    private static final long CLEANUP_INTERVAL = 5000;
+    private static final long BYTES_PER_QUAD = 56; // Quad object plus list slot
 
     public TextureAtlas getTextureAtlas() { return textureAtlas; }
 
     private static class ChunkMesh {
-        List<GreedyMesher.Quad> quads;
+        final List<GreedyMesher.Quad>[] sections; // Quads per 16-high section
+        final int quadCount;
         long lastUsed;
-        ChunkMesh(List<GreedyMesher.Quad> quads) {
-            this.quads = quads;
+        ChunkMesh(List<GreedyMesher.Quad>[] sections) {
+            this.sections = sections;
+            int count = 0;
+            for (List<GreedyMesher.Quad> section : sections) {
+                if (section != null) count += section.size();
+            }
+            this.quadCount = count;
             this.lastUsed = System.currentTimeMillis();
         }
+
+        /**
+         * Copy of this mesh with the remeshed sections of a result swapped in
+         */
+        ChunkMesh with(ThreadedChunkMesher.MeshResult result) {
+            List<GreedyMesher.Quad>[] merged = sections.clone();
+            for (int i = 0; i < merged.length; i++) {
+                if ((result.sectionMask & (1 << i)) != 0) merged[i] = result.sections[i];
+            }
+            return new ChunkMesh(merged);
+        }
     }
 
     private static class Frustum {
@@ -107,8 +129,14 @@ public class UltraOptimizedRenderer {
         }
 
         boolean isChunkVisible(int chunkX, int chunkZ) {
+            return isChunkVisible(chunkX, chunkZ, 0, Chunk.HEIGHT);
+        }
+
+        /**
+         * Test only the Y range covered by a chunk's non-empty sections
+         */
+        boolean isChunkVisible(int chunkX, int chunkZ, double minY, double maxY) {
             double minX = chunkX * 16.0, maxX = minX + 16.0;
-            double minY = 0, maxY = 256;
             double minZ = chunkZ * 16.0, maxZ = minZ + 16.0;
 
             for (int i = 0; i < 6; i++) {
@@ -187,6 +215,10 @@ public class UltraOptimizedRenderer {
         this.mesher = new ThreadedChunkMesher(threadCount);
         int tileThreads = Math.max(2, threadCount / 2);
         this.tiledRenderer = new TiledRenderer(TILE_SIZE, tileThreads);
+        world.getChunkProvider().addUnloadListener(
+                chunk -> meshCache.remove(chunkKey(chunk.getChunkX(), chunk.getChunkZ())));
+        world.addSectionListener(this::onSectionChanged);
+        world.getLightEngine().addListener(this::onLightChanged);
         System.out.println("[UltraOptimizedRenderer] Initialized with " + threadCount +
                 " mesh threads and " + tileThreads + " tile threads");
     }
@@ -207,7 +239,36 @@ public class UltraOptimizedRenderer {
     public int[] getPixels() { return pixels; }
 
     public void markChunkDirty(int chunkX, int chunkZ) {
-        dirtyChunks.add(chunkKey(chunkX, chunkZ));
+        markSectionsDirty(chunkX, chunkZ, GreedyMesher.ALL_SECTIONS);
+    }
+
+    /**
+     * Remesh one 16x16x16 section of a chunk; the rest of its mesh is kept
+     */
+    public void markSectionDirty(int chunkX, int sectionY, int chunkZ) {
+        markSectionsDirty(chunkX, chunkZ, 1 << sectionY);
+    }
+
+    private void markSectionsDirty(int chunkX, int chunkZ, int sectionMask) {
+        dirtySections.merge(chunkKey(chunkX, chunkZ), sectionMask, (a, b) -> a | b);
+    }
+
+    private void onSectionChanged(int chunkX, int sectionY, int chunkZ, int borderFaces) {
+        int sections = 1 << sectionY;
+        // Top and bottom faces hide or show faces in the section above or below.
+        // Faces on chunk borders are always meshed, so neighbor chunks can stay.
+        if ((borderFaces & (1 << ChunkSection.FACE_BOTTOM)) != 0) sections |= 1 << sectionY >> 1;
+        if ((borderFaces & (1 << ChunkSection.FACE_TOP)) != 0) sections |= 1 << sectionY << 1;
+        markSectionsDirty(chunkX, chunkZ, sections & GreedyMesher.ALL_SECTIONS);
+    }
+
+    private void onLightChanged(int chunkX, int sectionY, int chunkZ, int borderFaces) {
+        onSectionChanged(chunkX, sectionY, chunkZ, borderFaces);
+        // Border faces of the neighboring chunks show light from this one
+        if ((borderFaces & (1 << ChunkSection.FACE_NORTH)) != 0) markSectionDirty(chunkX, sectionY, chunkZ - 1);
+        if ((borderFaces & (1 << ChunkSection.FACE_SOUTH)) != 0) markSectionDirty(chunkX, sectionY, chunkZ + 1);
+        if ((borderFaces & (1 << ChunkSection.FACE_WEST)) != 0) markSectionDirty(chunkX - 1, sectionY, chunkZ);
+        if ((borderFaces & (1 << ChunkSection.FACE_EAST)) != 0) markSectionDirty(chunkX + 1, sectionY, chunkZ);
     }
 
     public void preloadChunksAround(double x, double z, int radius) {
@@ -218,10 +279,11 @@ public class UltraOptimizedRenderer {
                 int chunkX = centerChunkX + dx;
                 int chunkZ = centerChunkZ + dz;
                 long key = chunkKey(chunkX, chunkZ);
-                Chunk chunk = world.getChunk(chunkX, chunkZ);
-                if (chunk != null && !meshingInProgress.contains(key)) {
-                    startMeshing(chunk, chunkX, chunkZ, key);
-                }
+                world.getChunkProvider().requestChunk(chunkX, chunkZ, false).thenAccept(chunk -> {
+                    if (!meshingInProgress.contains(key)) {
+                        startMeshing(chunk, chunkX, chunkZ, key);
+                    }
+                });
             }
         }
     }
@@ -239,6 +301,10 @@ public class UltraOptimizedRenderer {
         frustum.update(x, y, z, fx, fy, fz, rx, rz, ux, uy, uz, fov, aspect);
         int camChunkX = (int) Math.floor(x) >> 4;
         int camChunkZ = (int) Math.floor(z) >> 4;
+        ChunkProvider provider = world.getChunkProvider();
+        provider.setCenter(camChunkX, camChunkZ);
+        provider.cancelOutside(camChunkX, camChunkZ, RENDER_DISTANCE + 2);
+
         processDirtyChunks();
         collectAndSortChunks(camChunkX, camChunkZ);
         chunksRendered = 0;
@@ -284,7 +350,19 @@ public class UltraOptimizedRenderer {
             for (int dz = -RENDER_DISTANCE; dz <= RENDER_DISTANCE; dz++) {
                 if (dx * dx + dz * dz > RENDER_DISTANCE * RENDER_DISTANCE) continue;
                 int chunkX = camChunkX + dx, chunkZ = camChunkZ + dz;
-                if (!frustum.isChunkVisible(chunkX, chunkZ)) continue;
+                boolean visible = frustum.isChunkVisible(chunkX, chunkZ);
+                Chunk loaded = world.getChunkIfLoaded(chunkX, chunkZ);
+                if (loaded == null) {
+                    // Generate in the background; chunks in view go first
+                    world.getChunkProvider().requestChunk(chunkX, chunkZ, visible);
+                    continue;
+                }
+                if (!visible) continue;
+                // Tighten the box to the non-empty sections
+                int lowest = loaded.getLowestSection();
+                if (lowest < 0) continue; // All air, nothing to draw
+                int highest = loaded.getHighestSection();
+                if (!frustum.isChunkVisible(chunkX, chunkZ, lowest * 16.0, (highest + 1) * 16.0)) continue;
                 long key = chunkKey(chunkX, chunkZ);
                 double centerX = (chunkX * 16.0 + 8.0) - x;
                 double centerZ = (chunkZ * 16.0 + 8.0) - z;
@@ -294,9 +372,9 @@ public class UltraOptimizedRenderer {
                 ChunkRenderTask task = new ChunkRenderTask();
                 task.set(chunkX, chunkZ, key, weightedDist);
                 chunkTasks.add(task);
-                if (!meshCache.containsKey(key) && !meshingInProgress.contains(key)) {
-                    Chunk chunk = world.getChunk(chunkX, chunkZ);
-                    if (chunk != null) startMeshing(chunk, chunkX, chunkZ, key);
+                // Unlit chunks would be meshed again as soon as their light lands
+                if (!meshCache.containsKey(key) && !meshingInProgress.contains(key) && loaded.isLightReady()) {
+                    startMeshing(loaded, chunkX, chunkZ, key);
                 }
             }
         }
@@ -304,41 +382,71 @@ public class UltraOptimizedRenderer {
     }
 
     private void processDirtyChunks() {
-        if (dirtyChunks.isEmpty()) return;
-        Iterator<Long> it = dirtyChunks.iterator();
+        if (dirtySections.isEmpty()) return;
+        Iterator<Long> it = dirtySections.keySet().iterator();
         int processed = 0;
         while (it.hasNext() && processed < 16) {
             Long key = it.next();
             int chunkX = (int)(key >> 32), chunkZ = (int)(key & 0xFFFFFFFFL);
-            Chunk chunk = world.getChunk(chunkX, chunkZ);
-            if (chunk != null && !meshingInProgress.contains(key)) {
-                startMeshing(chunk, chunkX, chunkZ, key);
-                it.remove();
+            Chunk chunk = world.getChunkIfLoaded(chunkX, chunkZ);
+            if (chunk == null) {
+                it.remove(); // Gets a fresh mesh once it loads
+            } else if (!meshingInProgress.contains(key)) {
+                // Edits arriving after this are kept for the next pass
+                Integer sections = dirtySections.remove(key);
+                if (sections != null) startMeshing(chunk, chunkX, chunkZ, key, sections);
                 processed++;
             }
         }
     }
 
     private void startMeshing(Chunk chunk, int chunkX, int chunkZ, long key) {
+        startMeshing(chunk, chunkX, chunkZ, key, GreedyMesher.ALL_SECTIONS);
+    }
+
+    /**
+     * Loaded horizontal neighbors by ChunkSection face, for border face light
+     */
+    private Chunk[] neighborsOf(int chunkX, int chunkZ) {
+        Chunk[] neighbors = new Chunk[BlockRegistry.FACES];
+        neighbors[ChunkSection.FACE_NORTH] = world.getChunkIfLoaded(chunkX, chunkZ - 1);
+        neighbors[ChunkSection.FACE_SOUTH] = world.getChunkIfLoaded(chunkX, chunkZ + 1);
+        neighbors[ChunkSection.FACE_WEST] = world.getChunkIfLoaded(chunkX - 1, chunkZ);
+        neighbors[ChunkSection.FACE_EAST] = world.getChunkIfLoaded(chunkX + 1, chunkZ);
+        return neighbors;
+    }
+
+    /**
+     * Remesh some sections of a chunk, or all of it if it has no mesh yet
+     */
+    private void startMeshing(Chunk chunk, int chunkX, int chunkZ, long key, int sectionMask) {
+        if (!meshCache.containsKey(key)) sectionMask = GreedyMesher.ALL_SECTIONS;
+        if (sectionMask == GreedyMesher.ALL_SECTIONS) dirtySections.remove(key); // The snapshot below covers them
         meshingInProgress.add(key);
-        CompletableFuture<ThreadedChunkMesher.MeshResult> future = mesher.submitChunk(chunk, chunkX, chunkZ, key);
+        chunk.clearDirty(); // Edits from here on dirty it again
+        CompletableFuture<ThreadedChunkMesher.MeshResult> future =
+                mesher.submitSections(chunk, chunkX, chunkZ, key, sectionMask, neighborsOf(chunkX, chunkZ));
         future.thenAccept(result -> {
-            ChunkMesh mesh = new ChunkMesh(result.quads);
-            meshCache.put(result.key, mesh);
-            chunk.clearDirty();
+            if (result.isFull()) {
+                meshCache.put(result.key, new ChunkMesh(result.sections));
+            } else if (meshCache.computeIfPresent(result.key, (k, mesh) -> mesh.with(result)) == null) {
+                markChunkDirty(result.chunkX, result.chunkZ); // Mesh was dropped meanwhile, rebuild it all
+            }
             meshingInProgress.remove(result.key);
-            dirtyChunks.remove(result.key);
         });
     }
 
     private boolean renderChunk(int chunkX, int chunkZ, long key) {
-        Chunk chunk = world.getChunk(chunkX, chunkZ);
+        Chunk chunk = world.getChunkIfLoaded(chunkX, chunkZ);
         if (chunk == null) return false;
         ChunkMesh mesh = meshCache.get(key);
         if (mesh == null) return false;
         mesh.lastUsed = System.currentTimeMillis();
         int baseX = chunkX << 4, baseZ = chunkZ << 4;
-        for (GreedyMesher.Quad quad : mesh.quads) renderQuad(quad, baseX, baseZ);
+        for (List<GreedyMesher.Quad> section : mesh.sections) {
+            if (section == null) continue;
+            for (GreedyMesher.Quad quad : section) renderQuad(quad, baseX, baseZ);
+        }
         return true;
     }
 
@@ -375,6 +483,11 @@ public class UltraOptimizedRenderer {
             if (camZ[i] < NEAR_PLANE) { behindCount++; camZ[i] = NEAR_PLANE; }
         }
         if (behindCount == 4) { quadsCulled++; return; }
+        if (behindCount > 0 && (quad.w > 1 || quad.h > 1)) {
+            // Clamped corners stretch the whole quad; keep the stretch within a block
+            for (GreedyMesher.Quad half : GreedyMesher.splitQuad(quad)) renderQuad(half, baseX, baseZ);
+            return;
+        }
         for (int i = 0; i < 4; i++) {
             double dx = corners[i][0] - x, dy = corners[i][1] - y, dz = corners[i][2] - z;
             double scale = invTanHalfFov / camZ[i];
@@ -1243,18 +1356,35 @@ public class UltraOptimizedRenderer {
         }
     }
 
+    /**
+     * Drop meshes of unloaded chunks, then the least recently used meshes
+     * until the cache fits in ClientSettings.MESH_MEMORY_BUDGET
+     */
     private void cleanupOldMeshes() {
-        if (meshCache.size() < 300) return;
-
-        long now = System.currentTimeMillis();
         int removed = 0;
+        long bytes = 0;
+        List<Map.Entry<Long, ChunkMesh>> entries = new ArrayList<>(meshCache.size());
 
         Iterator<Map.Entry<Long, ChunkMesh>> it = meshCache.entrySet().iterator();
         while (it.hasNext()) {
             Map.Entry<Long, ChunkMesh> entry = it.next();
-            if (now - entry.getValue().lastUsed > 60000) {
+            if (world.getChunks().get(entry.getKey()) == null) {
                 it.remove();
                 removed++;
+            } else {
+                bytes += entry.getValue().quadCount * BYTES_PER_QUAD;
+                entries.add(entry);
+            }
+        }
+
+        if (bytes > ClientSettings.MESH_MEMORY_BUDGET) {
+            entries.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+            for (Map.Entry<Long, ChunkMesh> entry : entries) {
+                if (bytes <= ClientSettings.MESH_MEMORY_BUDGET) break;
+                if (meshCache.remove(entry.getKey(), entry.getValue())) {
+                    bytes -= entry.getValue().quadCount * BYTES_PER_QUAD;
+                    removed++;
+                }
             }
         }
 
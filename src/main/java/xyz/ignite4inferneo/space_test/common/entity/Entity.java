@@ -241,6 +241,11 @@ public abstract class Entity {
         int minZ = (int) Math.floor(z - hw - collisionMargin);
         int maxZ = (int) Math.floor(z + hw + collisionMargin);
 
+        // Nothing to hit if every overlapping section is air
+        if (world.isAreaEmpty(minX, minY, minZ, maxX, maxY, maxZ)) {
+            return false;
+        }
+
         // Check all blocks in range
         for (int bx = minX; bx <= maxX; bx++) {
             for (int by = minY; by <= maxY; by++) {
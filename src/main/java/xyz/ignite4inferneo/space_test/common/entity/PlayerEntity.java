@@ -84,6 +84,11 @@ public class PlayerEntity extends LivingEntity {
         int minZ = (int) Math.floor(z - hw - margin);
         int maxZ = (int) Math.floor(z + hw + margin);
 
+        // Nothing to hit if every overlapping section is air
+        if (world.isAreaEmpty(minX, minY, minZ, maxX, maxY, maxZ)) {
+            return false;
+        }
+
         // Check all corners and center points
         for (int bx = minX; bx <= maxX; bx++) {
             for (int by = minY; by <= maxY; by++) {
@@ -22,9 +22,10 @@ public class EntitySpawnHelper {
             double x = playerX + Math.cos(angle) * 10;
             double z = playerZ + Math.sin(angle) * 10;
 
-            PigEntity pig = new PigEntity(world, x, playerY, z);
+            double y = groundY(world, x, z);
+            PigEntity pig = new PigEntity(world, x, y, z);
             world.getEntityManager().addEntity(pig);
-            System.out.println("[EntitySpawnHelper] Spawned pig at " + x + ", " + playerY + ", " + z);
+            System.out.println("[EntitySpawnHelper] Spawned pig at " + x + ", " + y + ", " + z);
         }
 
         // Spawn some zombies further away
@@ -33,9 +34,10 @@ public class EntitySpawnHelper {
             double x = playerX + Math.cos(angle) * 20;
             double z = playerZ + Math.sin(angle) * 20;
 
-            ZombieEntity zombie = new ZombieEntity(world, x, playerY, z);
+            double y = groundY(world, x, z);
+            ZombieEntity zombie = new ZombieEntity(world, x, y, z);
             world.getEntityManager().addEntity(zombie);
-            System.out.println("[EntitySpawnHelper] Spawned zombie at " + x + ", " + playerY + ", " + z);
+            System.out.println("[EntitySpawnHelper] Spawned zombie at " + x + ", " + y + ", " + z);
         }
 
         // Spawn some item entities
@@ -50,14 +52,23 @@ public class EntitySpawnHelper {
             int count = 1 + (int)(Math.random() * 10);
 
             ItemStack stack = new ItemStack(randomItem, count);
-            ItemEntity itemEntity = new ItemEntity(world, x, playerY + 1, z, stack);
+            double y = groundY(world, x, z) + 1;
+            ItemEntity itemEntity = new ItemEntity(world, x, y, z, stack);
             world.getEntityManager().addEntity(itemEntity);
-            System.out.println("[EntitySpawnHelper] Spawned item " + randomItem + " x" + count + " at " + x + ", " + (playerY+1) + ", " + z);
+            System.out.println("[EntitySpawnHelper] Spawned item " + randomItem + " x" + count + " at " + x + ", " + y + ", " + z);
         }
 
         System.out.println("[EntitySpawnHelper] Spawned " + world.getEntityManager().getEntityCount() + " entities total");
     }
 
+    /**
+     * Y just above the highest solid block of the column containing (x, z)
+     */
+    private static double groundY(World world, double x, double z) {
+        world.getChunk((int) Math.floor(x) >> 4, (int) Math.floor(z) >> 4); // Reads do not load chunks
+        return world.getHeight((int) Math.floor(x), (int) Math.floor(z)) + 1;
+    }
+
     /**
      * Clear all entities except players
      */
@@ -72,10 +72,20 @@ public class RayCast {
 
         double radius = maxDistance / Math.sqrt(dirX * dirX + dirY * dirY + dirZ * dirZ);
 
+        // Last 16x16x16 section found empty, so voxels inside it skip the block lookup
+        int emptySectionX = Integer.MIN_VALUE, emptySectionY = 0, emptySectionZ = 0;
+
         while (true) {
             // Check current voxel
-            String block = world.getBlock(x, y, z);
-            if (block != null && !block.equals("space_test:air") && world.isSolid(x, y, z)) {
+            boolean inEmptySection = (x >> 4) == emptySectionX && (y >> 4) == emptySectionY && (z >> 4) == emptySectionZ;
+            if (!inEmptySection && world.isSectionEmpty(x, y, z)) {
+                emptySectionX = x >> 4;
+                emptySectionY = y >> 4;
+                emptySectionZ = z >> 4;
+                inEmptySection = true;
+            }
+
+            if (!inEmptySection && world.isSolid(x, y, z)) {
                 double dx = x + 0.5 - startX;
                 double dy = y + 0.5 - startY;
                 double dz = z + 0.5 - startZ;
@@ -0,0 +1,53 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+/**
+ * Climate zones chosen from temperature and humidity. A biome picks the
+ * blocks at the top of the terrain and how often trees grow there.
+ */
+public enum Biome {
+    PLAINS("space_test:grass", "space_test:dirt", 0.02),
+    FOREST("space_test:grass", "space_test:dirt", 0.08),
+    BARREN("space_test:dirt", "space_test:dirt", 0.002),  // Hot and dry
+    ROCKY("space_test:stone", "space_test:stone", 0.005); // Cold
+
+    private final String surfaceBlock;
+    private final String fillerBlock;
+    private final double treeChance;
+
+    Biome(String surfaceBlock, String fillerBlock, double treeChance) {
+        this.surfaceBlock = surfaceBlock;
+        this.fillerBlock = fillerBlock;
+        this.treeChance = treeChance;
+    }
+
+    /**
+     * Biome for a climate, both values roughly in -1..1
+     */
+    public static Biome fromClimate(double temperature, double humidity) {
+        if (temperature < -0.25) return ROCKY;
+        if (temperature > 0.2 && humidity < -0.1) return BARREN;
+        if (humidity > 0.1) return FOREST;
+        return PLAINS;
+    }
+
+    /**
+     * Top block of the terrain above sea level
+     */
+    public String getSurfaceBlock() {
+        return surfaceBlock;
+    }
+
+    /**
+     * Blocks between the surface and the stone below
+     */
+    public String getFillerBlock() {
+        return fillerBlock;
+    }
+
+    /**
+     * Chance of a tree per surface column
+     */
+    public double getTreeChance() {
+        return treeChance;
+    }
+}
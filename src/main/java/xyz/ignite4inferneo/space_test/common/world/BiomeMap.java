@@ -0,0 +1,179 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Biomes for a world seed, computed at a quarter of block resolution.
+ *
+ * Temperature and humidity noise are evaluated once per 4x4 block cell,
+ * never per block, and a cell's biome is taken from its climate. Cells are
+ * computed a region (16x16 cells, 4x4 chunks) at a time with batch noise,
+ * with a one-cell margin so a chunk never needs more than one region.
+ *
+ * Blocks between cell centers blend the four nearest cells: values such as
+ * tree chance are interpolated, and the biome itself is one of the four,
+ * picked with their interpolation weights by a per-column hash. Edges come
+ * out as a dithered band a cell wide instead of a 4-block staircase.
+ *
+ * Regions are kept in a direct-mapped cache of immutable entries shared by
+ * all generation threads, like {@link NoiseLayer}'s lattice cache: racing
+ * threads at worst compute a region twice, and results never depend on
+ * what was cached.
+ */
+public final class BiomeMap {
+    public static final int CELL_SIZE = 4; // Blocks
+
+    private static final int REGION_CELLS = 16;
+    private static final int REGION_SHIFT = 6; // Blocks per region side: CELL_SIZE * REGION_CELLS = 64
+    private static final int STRIDE = REGION_CELLS + 2; // Plus a margin cell each side
+    private static final int CACHE_SIZE = 256; // Regions, power of two
+
+    private static final double CLIMATE_SCALE = 0.0025; // Per block
+    private static final Biome[] BIOMES = Biome.values();
+
+    private static final class Region {
+        final long key;
+        final byte[] biomes; // Biome ordinal per cell, STRIDE x STRIDE from the margin
+
+        Region(long key, byte[] biomes) {
+            this.key = key;
+            this.biomes = biomes;
+        }
+    }
+
+    private final long seed;
+    private final PerlinNoise temperatureNoise;
+    private final PerlinNoise humidityNoise;
+    private final Region[] cache = new Region[CACHE_SIZE];
+    private final LongAdder regionsComputed = new LongAdder();
+
+    public BiomeMap(long seed) {
+        this.seed = seed;
+        this.temperatureNoise = new PerlinNoise(seed + 6);
+        this.humidityNoise = new PerlinNoise(seed + 7);
+    }
+
+    /**
+     * Biome at a block column
+     */
+    public Biome getBiome(int x, int z) {
+        Region region = region(x >> REGION_SHIFT, z >> REGION_SHIFT);
+        int cellX = Math.floorDiv(x - CELL_SIZE / 2, CELL_SIZE);
+        int cellZ = Math.floorDiv(z - CELL_SIZE / 2, CELL_SIZE);
+        int index = cellIndex(cellX - (x >> REGION_SHIFT) * REGION_CELLS, cellZ - (z >> REGION_SHIFT) * REGION_CELLS);
+        return pick(region, index, fraction(x, cellX), fraction(z, cellZ), x, z);
+    }
+
+    /**
+     * Blended biome and tree chance for each column of a chunk (index
+     * z * 16 + x). Either array may be null.
+     */
+    public void fillChunk(int chunkX, int chunkZ, Biome[] biomes, double[] treeChances) {
+        int baseX = chunkX * Chunk.SIZE;
+        int baseZ = chunkZ * Chunk.SIZE;
+        int regionX = baseX >> REGION_SHIFT;
+        int regionZ = baseZ >> REGION_SHIFT;
+        Region region = region(regionX, regionZ);
+
+        for (int lz = 0; lz < Chunk.SIZE; lz++) {
+            int z = baseZ + lz;
+            int cellZ = Math.floorDiv(z - CELL_SIZE / 2, CELL_SIZE);
+            double fz = fraction(z, cellZ);
+            for (int lx = 0; lx < Chunk.SIZE; lx++) {
+                int x = baseX + lx;
+                int cellX = Math.floorDiv(x - CELL_SIZE / 2, CELL_SIZE);
+                double fx = fraction(x, cellX);
+                int index = cellIndex(cellX - regionX * REGION_CELLS, cellZ - regionZ * REGION_CELLS);
+
+                if (biomes != null) biomes[lz * Chunk.SIZE + lx] = pick(region, index, fx, fz, x, z);
+                if (treeChances != null) {
+                    byte[] cells = region.biomes;
+                    double north = BIOMES[cells[index]].getTreeChance()
+                            + fx * (BIOMES[cells[index + 1]].getTreeChance() - BIOMES[cells[index]].getTreeChance());
+                    double south = BIOMES[cells[index + STRIDE]].getTreeChance()
+                            + fx * (BIOMES[cells[index + STRIDE + 1]].getTreeChance() - BIOMES[cells[index + STRIDE]].getTreeChance());
+                    treeChances[lz * Chunk.SIZE + lx] = north + fz * (south - north);
+                }
+            }
+        }
+    }
+
+    /**
+     * Regions computed so far (cache misses), for profiling
+     */
+    public long getRegionsComputed() {
+        return regionsComputed.sum();
+    }
+
+    /**
+     * One of the four cells around a column, chosen with its bilinear weight
+     */
+    private Biome pick(Region region, int index, double fx, double fz, int x, int z) {
+        double roll = columnHash(x, z);
+        double weight = (1 - fx) * (1 - fz);
+        if (roll < weight) return BIOMES[region.biomes[index]];
+        weight += fx * (1 - fz);
+        if (roll < weight) return BIOMES[region.biomes[index + 1]];
+        weight += (1 - fx) * fz;
+        if (roll < weight) return BIOMES[region.biomes[index + STRIDE]];
+        return BIOMES[region.biomes[index + STRIDE + 1]];
+    }
+
+    /**
+     * Position of a block between the center of cell and the next one, 0..1
+     */
+    private static double fraction(int block, int cell) {
+        return (block - (cell * CELL_SIZE + CELL_SIZE / 2) + 0.5) / CELL_SIZE;
+    }
+
+    /**
+     * Index of a cell given relative to its region's first cell
+     */
+    private static int cellIndex(int cellX, int cellZ) {
+        return (cellZ + 1) * STRIDE + cellX + 1;
+    }
+
+    /**
+     * Uniform value in [0, 1) for a column
+     */
+    private double columnHash(int x, int z) {
+        long h = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (z * 0xC2B2AE3D27D4EB4FL);
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+
+    private Region region(int regionX, int regionZ) {
+        long key = ChunkMap.key(regionX, regionZ);
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & (CACHE_SIZE - 1);
+        Region region = cache[slot];
+        if (region != null && region.key == key) return region;
+
+        region = computeRegion(regionX, regionZ, key);
+        cache[slot] = region;
+        return region;
+    }
+
+    private Region computeRegion(int regionX, int regionZ, long key) {
+        // Cell centers from one cell before the region to one after
+        double[] xs = new double[STRIDE];
+        double[] zs = new double[STRIDE];
+        for (int i = 0; i < STRIDE; i++) {
+            xs[i] = ((regionX * REGION_CELLS + i - 1) * CELL_SIZE + CELL_SIZE / 2) * CLIMATE_SCALE;
+            zs[i] = ((regionZ * REGION_CELLS + i - 1) * CELL_SIZE + CELL_SIZE / 2) * CLIMATE_SCALE;
+        }
+        double[] temperature = new double[STRIDE * STRIDE];
+        double[] humidity = new double[STRIDE * STRIDE];
+        temperatureNoise.fillOctaveNoise(temperature, xs, zs, 3, 0.5);
+        humidityNoise.fillOctaveNoise(humidity, xs, zs, 3, 0.5);
+
+        byte[] biomes = new byte[STRIDE * STRIDE];
+        for (int i = 0; i < biomes.length; i++) {
+            biomes[i] = (byte) Biome.fromClimate(temperature[i], humidity[i]).ordinal();
+        }
+        regionsComputed.increment();
+        return new Region(key, biomes);
+    }
+}
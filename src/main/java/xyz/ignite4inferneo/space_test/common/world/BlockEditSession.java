@@ -0,0 +1,297 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A batch of block edits applied together, for explosions, structure pastes
+ * and fills.
+ *
+ * Edits are buffered per 16x16x16 section (the last write to a position
+ * wins) and nothing changes until {@link #commit()}. Committing writes each
+ * section in one tight loop under one chunk lock, raises one
+ * {@link World.SectionListener} notification per changed section, queues
+ * one light update for the whole edit, and only then runs callbacks:
+ * onBreak/onPlace once per changed block. Blocks bordering the edit are
+ * handed to the world's {@link BlockTicker} for onNeighborChange on the
+ * next tick (blocks inside the edit are not notified of their neighbors).
+ * Blocks that do not override a callback are skipped without a call.
+ *
+ * Not thread safe; use one session per thread. Try-with-resources commits
+ * on close.
+ */
+public class BlockEditSession implements AutoCloseable {
+    private final World world;
+    private final Map<Long, ChunkBatch> batches = new HashMap<>();
+    private ChunkBatch lastBatch; // Edits usually hit the same chunk repeatedly
+    private int pendingCount;
+    private long[] neighbors = new long[256]; // Packed positions to notify, may repeat
+    private int neighborCount;
+    private long[] lightChanges = new long[256]; // Packed positions to relight
+    private int lightChangeCount;
+
+    private static final class SectionBatch {
+        final int[] pending = new int[ChunkSection.VOLUME]; // New block ID per position, -1 if untouched
+        int[] positions = new int[256];
+        int count;
+
+        SectionBatch() {
+            Arrays.fill(pending, -1);
+        }
+
+        /**
+         * @return true if the position was not written before
+         */
+        boolean set(int index, int blockId) {
+            boolean added = pending[index] < 0;
+            if (added) {
+                if (count == positions.length) {
+                    positions = Arrays.copyOf(positions, Math.min(ChunkSection.VOLUME, count * 2));
+                }
+                positions[count++] = index;
+            }
+            pending[index] = blockId;
+            return added;
+        }
+    }
+
+    private static final class ChunkBatch {
+        final int chunkX;
+        final int chunkZ;
+        final SectionBatch[] sections = new SectionBatch[Chunk.SECTION_COUNT];
+
+        ChunkBatch(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        SectionBatch section(int sectionY) {
+            SectionBatch section = sections[sectionY];
+            if (section == null) {
+                section = new SectionBatch();
+                sections[sectionY] = section;
+            }
+            return section;
+        }
+    }
+
+    public BlockEditSession(World world) {
+        this.world = world;
+    }
+
+    private ChunkBatch batch(int chunkX, int chunkZ) {
+        ChunkBatch batch = lastBatch;
+        if (batch != null && batch.chunkX == chunkX && batch.chunkZ == chunkZ) return batch;
+        batch = batches.computeIfAbsent(ChunkMap.key(chunkX, chunkZ), k -> new ChunkBatch(chunkX, chunkZ));
+        lastBatch = batch;
+        return batch;
+    }
+
+    /**
+     * Queue a block change by string ID. Unregistered IDs are ignored.
+     */
+    public void setBlock(int x, int y, int z, String blockId) {
+        int id = Registries.BLOCKS.idOf(blockId);
+        if (id < 0) return;
+        setBlockId(x, y, z, id);
+    }
+
+    /**
+     * Queue a block change. Positions outside the world height are ignored.
+     */
+    public void setBlockId(int x, int y, int z, int blockId) {
+        if (y < 0 || y >= Chunk.HEIGHT) return;
+        SectionBatch section = batch(x >> 4, z >> 4).section(y >> 4);
+        if (section.set((y & 15) << 8 | (z & 15) << 4 | (x & 15), blockId)) pendingCount++;
+    }
+
+    /**
+     * Queue filling a box (inclusive corners) with one block
+     */
+    public void fill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, int blockId) {
+        minY = Math.max(minY, 0);
+        maxY = Math.min(maxY, Chunk.HEIGHT - 1);
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            int x0 = Math.max(minX, chunkX << 4) & 15;
+            int x1 = Math.min(maxX, (chunkX << 4) + 15) & 15;
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                int z0 = Math.max(minZ, chunkZ << 4) & 15;
+                int z1 = Math.min(maxZ, (chunkZ << 4) + 15) & 15;
+                ChunkBatch batch = batch(chunkX, chunkZ);
+
+                for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+                    int y0 = Math.max(minY, sectionY << 4) & 15;
+                    int y1 = Math.min(maxY, (sectionY << 4) + 15) & 15;
+                    SectionBatch section = batch.section(sectionY);
+                    for (int y = y0; y <= y1; y++) {
+                        for (int z = z0; z <= z1; z++) {
+                            int row = y << 8 | z << 4;
+                            for (int x = x0; x <= x1; x++) {
+                                if (section.set(row | x, blockId)) pendingCount++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Queue filling a box (inclusive corners) by string ID. Unregistered IDs are ignored.
+     */
+    public void fill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, String blockId) {
+        int id = Registries.BLOCKS.idOf(blockId);
+        if (id < 0) return;
+        fill(minX, minY, minZ, maxX, maxY, maxZ, id);
+    }
+
+    /**
+     * Number of distinct positions queued since the last commit
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Apply all queued edits, then run block callbacks. The session is empty
+     * afterwards and can be reused.
+     * @return number of blocks that changed
+     */
+    public int commit() {
+        BlockRegistry blocks = Registries.BLOCKS;
+        boolean notifyNeighbors = blocks.anyHasCallback(BlockRegistry.CALLBACK_NEIGHBOR);
+
+        // Changed blocks with place/break callbacks, as (x, y, z, old, new)
+        int[] changes = new int[0];
+        int recorded = 0;
+        int changed = 0;
+
+        neighborCount = 0;
+        lightChangeCount = 0;
+        int[] ids = new int[ChunkSection.VOLUME];
+        int[] previous = new int[ChunkSection.VOLUME];
+        for (ChunkBatch batch : batches.values()) {
+            Chunk chunk = world.getChunk(batch.chunkX, batch.chunkZ);
+            int baseX = batch.chunkX << 4;
+            int baseZ = batch.chunkZ << 4;
+
+            for (int sectionY = 0; sectionY < Chunk.SECTION_COUNT; sectionY++) {
+                SectionBatch section = batch.sections[sectionY];
+                if (section == null || section.count == 0) continue;
+
+                int count = section.count;
+                int[] positions = section.positions;
+                for (int i = 0; i < count; i++) {
+                    ids[i] = section.pending[positions[i]];
+                }
+                if (!chunk.setSectionBlocks(sectionY, positions, ids, count, previous)) continue;
+
+                int borderFaces = 0;
+                for (int i = 0; i < count; i++) {
+                    if (previous[i] == ids[i]) continue;
+                    changed++;
+                    int position = positions[i];
+                    borderFaces |= ChunkSection.borderFaces(position & 15, position >> 8, position >> 4 & 15);
+                    if (LightEngine.affectsLight(previous[i], ids[i])) {
+                        if (lightChangeCount == lightChanges.length) {
+                            lightChanges = Arrays.copyOf(lightChanges, lightChangeCount * 2);
+                        }
+                        lightChanges[lightChangeCount++] = PackedPos.pack(baseX | (position & 15),
+                                sectionY << 4 | position >> 8, baseZ | (position >> 4 & 15));
+                    }
+                    boolean callbacks = blocks.hasCallback(ids[i], BlockRegistry.CALLBACK_PLACE)
+                            || blocks.hasCallback(previous[i], BlockRegistry.CALLBACK_BREAK);
+                    if (!callbacks && !notifyNeighbors) continue;
+
+                    int x = baseX | (position & 15);
+                    int y = sectionY << 4 | position >> 8;
+                    int z = baseZ | (position >> 4 & 15);
+                    if (callbacks) {
+                        if ((recorded + 1) * 5 > changes.length) {
+                            changes = Arrays.copyOf(changes, Math.max(changes.length * 2, 80));
+                        }
+                        int o = recorded++ * 5;
+                        changes[o] = x;
+                        changes[o + 1] = y;
+                        changes[o + 2] = z;
+                        changes[o + 3] = previous[i];
+                        changes[o + 4] = ids[i];
+                    }
+                    if (notifyNeighbors) collectNeighbors(section, position, x, y, z);
+                }
+                world.notifySectionChanged(batch.chunkX, sectionY, batch.chunkZ, borderFaces);
+            }
+        }
+
+        world.getLightEngine().queueBlockChanges(lightChanges, lightChangeCount);
+
+        // Callbacks run after every write, so they see the finished edit
+        for (int i = 0; i < recorded; i++) {
+            int o = i * 5;
+            int x = changes[o], y = changes[o + 1], z = changes[o + 2];
+
+            if (blocks.hasCallback(changes[o + 4], BlockRegistry.CALLBACK_PLACE)) {
+                blocks.byId(changes[o + 4]).onPlace(world, x, y, z);
+            }
+            if (blocks.hasCallback(changes[o + 3], BlockRegistry.CALLBACK_BREAK)) {
+                blocks.byId(changes[o + 3]).onBreak(world, x, y, z);
+            }
+        }
+        batches.clear();
+        lastBatch = null;
+        pendingCount = 0;
+
+        // The ticker deduplicates, so each neighbor is notified once
+        world.getBlockTicker().queueNeighborChanges(neighbors, neighborCount);
+        return changed;
+    }
+
+    /**
+     * Remember the neighbors of a changed block that are not part of the edit.
+     * Neighbors inside the same section are checked directly.
+     */
+    private void collectNeighbors(SectionBatch section, int position, int x, int y, int z) {
+        int localX = position & 15, localZ = position >> 4 & 15, localY = position >> 8;
+        collectNeighbor(section, localX > 0, position - 1, x - 1, y, z);
+        collectNeighbor(section, localX < 15, position + 1, x + 1, y, z);
+        collectNeighbor(section, localZ > 0, position - 16, x, y, z - 1);
+        collectNeighbor(section, localZ < 15, position + 16, x, y, z + 1);
+        collectNeighbor(section, localY > 0, position - 256, x, y - 1, z);
+        collectNeighbor(section, localY < 15, position + 256, x, y + 1, z);
+    }
+
+    private void collectNeighbor(SectionBatch section, boolean inSection, int index, int x, int y, int z) {
+        if (inSection) {
+            if (section.pending[index] >= 0) return;
+        } else if (y < 0 || y >= Chunk.HEIGHT || isQueued(x, y, z)) {
+            return;
+        }
+        if (neighborCount == neighbors.length) {
+            neighbors = Arrays.copyOf(neighbors, neighborCount * 2);
+        }
+        neighbors[neighborCount++] = PackedPos.pack(x, y, z);
+    }
+
+    private boolean isQueued(int x, int y, int z) {
+        ChunkBatch batch = lastBatch;
+        if (batch == null || batch.chunkX != x >> 4 || batch.chunkZ != z >> 4) {
+            batch = batches.get(ChunkMap.key(x >> 4, z >> 4));
+            if (batch == null) return false;
+            lastBatch = batch;
+        }
+        SectionBatch section = batch.sections[y >> 4];
+        return section != null && section.pending[(y & 15) << 8 | (z & 15) << 4 | (x & 15)] >= 0;
+    }
+
+    /**
+     * Commit anything still queued
+     */
+    @Override
+    public void close() {
+        if (pendingCount > 0) commit();
+    }
+}
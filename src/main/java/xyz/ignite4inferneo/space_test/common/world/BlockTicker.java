@@ -0,0 +1,282 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.block.Block;
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Runs block callbacks from the world tick: scheduled ticks, random ticks
+ * and neighbor changes.
+ *
+ * Only chunks the {@link ChunkTicketManager} marks block-ticking get any
+ * ticks.
+ *
+ * Scheduled ticks sit in a priority queue ordered by due tick, then by the
+ * order they were scheduled. When one comes due, {@link Block#onUpdate} runs
+ * if the same block is still at the position and its chunk is ticking;
+ * otherwise the tick is dropped. Scheduling the same block at the same
+ * position twice keeps only the first.
+ *
+ * Random ticks pick {@link #RANDOM_TICKS_PER_SECTION} random positions in
+ * each ticking section that holds blocks overriding
+ * {@link Block#onRandomTick}; sections without any are skipped on their
+ * counter alone, so the cost grows with loaded sections, not blocks.
+ *
+ * Neighbor changes are collected from every edit during a tick, sorted and
+ * deduplicated, and delivered on the next tick, so a block next to many
+ * changes hears about them once. Changes made by callbacks are delivered
+ * on the tick after.
+ *
+ * {@link #tick} runs on the world tick thread; scheduling and neighbor
+ * changes may come from any thread.
+ */
+public class BlockTicker {
+    public static final int RANDOM_TICKS_PER_SECTION = 3;
+    public static final int MAX_SCHEDULED_PER_TICK = 65536; // The rest wait for the next tick
+
+    private final World world;
+    private final Random random = new Random();
+
+    // Scheduled ticks, guarded by this
+    private final PriorityQueue<ScheduledTick> scheduled = new PriorityQueue<>();
+    private final Set<ScheduledTick> scheduledSet = new HashSet<>();
+    private long scheduleOrder;
+
+    // Neighbor changes, guarded by this; swapped out each tick
+    private long[] neighbors = new long[256]; // Packed positions, may repeat
+    private int neighborCount;
+    private long[] processing = new long[256];
+
+    // Random tick picks for the current tick (tick thread only)
+    private long[] randomPicks = new long[256];
+    private int randomPickCount;
+
+    // Stats of the last tick
+    private volatile int lastScheduledRun;
+    private volatile int lastRandomRun;
+    private volatile int lastNeighborRun;
+    private volatile int lastTickingSections;
+
+    private static final class ScheduledTick implements Comparable<ScheduledTick> {
+        final long position;
+        final int blockId;
+        final long dueTick;
+        final long order;
+
+        ScheduledTick(long position, int blockId, long dueTick, long order) {
+            this.position = position;
+            this.blockId = blockId;
+            this.dueTick = dueTick;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(ScheduledTick other) {
+            if (dueTick != other.dueTick) return Long.compare(dueTick, other.dueTick);
+            return Long.compare(order, other.order);
+        }
+
+        // Identity for deduplication is the block at the position, not the time
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ScheduledTick)) return false;
+            ScheduledTick other = (ScheduledTick) o;
+            return position == other.position && blockId == other.blockId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(position) * 31 + blockId;
+        }
+    }
+
+    public BlockTicker(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Schedule {@link Block#onUpdate} for the block at a position
+     * @param delay ticks from now, at least 1
+     * @return false if the same block was already scheduled there
+     */
+    public boolean scheduleTick(int x, int y, int z, int blockId, int delay) {
+        if (y < 0 || y >= Chunk.HEIGHT) return false;
+        long due = world.getTickCount() + Math.max(1, delay);
+        synchronized (this) {
+            ScheduledTick tick = new ScheduledTick(PackedPos.pack(x, y, z), blockId, due, scheduleOrder++);
+            if (!scheduledSet.add(tick)) return false;
+            scheduled.add(tick);
+            return true;
+        }
+    }
+
+    /**
+     * Number of scheduled ticks still waiting
+     */
+    public synchronized int getScheduledCount() {
+        return scheduled.size();
+    }
+
+    /**
+     * Queue onNeighborChange for the six neighbors of a changed block
+     */
+    public synchronized void queueNeighbors(int x, int y, int z) {
+        if (neighborCount + 6 > neighbors.length) {
+            neighbors = Arrays.copyOf(neighbors, neighbors.length * 2);
+        }
+        if (y > 0) neighbors[neighborCount++] = PackedPos.pack(x, y - 1, z);
+        if (y < Chunk.HEIGHT - 1) neighbors[neighborCount++] = PackedPos.pack(x, y + 1, z);
+        neighbors[neighborCount++] = PackedPos.pack(x, y, z - 1);
+        neighbors[neighborCount++] = PackedPos.pack(x, y, z + 1);
+        neighbors[neighborCount++] = PackedPos.pack(x - 1, y, z);
+        neighbors[neighborCount++] = PackedPos.pack(x + 1, y, z);
+    }
+
+    /**
+     * Queue onNeighborChange for many positions at once
+     * @param positions positions from {@link PackedPos#pack}, may repeat
+     */
+    synchronized void queueNeighborChanges(long[] positions, int count) {
+        if (neighborCount + count > neighbors.length) {
+            neighbors = Arrays.copyOf(neighbors, Math.max(neighbors.length * 2, neighborCount + count));
+        }
+        System.arraycopy(positions, 0, neighbors, neighborCount, count);
+        neighborCount += count;
+    }
+
+    /**
+     * Called every world tick
+     */
+    public void tick(long tickCount) {
+        lastScheduledRun = runScheduled(tickCount);
+        lastRandomRun = runRandom();
+        lastNeighborRun = runNeighbors();
+    }
+
+    private int runScheduled(long tickCount) {
+        BlockRegistry blocks = Registries.BLOCKS;
+        int run = 0;
+        while (run < MAX_SCHEDULED_PER_TICK) {
+            ScheduledTick tick;
+            synchronized (this) {
+                tick = scheduled.peek();
+                if (tick == null || tick.dueTick > tickCount) break;
+                scheduled.poll();
+                scheduledSet.remove(tick);
+            }
+            int x = PackedPos.x(tick.position), y = PackedPos.y(tick.position), z = PackedPos.z(tick.position);
+            Chunk chunk = world.getChunkIfLoaded(x >> 4, z >> 4);
+            if (chunk == null || !world.getTicketManager().isBlockTicking(x >> 4, z >> 4)
+                    || chunk.getBlockId(x & 15, y, z & 15) != tick.blockId) {
+                continue;
+            }
+            Block block = blocks.byId(tick.blockId);
+            if (block == null) continue;
+            block.onUpdate(world, x, y, z);
+            run++;
+        }
+        return run;
+    }
+
+    /**
+     * Pick positions in every section with randomly ticking blocks first,
+     * then run the callbacks, so callbacks may load or edit chunks freely
+     */
+    private int runRandom() {
+        randomPickCount = 0;
+        int[] tickingSections = new int[1];
+        ChunkTicketManager tickets = world.getTicketManager();
+        world.getChunks().forEach(chunk -> {
+            if (!tickets.isBlockTicking(chunk.getChunkX(), chunk.getChunkZ())) return;
+            int baseX = chunk.getChunkX() << 4;
+            int baseZ = chunk.getChunkZ() << 4;
+            for (int sectionY = 0; sectionY < Chunk.SECTION_COUNT; sectionY++) {
+                ChunkSection section = chunk.getSection(sectionY);
+                if (section == null || section.getRandomTickCount() == 0) continue;
+                tickingSections[0]++;
+                for (int i = 0; i < RANDOM_TICKS_PER_SECTION; i++) {
+                    int index = random.nextInt(ChunkSection.VOLUME);
+                    if (!Registries.BLOCKS.hasCallback(section.getBlockId(index), BlockRegistry.CALLBACK_RANDOM_TICK)) {
+                        continue;
+                    }
+                    if (randomPickCount == randomPicks.length) {
+                        randomPicks = Arrays.copyOf(randomPicks, randomPickCount * 2);
+                    }
+                    randomPicks[randomPickCount++] = PackedPos.pack(baseX | (index & 15),
+                            sectionY << 4 | index >> 8, baseZ | (index >> 4 & 15));
+                }
+            }
+        });
+        lastTickingSections = tickingSections[0];
+
+        BlockRegistry blocks = Registries.BLOCKS;
+        int run = 0;
+        for (int i = 0; i < randomPickCount; i++) {
+            long position = randomPicks[i];
+            int x = PackedPos.x(position), y = PackedPos.y(position), z = PackedPos.z(position);
+            Chunk chunk = world.getChunkIfLoaded(x >> 4, z >> 4);
+            if (chunk == null) continue;
+            int id = chunk.getBlockId(x & 15, y, z & 15); // An earlier callback may have changed it
+            if (!blocks.hasCallback(id, BlockRegistry.CALLBACK_RANDOM_TICK)) continue;
+            blocks.byId(id).onRandomTick(world, x, y, z);
+            run++;
+        }
+        return run;
+    }
+
+    private int runNeighbors() {
+        long[] batch;
+        int count;
+        synchronized (this) {
+            if (neighborCount == 0) return 0;
+            batch = neighbors;
+            count = neighborCount;
+            neighbors = processing;
+            neighborCount = 0;
+        }
+
+        // Sorting groups duplicates so each neighbor is notified once
+        BlockRegistry blocks = Registries.BLOCKS;
+        Arrays.sort(batch, 0, count);
+        int run = 0;
+        for (int i = 0; i < count; i++) {
+            long packed = batch[i];
+            if (i > 0 && packed == batch[i - 1]) continue;
+            int x = PackedPos.x(packed), y = PackedPos.y(packed), z = PackedPos.z(packed);
+            Chunk chunk = world.getChunkIfLoaded(x >> 4, z >> 4);
+            if (chunk == null || !world.getTicketManager().isBlockTicking(x >> 4, z >> 4)) continue;
+            int id = chunk.getBlockId(x & 15, y, z & 15);
+            if (blocks.hasCallback(id, BlockRegistry.CALLBACK_NEIGHBOR)) {
+                blocks.byId(id).onNeighborChange(world, x, y, z);
+                run++;
+            }
+        }
+        processing = batch;
+        return run;
+    }
+
+    public int getLastScheduledRun() {
+        return lastScheduledRun;
+    }
+
+    public int getLastRandomRun() {
+        return lastRandomRun;
+    }
+
+    public int getLastNeighborRun() {
+        return lastNeighborRun;
+    }
+
+    /**
+     * Sections visited for random ticks last tick (those holding randomly ticking blocks)
+     */
+    public int getLastTickingSections() {
+        return lastTickingSections;
+    }
+}
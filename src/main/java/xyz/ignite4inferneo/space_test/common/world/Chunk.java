@@ -1,56 +1,408 @@
 package xyz.ignite4inferneo.space_test.common.world;
 
-import java.lang.reflect.Array;
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * Represents a 16x256x16 chunk of the world.
- * Stores block IDs as strings for flexibility with modded blocks.
+ * Blocks are stored as dense numeric IDs assigned by the frozen block
+ * registry; the string API converts at the boundary for modded code.
+ *
+ * The column is split into sixteen 16x16x16 sections that are allocated
+ * lazily; a null section is all air and costs nothing to store or iterate.
+ *
+ * Background threads should read through {@link #snapshot()} rather than the
+ * live chunk. Once a chunk is published to the world, writes and snapshots
+ * synchronize on it; a section that a snapshot still references is copied
+ * before it is modified. Generation runs before publication and skips the lock.
+ *
+ * Each chunk keeps {@link Heightmap}s for its columns. Published chunks
+ * update them on every write; generation and loading rebuild them once when
+ * the chunk is published.
+ *
+ * Block light and skylight are kept per section in {@link NibbleArray}s and
+ * written only by the world's {@link LightEngine}. Until the engine has lit
+ * a chunk, every voxel reads as open sky with no block light.
+ *
+ * Block and light storage may live off-heap (see {@link OffHeapArena}); the
+ * chunk provider calls {@link #release()} when the chunk unloads and the
+ * light engine releases light storage after that.
  */
-public class Chunk {
+public class Chunk implements ChunkAccess {
     public static final int SIZE = 16;
     public static final int HEIGHT = 256;
+    public static final int SECTION_COUNT = HEIGHT / ChunkSection.SIZE;
+
+    public static final String AIR = "space_test:air";
+    public static final int AIR_ID = 0; // Enforced by Registries.freezeAll
 
     private final int chunkX;
     private final int chunkZ;
-    private final String[][][] blocks;
+    private final ChunkSection[] sections = new ChunkSection[SECTION_COUNT];
     private boolean dirty = true;
+    private volatile boolean unsaved = true;
+    private int sharedSections; // Bit per section referenced by a snapshot, guarded by this
+    private int openSnapshots;  // Snapshots not yet closed, guarded by this
+    private boolean published;  // Set before the chunk becomes visible to other threads
+    private final Heightmap[] heightmaps = new Heightmap[Heightmap.TYPES.length];
+    private boolean heightmapsStale; // Unpublished writes skip heightmap updates
+    private final NibbleArray[] blockLight = new NibbleArray[SECTION_COUNT];
+    private final NibbleArray[] skyLight = new NibbleArray[SECTION_COUNT];
+    private volatile boolean lightReady; // Set once the light engine has lit the chunk
+
+    // Clock eviction state (see ChunkLifecycleManager). Races only cost accuracy.
+    private boolean accessed = true;
+    private int idleSweeps;
 
     public Chunk(int chunkX, int chunkZ) {
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
-        this.blocks = new String[SIZE][HEIGHT][SIZE];
+        for (Heightmap.Type type : Heightmap.TYPES) {
+            heightmaps[type.ordinal()] = new Heightmap(type);
+        }
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            blockLight[i] = new NibbleArray(0);
+            skyLight[i] = new NibbleArray(LightEngine.MAX_LIGHT);
+        }
+    }
+
+    public String getBlock(int x, int y, int z) {
+        return Registries.BLOCKS.getKey(getBlockId(x, y, z));
+    }
 
+    /**
+     * Set block by string ID. Unregistered IDs are ignored.
+     */
+    public void setBlock(int x, int y, int z, String blockId) {
+        int id = Registries.BLOCKS.idOf(blockId);
+        if (id < 0) return;
+        setBlockId(x, y, z, id);
+    }
 
+    @Override
+    public int getBlockId(int x, int y, int z) {
+        if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) {
+            return AIR_ID;
+        }
+        ChunkSection section = sections[y >> 4];
+        if (section == null) {
+            return AIR_ID;
+        }
+        return section.getBlockId(x, y & 15, z);
+    }
 
-        // Initialize with air
-        for (int x = 0; x < SIZE; x++) {
-            for (int y = 0; y < HEIGHT; y++) {
-                for (int z = 0; z < SIZE; z++) {
-                    blocks[x][y][z] = "space_test:air";
-                }
+    /**
+     * Set the numeric block ID at a position
+     * @return the previous block ID (air if out of bounds)
+     */
+    public int setBlockId(int x, int y, int z, int blockId) {
+        if (published) {
+            synchronized (this) {
+                return setBlockIdUnlocked(x, y, z, blockId);
             }
         }
+        return setBlockIdUnlocked(x, y, z, blockId);
     }
 
-    public String getBlock(int x, int y, int z) {
+    private int setBlockIdUnlocked(int x, int y, int z, int blockId) {
         if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) {
-            return "space_test:air";
+            return AIR_ID;
         }
-        return blocks[x][y][z];
+
+        int sectionY = y >> 4;
+        ChunkSection section = sections[sectionY];
+        if (section != null && section.getBlockId(x, y & 15, z) == blockId) return blockId; // No change, keep sharing
+        section = writableSection(sectionY, blockId != AIR_ID);
+        if (section == null) return AIR_ID; // Air into an empty section
+
+        int old = section.getAndSetBlockId((y & 15) << 8 | z << 4 | x, blockId);
+        if (section.isEmpty()) {
+            sections[sectionY] = null;
+            section.release(); // Writable, so no snapshot holds it
+        }
+        if (published) {
+            for (Heightmap heightmap : heightmaps) {
+                heightmap.update(this, x, y, z, blockId);
+            }
+        } else {
+            heightmapsStale = true;
+        }
+        unsaved = true;
+        markDirty();
+        return old;
     }
 
-    public void setBlock(int x, int y, int z, String blockId) {
-        if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) {
-            return;
+    /**
+     * Get a section for writing, copying it if a snapshot still shares it.
+     * An empty section is allocated if requested, otherwise null is returned.
+     */
+    private ChunkSection writableSection(int sectionY, boolean allocate) {
+        ChunkSection section = sections[sectionY];
+        if (section == null) {
+            if (!allocate) return null;
+            section = new ChunkSection();
+            sections[sectionY] = section;
+        } else if ((sharedSections & (1 << sectionY)) != 0) {
+            section = section.copy();
+            sections[sectionY] = section;
+            sharedSections &= ~(1 << sectionY);
         }
-        blocks[x][y][z] = blockId;
+        return section;
+    }
+
+    /**
+     * Apply a batch of writes to one section under a single lock acquisition.
+     * Positions are flat section indices (see {@link ChunkSection#getAndSetBlockId})
+     * and should be distinct. Marks the chunk dirty once.
+     * @param previous receives the old block ID of each write
+     * @return true if any block changed
+     */
+    boolean setSectionBlocks(int sectionY, int[] positions, int[] blockIds, int count, int[] previous) {
+        if (published) {
+            synchronized (this) {
+                return setSectionBlocksUnlocked(sectionY, positions, blockIds, count, previous);
+            }
+        }
+        return setSectionBlocksUnlocked(sectionY, positions, blockIds, count, previous);
+    }
+
+    private boolean setSectionBlocksUnlocked(int sectionY, int[] positions, int[] blockIds, int count, int[] previous) {
+        boolean onlyAir = true;
+        boolean uniform = true;
+        for (int i = 0; i < count && (onlyAir || uniform); i++) {
+            onlyAir &= blockIds[i] == AIR_ID;
+            uniform &= blockIds[i] == blockIds[0];
+        }
+        if (uniform && count == ChunkSection.VOLUME) {
+            return fillSection(sectionY, blockIds[0], positions, previous);
+        }
+        ChunkSection section = writableSection(sectionY, !onlyAir);
+        if (section == null) {
+            Arrays.fill(previous, 0, count, AIR_ID); // Clearing an empty section
+            return false;
+        }
+
+        boolean changed = false;
+        int baseY = sectionY << 4;
+        for (int i = 0; i < count; i++) {
+            int position = positions[i];
+            int blockId = blockIds[i];
+            int old = section.getAndSetBlockId(position, blockId);
+            previous[i] = old;
+            if (old == blockId) continue;
+            changed = true;
+            if (published) {
+                int x = position & 15, z = (position >> 4) & 15, y = baseY | (position >> 8);
+                for (Heightmap heightmap : heightmaps) {
+                    heightmap.update(this, x, y, z, blockId);
+                }
+            }
+        }
+
+        if (section.isEmpty()) {
+            sections[sectionY] = null;
+            section.release(); // Writable, so no snapshot holds it
+        }
+        if (changed) {
+            if (!published) heightmapsStale = true;
+            unsaved = true;
+            markDirty();
+        }
+        return changed;
+    }
+
+    /**
+     * Replace a whole section with one block, without touching it voxel by voxel
+     */
+    private boolean fillSection(int sectionY, int blockId, int[] positions, int[] previous) {
+        ChunkSection old = sections[sectionY];
+        boolean changed = false;
+        for (int i = 0; i < ChunkSection.VOLUME; i++) {
+            previous[i] = old == null ? AIR_ID : old.getBlockId(positions[i]);
+            changed |= previous[i] != blockId;
+        }
+        if (!changed) return false;
+
+        sections[sectionY] = blockId == AIR_ID ? null : ChunkSection.filled(blockId);
+        if (old != null && (sharedSections & (1 << sectionY)) == 0) old.release();
+        sharedSections &= ~(1 << sectionY); // Snapshots keep the old section
+        if (published) {
+            for (Heightmap heightmap : heightmaps) {
+                heightmap.updateFilledSection(this, sectionY, blockId);
+            }
+        } else {
+            heightmapsStale = true;
+        }
+        unsaved = true;
         markDirty();
+        return true;
     }
 
+    /**
+     * Y of the highest block of a heightmap type in a local column, or -1 if none
+     */
+    @Override
+    public int getHeight(Heightmap.Type type, int x, int z) {
+        if (heightmapsStale) refreshHeightmaps();
+        return heightmaps[type.ordinal()].get(x & 15, z & 15);
+    }
+
+    /**
+     * Y of the highest non-air block in the chunk, or -1 if it is all air
+     */
+    @Override
+    public int getMaxHeight() {
+        if (heightmapsStale) refreshHeightmaps();
+        return heightmaps[Heightmap.Type.SURFACE.ordinal()].getMax();
+    }
+
+    @Override
+    public int getBlockLight(int x, int y, int z) {
+        if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) return 0;
+        return blockLight[y >> 4].get((y & 15) << 8 | z << 4 | x);
+    }
+
+    @Override
+    public int getSkyLight(int x, int y, int z) {
+        if (x < 0 || x >= SIZE || y < 0 || y >= HEIGHT || z < 0 || z >= SIZE) return LightEngine.MAX_LIGHT;
+        return skyLight[y >> 4].get((y & 15) << 8 | z << 4 | x);
+    }
+
+    /**
+     * Block light of a section, for the light engine
+     */
+    NibbleArray getBlockLightSection(int sectionY) {
+        return blockLight[sectionY];
+    }
+
+    /**
+     * Skylight of a section, for the light engine
+     */
+    NibbleArray getSkyLightSection(int sectionY) {
+        return skyLight[sectionY];
+    }
+
+    /**
+     * Has the light engine computed this chunk's light yet?
+     */
+    public boolean isLightReady() {
+        return lightReady;
+    }
+
+    void setLightReady(boolean lightReady) {
+        this.lightReady = lightReady;
+    }
+
+    private void refreshHeightmaps() {
+        for (Heightmap heightmap : heightmaps) {
+            heightmap.recompute(this);
+        }
+        heightmapsStale = false;
+    }
+
+    /**
+     * Get a section by index (0-15), or null if it is all air.
+     * The section may change under concurrent writes; use a snapshot off-thread.
+     */
+    @Override
+    public ChunkSection getSection(int sectionY) {
+        return sections[sectionY];
+    }
+
+    /**
+     * Called by the chunk provider just before the chunk is shared with
+     * other threads; from then on writes take the chunk lock
+     */
+    void markPublished() {
+        if (heightmapsStale) refreshHeightmaps();
+        this.published = true;
+    }
+
+    /**
+     * Record a lookup for eviction. Only writes when the bit is clear, so hot
+     * lookups do not keep dirtying the cache line.
+     */
+    void markAccessed() {
+        if (!accessed) accessed = true;
+    }
+
+    /**
+     * Advance the clock: returns how many sweeps the chunk has gone unused
+     */
+    int sweep() {
+        if (accessed) {
+            accessed = false;
+            idleSweeps = 0;
+        } else {
+            idleSweeps++;
+        }
+        return idleSweeps;
+    }
+
+    /**
+     * Take an immutable snapshot of the current blocks. O(1): sections are
+     * shared until the next write to each of them.
+     */
+    public synchronized ChunkSnapshot snapshot() {
+        if (heightmapsStale) refreshHeightmaps();
+        sharedSections = (1 << SECTION_COUNT) - 1;
+        openSnapshots++;
+        Heightmap[] maps = new Heightmap[heightmaps.length];
+        for (int i = 0; i < maps.length; i++) {
+            maps[i] = heightmaps[i].copy();
+        }
+        return new ChunkSnapshot(this, chunkX, chunkZ, sections.clone(), maps, blockLight, skyLight);
+    }
+
+    /**
+     * Once every snapshot is closed, no section is shared any more
+     */
+    synchronized void snapshotClosed() {
+        if (--openSnapshots == 0) sharedSections = 0;
+    }
+
+    /**
+     * Return off-heap block storage to the arena after the chunk is unloaded.
+     * Sections a snapshot still references are reclaimed once the snapshot
+     * is collected. Afterwards the chunk reads as empty.
+     */
+    synchronized void release() {
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            ChunkSection section = sections[i];
+            sections[i] = null;
+            if (section != null && (sharedSections & (1 << i)) == 0) section.release();
+        }
+        sharedSections = 0;
+    }
+
+    /**
+     * Return off-heap light storage to the arena. Called by the light engine,
+     * the only writer, once it is done with an unloaded chunk.
+     */
+    void releaseLight() {
+        lightReady = false;
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            blockLight[i].release();
+            skyLight[i].release();
+        }
+    }
+
+    /**
+     * Is the section containing local Y all air (or outside the column)?
+     */
+    public boolean isSectionEmpty(int y) {
+        return y < 0 || y >= HEIGHT || sections[y >> 4] == null;
+    }
+
+    @Override
     public int getChunkX() {
         return chunkX;
     }
 
+    @Override
     public int getChunkZ() {
         return chunkZ;
     }
@@ -68,9 +420,47 @@ public class Chunk {
     }
 
     /**
-     * Get the raw block array (for rendering optimization)
+     * Has this chunk changed since it was last saved (or was it never saved)?
      */
-    public String[][][] getBlocks() {
-        return blocks;
+    public boolean isUnsaved() {
+        return unsaved;
+    }
+
+    public void markSaved() {
+        this.unsaved = false;
+    }
+
+    public void markUnsaved() {
+        this.unsaved = true;
+    }
+
+    /**
+     * Read a chunk written by {@link ChunkSnapshot#write}. The result counts as saved.
+     */
+    public static Chunk read(int chunkX, int chunkZ, DataInputStream in) throws IOException {
+        Chunk chunk = new Chunk(chunkX, chunkZ);
+        int mask = in.readUnsignedShort();
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            if ((mask & (1 << i)) == 0) continue;
+            ChunkSection section = ChunkSection.read(in);
+            if (!section.isEmpty()) chunk.sections[i] = section;
+        }
+        chunk.unsaved = false;
+        chunk.heightmapsStale = true; // Rebuilt on publish
+        return chunk;
+    }
+
+    /**
+     * Approximate heap footprint of the block storage in bytes
+     */
+    public long getMemoryUsage() {
+        long bytes = 16 + SECTION_COUNT * 4;
+        for (ChunkSection section : sections) {
+            if (section != null) bytes += section.getMemoryUsage();
+        }
+        for (int i = 0; i < SECTION_COUNT; i++) {
+            bytes += blockLight[i].getMemoryUsage() + skyLight[i].getMemoryUsage();
+        }
+        return bytes;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+/**
+ * Read-only access to the blocks of a chunk column.
+ * Implemented by live {@link Chunk}s and immutable {@link ChunkSnapshot}s,
+ * so background consumers can work on either.
+ */
+public interface ChunkAccess {
+
+    int getChunkX();
+
+    int getChunkZ();
+
+    /**
+     * Get the numeric block ID at a position (out of bounds is air)
+     */
+    int getBlockId(int x, int y, int z);
+
+    /**
+     * Get a section by index (0-15), or null if it is all air
+     */
+    ChunkSection getSection(int sectionY);
+
+    /**
+     * Lowest non-empty section index, or -1 if the chunk is all air
+     */
+    default int getLowestSection() {
+        for (int i = 0; i < Chunk.SECTION_COUNT; i++) {
+            if (getSection(i) != null) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Highest non-empty section index, or -1 if the chunk is all air
+     */
+    default int getHighestSection() {
+        for (int i = Chunk.SECTION_COUNT - 1; i >= 0; i--) {
+            if (getSection(i) != null) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Y of the highest block of a heightmap type in a local column, or -1 if none
+     */
+    default int getHeight(Heightmap.Type type, int x, int z) {
+        for (int y = Chunk.HEIGHT - 1; y >= 0; y--) {
+            if (type.matches(getBlockId(x, y, z))) return y;
+        }
+        return -1;
+    }
+
+    /**
+     * Y of the highest non-air block in the chunk, or -1 if it is all air
+     */
+    default int getMaxHeight() {
+        int max = -1;
+        for (int z = 0; z < Chunk.SIZE; z++) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                max = Math.max(max, getHeight(Heightmap.Type.SURFACE, x, z));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Block light (0-15) at a position; out of bounds is dark
+     */
+    default int getBlockLight(int x, int y, int z) {
+        return 0;
+    }
+
+    /**
+     * Skylight (0-15) at a position; out of bounds is open sky
+     */
+    default int getSkyLight(int x, int y, int z) {
+        return LightEngine.MAX_LIGHT;
+    }
+
+    default boolean isEmpty() {
+        return getHighestSection() < 0;
+    }
+}
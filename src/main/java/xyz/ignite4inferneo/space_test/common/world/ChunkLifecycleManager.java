@@ -0,0 +1,218 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.common.entity.Entity;
+import xyz.ignite4inferneo.space_test.common.entity.PlayerEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the loaded chunks of a world within a memory budget.
+ *
+ * Every {@link #SWEEP_INTERVAL_TICKS} ticks a clock sweep ages each chunk:
+ * chunks looked up since the last sweep reset to zero, the rest count up.
+ * When the estimated block storage exceeds the budget, chunks outside the
+ * protected radius of every anchor (the local player and any players in the
+ * entity manager) are evicted in order of idle time weighted by distance to
+ * the nearest anchor, until usage drops below {@link #LOW_WATER_MARK} of the
+ * budget. The provider saves and drops each chunk and tells its unload
+ * listeners; chunks that fail to save are kept. Chunks held by a
+ * {@link ChunkTicketManager} ticket are never evicted.
+ */
+public class ChunkLifecycleManager {
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    public static final int SWEEP_INTERVAL_TICKS = 20;
+    private static final double LOW_WATER_MARK = 0.9;
+
+    private final World world;
+    private final ChunkProvider provider;
+    private final Set<Entity> anchors = ConcurrentHashMap.newKeySet();
+
+    private volatile long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private volatile int protectedRadius = 10; // Chunks, around each anchor
+    private volatile long memoryUsage;
+    private volatile int loadedChunks;
+
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder evictedBytes = new LongAdder();
+
+    private static final class Candidate {
+        final Chunk chunk;
+        final long bytes;
+        final double score;
+
+        Candidate(Chunk chunk, long bytes, double score) {
+            this.chunk = chunk;
+            this.bytes = bytes;
+            this.score = score;
+        }
+    }
+
+    public ChunkLifecycleManager(World world, ChunkProvider provider) {
+        this.world = world;
+        this.provider = provider;
+    }
+
+    /**
+     * Set the budget for loaded block storage in bytes
+     */
+    public void setMemoryBudget(long bytes) {
+        this.memoryBudget = bytes;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Chunks within this many chunks of an anchor are never evicted
+     */
+    public void setProtectedRadius(int chunks) {
+        this.protectedRadius = chunks;
+    }
+
+    /**
+     * Keep chunks around an entity loaded (e.g. the local player)
+     */
+    public void addAnchor(Entity entity) {
+        anchors.add(entity);
+    }
+
+    public void removeAnchor(Entity entity) {
+        anchors.remove(entity);
+    }
+
+    /**
+     * Called every world tick
+     */
+    public void tick(long tickCount) {
+        if (tickCount % SWEEP_INTERVAL_TICKS == 0) {
+            sweep();
+        }
+    }
+
+    /**
+     * Age every chunk and evict if over budget
+     * @return number of chunks evicted
+     */
+    public int sweep() {
+        List<double[]> positions = anchorPositions();
+        ChunkTicketManager tickets = world.getTicketManager();
+        List<Candidate> candidates = new ArrayList<>();
+        long[] total = new long[1];
+        int[] count = new int[1];
+
+        provider.getChunks().forEach(chunk -> {
+            long bytes = chunk.getMemoryUsage();
+            int idle = chunk.sweep();
+            total[0] += bytes;
+            count[0]++;
+
+            double distance = distanceToNearest(chunk, positions);
+            boolean ticketed = tickets.getLevel(chunk.getChunkX(), chunk.getChunkZ()) <= ChunkTicketManager.BORDER;
+            if (distance > protectedRadius && !ticketed) {
+                // Long-idle, far-away chunks go first; fresh nearby ones last
+                candidates.add(new Candidate(chunk, bytes, (idle + 1) * (1.0 + distance)));
+            }
+        });
+        memoryUsage = total[0];
+        loadedChunks = count[0];
+
+        long budget = memoryBudget;
+        if (total[0] <= budget) return 0;
+
+        candidates.sort((a, b) -> Double.compare(b.score, a.score));
+        long target = (long) (budget * LOW_WATER_MARK);
+        long usage = total[0];
+        int evicted = 0;
+        for (Candidate candidate : candidates) {
+            if (usage <= target) break;
+            if (!evict(candidate.chunk, candidate.bytes)) continue;
+            usage -= candidate.bytes;
+            evicted++;
+        }
+        memoryUsage = usage;
+        loadedChunks -= evicted;
+        return evicted;
+    }
+
+    /**
+     * Save and unload a chunk
+     * @return false if the chunk failed to save and stays loaded
+     */
+    public boolean evict(Chunk chunk) {
+        return evict(chunk, chunk.getMemoryUsage());
+    }
+
+    private boolean evict(Chunk chunk, long bytes) {
+        if (!provider.unload(chunk)) return false;
+        evictedCount.increment();
+        evictedBytes.add(bytes);
+        return true;
+    }
+
+    private List<double[]> anchorPositions() {
+        List<double[]> positions = new ArrayList<>();
+        for (Entity anchor : anchors) {
+            positions.add(new double[]{anchor.x, anchor.z});
+        }
+        for (Entity entity : world.getEntityManager().getEntities()) {
+            if (entity instanceof PlayerEntity) {
+                positions.add(new double[]{entity.x, entity.z});
+            }
+        }
+        return positions;
+    }
+
+    private static double distanceToNearest(Chunk chunk, List<double[]> positions) {
+        if (positions.isEmpty()) return Double.MAX_VALUE / 4;
+        double centerX = chunk.getChunkX() * 16.0 + 8.0;
+        double centerZ = chunk.getChunkZ() * 16.0 + 8.0;
+        double best = Double.MAX_VALUE;
+        for (double[] p : positions) {
+            double dx = centerX - p[0];
+            double dz = centerZ - p[1];
+            best = Math.min(best, dx * dx + dz * dz);
+        }
+        return Math.sqrt(best) / 16.0;
+    }
+
+    /**
+     * Estimated block storage of loaded chunks at the last sweep, in bytes
+     */
+    public long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Loaded chunk count at the last sweep
+     */
+    public int getLoadedChunkCount() {
+        return loadedChunks;
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    public long getEvictedBytes() {
+        return evictedBytes.sum();
+    }
+
+    /**
+     * Chunks read from disk so far
+     */
+    public long getLoadedCount() {
+        return provider.getLoadedCount();
+    }
+
+    /**
+     * Chunks generated so far
+     */
+    public long getGeneratedCount() {
+        return provider.getGeneratedCount();
+    }
+}
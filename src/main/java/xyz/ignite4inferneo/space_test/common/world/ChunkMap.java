@@ -0,0 +1,252 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * Concurrent chunk map keyed by packed chunk coordinates (see {@link #key}).
+ *
+ * Keys are spread over a fixed number of stripes. Each stripe holds an
+ * immutable open-addressing table (long[] keys, Chunk[] values) published
+ * through a volatile field: readers probe it without locking, writers take
+ * the stripe lock and publish a modified copy. Stripes hold a few dozen
+ * chunks at typical render distances, so copying on write is cheap and reads,
+ * which outnumber writes by orders of magnitude, never block.
+ *
+ * {@link #computeIfAbsent} runs the loader at most once per key. Concurrent
+ * callers for the same key wait for the first one; the stripe lock is not held
+ * while loading, so other keys in the stripe are unaffected.
+ */
+public class ChunkMap {
+    private static final int STRIPE_COUNT = 64; // Power of two
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    public ChunkMap() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Pack chunk coordinates into a map key
+     */
+    public static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Stripe stripeFor(int hash) {
+        return stripes[hash & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * Get a loaded chunk, or null. Never blocks.
+     */
+    public Chunk get(long key) {
+        int hash = hash(key);
+        return stripeFor(hash).table.get(key, hash >>> 6);
+    }
+
+    public Chunk get(int chunkX, int chunkZ) {
+        return get(key(chunkX, chunkZ));
+    }
+
+    /**
+     * Get a chunk, loading it with the given function if absent.
+     * The loader runs exactly once per key even under contention.
+     */
+    public Chunk computeIfAbsent(long key, LongFunction<Chunk> loader) {
+        int hash = hash(key);
+        Stripe stripe = stripeFor(hash);
+        Chunk chunk = stripe.table.get(key, hash >>> 6);
+        if (chunk != null) return chunk;
+
+        CompletableFuture<Chunk> pending;
+        boolean owner = false;
+        synchronized (stripe) {
+            chunk = stripe.table.get(key, hash >>> 6);
+            if (chunk != null) return chunk;
+
+            pending = stripe.loading.get(key);
+            if (pending == null) {
+                pending = new CompletableFuture<>();
+                stripe.loading.put(key, pending);
+                owner = true;
+            }
+        }
+
+        if (!owner) {
+            return pending.join();
+        }
+
+        try {
+            chunk = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            synchronized (stripe) {
+                stripe.loading.remove(key);
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        }
+
+        synchronized (stripe) {
+            stripe.table = stripe.table.with(key, hash >>> 6, chunk);
+            stripe.loading.remove(key);
+        }
+        pending.complete(chunk);
+        return chunk;
+    }
+
+    /**
+     * Insert or replace a chunk
+     */
+    public void put(long key, Chunk chunk) {
+        int hash = hash(key);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            stripe.table = stripe.table.with(key, hash >>> 6, chunk);
+        }
+    }
+
+    /**
+     * Remove a chunk
+     * @return the removed chunk, or null if it was not loaded
+     */
+    public Chunk remove(long key) {
+        int hash = hash(key);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            Chunk chunk = stripe.table.get(key, hash >>> 6);
+            if (chunk != null) {
+                stripe.table = stripe.table.without(key);
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * Remove every chunk matching the filter
+     * @return number of chunks removed
+     */
+    public int removeIf(Predicate<Chunk> filter) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Table table = stripe.table;
+                Table kept = table.filter(filter.negate());
+                if (kept != table) {
+                    removed += table.size - kept.size;
+                    stripe.table = kept;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Visit every loaded chunk (weakly consistent, never blocks)
+     */
+    public void forEach(Consumer<Chunk> action) {
+        for (Stripe stripe : stripes) {
+            Table table = stripe.table;
+            for (Chunk chunk : table.values) {
+                if (chunk != null) action.accept(chunk);
+            }
+        }
+    }
+
+    /**
+     * Snapshot of all loaded chunks
+     */
+    public List<Chunk> values() {
+        List<Chunk> result = new ArrayList<>(size());
+        forEach(result::add);
+        return result;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.table.size;
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+        volatile Table table = Table.EMPTY;
+        final Map<Long, CompletableFuture<Chunk>> loading = new HashMap<>(); // Guarded by this
+    }
+
+    /**
+     * Immutable linear-probing table. Capacity is a power of two and at
+     * least twice the size, so probes are short and always hit an empty slot.
+     */
+    private static final class Table {
+        static final Table EMPTY = new Table(4);
+
+        final long[] keys;
+        final Chunk[] values; // null marks an empty slot
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Chunk[capacity];
+            mask = capacity - 1;
+        }
+
+        Chunk get(long key, int hash) {
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                Chunk value = values[i];
+                if (value == null) return null;
+                if (keys[i] == key) return value;
+            }
+        }
+
+        Table with(long key, int hash, Chunk chunk) {
+            int capacity = keys.length;
+            while ((size + 1) * 2 > capacity) capacity <<= 1;
+            Table copy = new Table(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null && keys[i] != key) copy.insert(keys[i], hash(keys[i]) >>> 6, values[i]);
+            }
+            copy.insert(key, hash, chunk);
+            return copy;
+        }
+
+        Table without(long key) {
+            Table copy = new Table(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null && keys[i] != key) copy.insert(keys[i], hash(keys[i]) >>> 6, values[i]);
+            }
+            return copy;
+        }
+
+        Table filter(Predicate<Chunk> keep) {
+            Table copy = new Table(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null && keep.test(values[i])) copy.insert(keys[i], hash(keys[i]) >>> 6, values[i]);
+            }
+            return copy.size == size ? this : copy;
+        }
+
+        private void insert(long key, int hash, Chunk chunk) {
+            int i = hash & mask;
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = key;
+            values[i] = chunk;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Loads chunks for a world, either synchronously or on a background pool.
+ *
+ * Asynchronous requests go into a priority queue ordered by distance to the
+ * current center (usually the camera chunk), with chunks outside the view
+ * pushed back by {@link #OUT_OF_VIEW_PENALTY}. Requests for the same chunk
+ * share one future, and requests that are no longer needed can be cancelled
+ * before a worker picks them up. Render code should use
+ * {@link #getChunkIfLoaded} and {@link #requestChunk} so a frame never waits
+ * on terrain generation.
+ *
+ * With a {@link RegionStorage}, chunks are loaded from disk before falling
+ * back to the generator and saved when they are unloaded.
+ *
+ * Load listeners run once for every chunk that enters the loaded set, on the
+ * thread that loaded it, after other threads can see it. Unload listeners
+ * run once the chunk has been saved and removed.
+ *
+ * Workers generate different chunks in parallel. Generators must be
+ * deterministic per chunk (see {@link IWorldGenerator}), so the terrain is
+ * the same whatever the thread count or the order requests finish in. The
+ * pool defaults to one worker per core but one, overridable with
+ * {@code -Dspace_test.genThreads=N}. A {@link StagedWorldGenerator} is run
+ * through a {@link ProtoChunkPipeline}, so features cross chunk borders
+ * without any chunk waiting on another to finish.
+ */
+public class ChunkProvider {
+    private static final double OUT_OF_VIEW_PENALTY = 8.0; // In chunks
+
+    private final World world;
+    private final IWorldGenerator generator;
+    private final ProtoChunkPipeline pipeline; // Null unless the generator is staged
+    private final RegionStorage storage; // Null for worlds that are never saved
+    private final ChunkMap chunks = new ChunkMap();
+
+    private final ThreadPoolExecutor executor;
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final ConcurrentHashMap<Long, Request> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Unloading> unloading = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Consumer<Chunk>> loadListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Chunk>> unloadListeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder loadedCount = new LongAdder();
+    private final LongAdder generatedCount = new LongAdder();
+    private final LongAdder savedCount = new LongAdder();
+    private final LongAdder unloadedCount = new LongAdder();
+
+    private volatile int centerX;
+    private volatile int centerZ;
+
+    /**
+     * A chunk taken out of the map whose final save has not finished yet.
+     * Loads of its key wait for it rather than read an older copy from disk.
+     */
+    private static final class Unloading {
+        final Chunk chunk;
+        final CompletableFuture<Boolean> saved = new CompletableFuture<>();
+
+        Unloading(Chunk chunk) {
+            this.chunk = chunk;
+        }
+    }
+
+    private final class Request implements Runnable, Comparable<Request> {
+        final int chunkX;
+        final int chunkZ;
+        final long key;
+        final long order = sequence.getAndIncrement(); // FIFO among equal priorities
+        final CompletableFuture<Chunk> future = new CompletableFuture<>();
+        volatile boolean visible;
+        double priority; // Only changed while the request is out of the queue
+
+        Request(int chunkX, int chunkZ, long key, boolean visible) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.key = key;
+            this.visible = visible;
+            updatePriority();
+        }
+
+        void updatePriority() {
+            int dx = chunkX - centerX;
+            int dz = chunkZ - centerZ;
+            priority = Math.sqrt(dx * dx + dz * dz) + (visible ? 0 : OUT_OF_VIEW_PENALTY);
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                pending.remove(key, this);
+                return;
+            }
+            try {
+                Chunk chunk = getOrLoad(key, chunkX, chunkZ);
+                pending.remove(key, this);
+                future.complete(chunk);
+            } catch (RuntimeException e) {
+                System.err.println("[ChunkProvider] Error generating chunk (" + chunkX + ", " + chunkZ + "): " + e.getMessage());
+                e.printStackTrace();
+                pending.remove(key, this);
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public int compareTo(Request o) {
+            int c = Double.compare(priority, o.priority);
+            return c != 0 ? c : Long.compare(order, o.order);
+        }
+    }
+
+    public ChunkProvider(World world, IWorldGenerator generator) {
+        this(world, generator, null);
+    }
+
+    public ChunkProvider(World world, IWorldGenerator generator, RegionStorage storage) {
+        this(world, generator, storage, defaultThreadCount());
+    }
+
+    public ChunkProvider(World world, IWorldGenerator generator, RegionStorage storage, int threadCount) {
+        this.world = world;
+        this.generator = generator;
+        this.pipeline = generator instanceof StagedWorldGenerator staged ? new ProtoChunkPipeline(staged, chunks) : null;
+        this.storage = storage;
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS, queue,
+                new ThreadFactory() {
+                    private int counter = 0;
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "ChunkGen-" + counter++);
+                        t.setDaemon(true);
+                        t.setPriority(Thread.NORM_PRIORITY - 1);
+                        return t;
+                    }
+                });
+    }
+
+    /**
+     * Worker count used when none is given: {@code space_test.genThreads} if
+     * set, otherwise every core but one (left for the main thread)
+     */
+    public static int defaultThreadCount() {
+        int threads = Integer.getInteger("space_test.genThreads", Runtime.getRuntime().availableProcessors() - 1);
+        return Math.max(1, threads);
+    }
+
+    /**
+     * Number of generation workers
+     */
+    public int getThreadCount() {
+        return executor.getCorePoolSize();
+    }
+
+    /**
+     * Called with every chunk once it is loaded or generated
+     */
+    public void addLoadListener(Consumer<Chunk> listener) {
+        loadListeners.add(listener);
+    }
+
+    /**
+     * Called with every chunk after it is unloaded
+     */
+    public void addUnloadListener(Consumer<Chunk> listener) {
+        unloadListeners.add(listener);
+    }
+
+    private Chunk getOrLoad(long key, int chunkX, int chunkZ) {
+        boolean[] created = new boolean[1];
+        Chunk chunk = chunks.computeIfAbsent(key, k -> {
+            Unloading previous = unloading.get(k);
+            if (previous != null && !previous.saved.join()) {
+                return previous.chunk; // Its final save failed, so it stays loaded
+            }
+            created[0] = true;
+            return loadOrGenerate(chunkX, chunkZ);
+        });
+        if (created[0]) {
+            for (Consumer<Chunk> listener : loadListeners) {
+                listener.accept(chunk);
+            }
+        }
+        return chunk;
+    }
+
+    private Chunk loadOrGenerate(int chunkX, int chunkZ) {
+        if (storage != null) {
+            try {
+                Chunk saved = storage.load(chunkX, chunkZ);
+                if (saved != null) {
+                    saved.markPublished();
+                    loadedCount.increment();
+                    return saved;
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[ChunkProvider] Failed to load chunk (" + chunkX + ", " + chunkZ + "), regenerating: " + e.getMessage());
+            }
+        }
+
+        Chunk chunk;
+        if (pipeline != null) {
+            chunk = pipeline.generate(chunkX, chunkZ);
+        } else {
+            chunk = new Chunk(chunkX, chunkZ);
+            generator.generateChunk(world, chunk);
+        }
+        chunk.markPublished();
+        generatedCount.increment();
+        return chunk;
+    }
+
+    /**
+     * Get a chunk, generating it on the calling thread if needed.
+     * Use from game logic that cannot proceed without the chunk.
+     */
+    public Chunk getChunk(int chunkX, int chunkZ) {
+        long key = ChunkMap.key(chunkX, chunkZ);
+        Chunk chunk = chunks.get(key);
+        if (chunk != null) {
+            chunk.markAccessed();
+            return chunk;
+        }
+
+        chunk = getOrLoad(key, chunkX, chunkZ);
+        Request request = pending.remove(key);
+        if (request != null) {
+            request.future.complete(chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Get a chunk only if it is already loaded. Never blocks or generates.
+     */
+    public Chunk getChunkIfLoaded(int chunkX, int chunkZ) {
+        Chunk chunk = chunks.get(ChunkMap.key(chunkX, chunkZ));
+        if (chunk != null) chunk.markAccessed();
+        return chunk;
+    }
+
+    /**
+     * Request a chunk asynchronously.
+     * Repeated requests return the same future and update its view flag.
+     * @param visible whether the chunk is currently in view (loaded sooner)
+     */
+    public CompletableFuture<Chunk> requestChunk(int chunkX, int chunkZ, boolean visible) {
+        long key = ChunkMap.key(chunkX, chunkZ);
+        Chunk chunk = chunks.get(key);
+        if (chunk != null) {
+            chunk.markAccessed();
+            return CompletableFuture.completedFuture(chunk);
+        }
+
+        boolean[] created = new boolean[1];
+        Request request = pending.compute(key, (k, existing) -> {
+            if (existing != null && !existing.future.isCancelled()) return existing;
+            created[0] = true;
+            return new Request(chunkX, chunkZ, key, visible);
+        });
+
+        if (created[0]) {
+            executor.execute(request);
+        } else if (request.visible != visible && queue.remove(request)) {
+            request.visible = visible;
+            request.updatePriority();
+            queue.add(request);
+        }
+        return request.future;
+    }
+
+    /**
+     * Request every chunk in a square around a chunk, nearest first
+     * @return completes when all of them are loaded
+     */
+    public CompletableFuture<Void> requestArea(int chunkX, int chunkZ, int radius) {
+        List<CompletableFuture<Chunk>> futures = new ArrayList<>();
+        for (int r = 0; r <= radius; r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dz = -r; dz <= r; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != r) continue; // Ring r only
+                    futures.add(requestChunk(chunkX + dx, chunkZ + dz, true));
+                }
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Move the priority center. Queued requests are re-sorted when the
+     * center changes chunk.
+     */
+    public void setCenter(int chunkX, int chunkZ) {
+        if (chunkX == centerX && chunkZ == centerZ) return;
+        centerX = chunkX;
+        centerZ = chunkZ;
+
+        List<Runnable> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        for (Runnable r : queued) {
+            ((Request) r).updatePriority();
+        }
+        queue.addAll(queued);
+    }
+
+    /**
+     * Cancel a pending request if no worker has started it
+     * @return true if the request was cancelled
+     */
+    public boolean cancel(int chunkX, int chunkZ) {
+        Request request = pending.get(ChunkMap.key(chunkX, chunkZ));
+        return request != null && cancel(request);
+    }
+
+    /**
+     * Cancel every pending request farther than radius chunks from a point
+     * @return number of requests cancelled
+     */
+    public int cancelOutside(int chunkX, int chunkZ, int radius) {
+        int cancelled = 0;
+        for (Request request : pending.values()) {
+            int dx = request.chunkX - chunkX;
+            int dz = request.chunkZ - chunkZ;
+            if (dx * dx + dz * dz > radius * radius && cancel(request)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    private boolean cancel(Request request) {
+        if (!queue.remove(request)) return false; // Already running or done
+        pending.remove(request.key, request);
+        request.future.cancel(false);
+        return true;
+    }
+
+    /**
+     * Number of requests waiting for or undergoing generation
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Save a chunk if it has unsaved changes
+     * @return false if saving failed (the chunk stays unsaved)
+     */
+    public boolean save(Chunk chunk) {
+        if (storage == null || !chunk.isUnsaved()) return true;
+        try {
+            storage.save(chunk);
+            savedCount.increment();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[ChunkProvider] Failed to save chunk (" + chunk.getChunkX() + ", " + chunk.getChunkZ() + "): " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Save every loaded chunk with unsaved changes
+     */
+    public void saveAll() {
+        if (storage == null) return;
+        chunks.forEach(this::save);
+        try {
+            storage.flush();
+        } catch (IOException e) {
+            System.err.println("[ChunkProvider] Failed to flush region files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Save and unload every loaded chunk matching the filter.
+     * Chunks that fail to save stay loaded.
+     * @return number of chunks unloaded
+     */
+    public int unload(Predicate<Chunk> filter) {
+        int unloaded = 0;
+        for (Chunk chunk : chunks.values()) {
+            if (filter.test(chunk) && unload(chunk)) unloaded++;
+        }
+        return unloaded;
+    }
+
+    /**
+     * Save and unload a chunk, releasing its off-heap storage
+     * @return false if the chunk failed to save (it stays loaded) or was not loaded
+     */
+    public boolean unload(Chunk chunk) {
+        if (!save(chunk)) return false;
+        long key = ChunkMap.key(chunk.getChunkX(), chunk.getChunkZ());
+        if (chunks.get(key) != chunk) return false;
+        // Loads of this key wait from here until the final save is done
+        Unloading entry = new Unloading(chunk);
+        if (unloading.putIfAbsent(key, entry) != null) return false; // Another thread is unloading it
+        chunks.remove(key);
+
+        // Catch edits that raced with the first save. If it fails they are
+        // only in memory, so the chunk goes back rather than being released.
+        if (!save(chunk)) {
+            entry.saved.complete(false); // A waiting load takes the chunk back
+            Chunk loaded = chunks.computeIfAbsent(key, k -> chunk);
+            unloading.remove(key, entry);
+            if (loaded != chunk) {
+                // Unreachable while loads wait on the entry above
+                System.err.println("[ChunkProvider] Chunk (" + chunk.getChunkX() + ", " + chunk.getChunkZ()
+                        + ") was reloaded during a failed unload; its unsaved edits are lost");
+            }
+            return false;
+        }
+        unloading.remove(key, entry);
+        entry.saved.complete(true);
+        chunk.release();
+        if (pipeline != null) pipeline.onUnload(chunk.getChunkX(), chunk.getChunkZ());
+        unloadedCount.increment();
+        for (Consumer<Chunk> listener : unloadListeners) {
+            listener.accept(chunk);
+        }
+        return true;
+    }
+
+    /**
+     * Chunks part way through staged generation, kept for their neighbors
+     */
+    public int getProtoChunkCount() {
+        return pipeline != null ? pipeline.getProtoChunkCount() : 0;
+    }
+
+    /**
+     * Chunks read from region files so far
+     */
+    public long getLoadedCount() {
+        return loadedCount.sum();
+    }
+
+    /**
+     * Chunks produced by the world generator so far
+     */
+    public long getGeneratedCount() {
+        return generatedCount.sum();
+    }
+
+    /**
+     * Chunk saves written to region files so far
+     */
+    public long getSavedCount() {
+        return savedCount.sum();
+    }
+
+    /**
+     * Chunks unloaded (saved and dropped) so far
+     */
+    public long getUnloadedCount() {
+        return unloadedCount.sum();
+    }
+
+    /**
+     * All loaded chunks
+     */
+    public ChunkMap getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Stop the worker pool, cancel outstanding requests, then save
+     * everything and close the region files
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        for (Request request : pending.values()) {
+            request.future.cancel(false);
+        }
+        pending.clear();
+
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (storage != null) {
+            saveAll();
+            try {
+                storage.close();
+            } catch (IOException e) {
+                System.err.println("[ChunkProvider] Failed to close region files: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A 16x16x16 slice of a chunk column.
+ * Stores numeric block IDs (see Registry#idOf). Air is ID 0 and palette
+ * index 0; the section tracks how many non-air blocks it holds so the
+ * owning chunk can drop it once it empties, and how many randomly ticking
+ * blocks it holds so the ticker can skip sections without any.
+ */
+public class ChunkSection {
+    public static final int SIZE = 16;
+    public static final int VOLUME = SIZE * SIZE * SIZE;
+
+    // Face indices, same order as BlockRegistry textures
+    public static final int FACE_BOTTOM = 0; // -Y
+    public static final int FACE_TOP = 1;    // +Y
+    public static final int FACE_NORTH = 2;  // -Z
+    public static final int FACE_SOUTH = 3;  // +Z
+    public static final int FACE_WEST = 4;   // -X
+    public static final int FACE_EAST = 5;   // +X
+
+    private final PalettedContainer blocks;
+    private int nonAirCount = 0;
+    private int randomTickCount = 0;
+
+    public ChunkSection() {
+        this.blocks = new PalettedContainer(VOLUME, Chunk.AIR_ID);
+    }
+
+    private ChunkSection(PalettedContainer blocks) {
+        this.blocks = blocks;
+        for (int i = 0; i < VOLUME; i++) {
+            int id = blocks.get(i);
+            if (id != Chunk.AIR_ID) nonAirCount++;
+            if (ticksRandomly(id)) randomTickCount++;
+        }
+    }
+
+    private ChunkSection(ChunkSection other) {
+        this.blocks = new PalettedContainer(other.blocks);
+        this.nonAirCount = other.nonAirCount;
+        this.randomTickCount = other.randomTickCount;
+    }
+
+    /**
+     * Create a section filled with one non-air block
+     */
+    static ChunkSection filled(int blockId) {
+        long[] data = new long[VOLUME / Long.SIZE];
+        Arrays.fill(data, -1L); // Every 1-bit entry points at palette slot 1
+        return new ChunkSection(new PalettedContainer(VOLUME, new int[]{Chunk.AIR_ID, blockId}, 2, 1, data));
+    }
+
+    /**
+     * Create an independent copy of this section
+     */
+    public ChunkSection copy() {
+        return new ChunkSection(this);
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+
+    private static boolean ticksRandomly(int blockId) {
+        return blockId != Chunk.AIR_ID && Registries.BLOCKS.hasCallback(blockId, BlockRegistry.CALLBACK_RANDOM_TICK);
+    }
+
+    /**
+     * Section faces touched by the block at section-local coordinates, as a
+     * bit per face (1 << FACE_BOTTOM etc.). Edits on a face can change what
+     * the neighboring section shows.
+     */
+    public static int borderFaces(int x, int y, int z) {
+        int faces = 0;
+        if (y == 0) faces |= 1 << FACE_BOTTOM;
+        if (y == SIZE - 1) faces |= 1 << FACE_TOP;
+        if (z == 0) faces |= 1 << FACE_NORTH;
+        if (z == SIZE - 1) faces |= 1 << FACE_SOUTH;
+        if (x == 0) faces |= 1 << FACE_WEST;
+        if (x == SIZE - 1) faces |= 1 << FACE_EAST;
+        return faces;
+    }
+
+    /**
+     * Get numeric block ID at section-local coordinates (0-15, no bounds check)
+     */
+    public int getBlockId(int x, int y, int z) {
+        return blocks.get(index(x, y, z));
+    }
+
+    /**
+     * Set numeric block ID at section-local coordinates (0-15, no bounds check)
+     */
+    public void setBlockId(int x, int y, int z, int blockId) {
+        int index = index(x, y, z);
+        int old = blocks.get(index);
+        boolean wasAir = old == Chunk.AIR_ID;
+        blocks.set(index, blockId);
+        boolean isAir = blockId == Chunk.AIR_ID;
+
+        if (wasAir && !isAir) {
+            nonAirCount++;
+        } else if (!wasAir && isAir) {
+            nonAirCount--;
+        }
+        if (ticksRandomly(old)) randomTickCount--;
+        if (ticksRandomly(blockId)) randomTickCount++;
+    }
+
+    /**
+     * Get the block ID at a flat index ((y << 8) | (z << 4) | x)
+     */
+    int getBlockId(int index) {
+        return blocks.get(index);
+    }
+
+    /**
+     * Set the block at a flat index ((y << 8) | (z << 4) | x) and return the
+     * previous block ID. For batched writes.
+     */
+    int getAndSetBlockId(int index, int blockId) {
+        int old = blocks.get(index);
+        if (old == blockId) return old;
+        blocks.set(index, blockId);
+        if (old == Chunk.AIR_ID) {
+            nonAirCount++;
+        } else if (blockId == Chunk.AIR_ID) {
+            nonAirCount--;
+        }
+        if (ticksRandomly(old)) randomTickCount--;
+        if (ticksRandomly(blockId)) randomTickCount++;
+        return old;
+    }
+
+    /**
+     * Get the palette index at section-local coordinates (for hot paths).
+     * Index 0 is always air; resolve others with {@link #getPaletteEntry(int)}.
+     */
+    public int getBlockIndex(int x, int y, int z) {
+        return blocks.getPaletteIndex(index(x, y, z));
+    }
+
+    /**
+     * Copy all 4096 palette indices, indexed {@code (y << 8) | (z << 4) | x}
+     * (for hot paths that read the whole section)
+     */
+    public void getBlockIndices(int[] out) {
+        blocks.getPaletteIndices(out);
+    }
+
+    /**
+     * Get the numeric block ID stored at a palette index
+     */
+    public int getPaletteEntry(int paletteIndex) {
+        return blocks.getPaletteEntry(paletteIndex);
+    }
+
+    public int getPaletteSize() {
+        return blocks.getPaletteSize();
+    }
+
+    /**
+     * Is every block in this section air?
+     */
+    public boolean isEmpty() {
+        return nonAirCount == 0;
+    }
+
+    public int getNonAirCount() {
+        return nonAirCount;
+    }
+
+    /**
+     * Number of blocks in this section that override Block#onRandomTick
+     */
+    public int getRandomTickCount() {
+        return randomTickCount;
+    }
+
+    /**
+     * Write the palette (as registry keys, so saves survive ID changes)
+     * followed by the packed indices
+     */
+    void write(DataOutputStream out) throws IOException {
+        int paletteSize = blocks.getPaletteSize();
+        out.writeShort(paletteSize);
+        for (int i = 0; i < paletteSize; i++) {
+            String key = Registries.BLOCKS.getKey(blocks.getPaletteEntry(i));
+            out.writeUTF(key != null ? key : Chunk.AIR);
+        }
+        out.writeByte(blocks.getBitsPerEntry());
+        long[] data = blocks.getRawData();
+        out.writeInt(data.length);
+        for (long word : data) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Read a section written by {@link #write}. Blocks that are no longer
+     * registered become air.
+     */
+    static ChunkSection read(DataInputStream in) throws IOException {
+        int paletteSize = in.readUnsignedShort();
+        int[] palette = new int[Math.max(2, paletteSize)];
+        for (int i = 0; i < paletteSize; i++) {
+            int id = Registries.BLOCKS.idOf(in.readUTF());
+            palette[i] = id >= 0 ? id : Chunk.AIR_ID;
+        }
+        int bitsPerEntry = in.readUnsignedByte();
+        long[] data = new long[in.readInt()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = in.readLong();
+        }
+        return new ChunkSection(new PalettedContainer(VOLUME, palette, paletteSize, bitsPerEntry, data));
+    }
+
+    /**
+     * Return off-heap block storage to the arena. The section must not be
+     * written afterwards.
+     */
+    void release() {
+        blocks.release();
+    }
+
+    /**
+     * Approximate footprint of this section in bytes, on or off the heap
+     */
+    public long getMemoryUsage() {
+        return 24 + blocks.getMemoryUsage();
+    }
+}
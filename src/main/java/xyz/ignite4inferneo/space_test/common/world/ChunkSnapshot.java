@@ -0,0 +1,120 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Immutable view of a chunk's blocks at the moment {@link Chunk#snapshot()}
+ * was called. Taking one copies the 16 section references and the small
+ * heightmaps; the chunk
+ * copies a shared section the next time it is written, so the snapshot never
+ * changes and writers never wait for readers.
+ *
+ * Snapshots can be read from any thread (meshing, saving, networking).
+ * Closing a snapshot when done lets the chunk write its sections in place
+ * again once no other snapshot is open; an unclosed snapshot only costs
+ * those copies.
+ *
+ * Light is not frozen: a snapshot reads the chunk's live light arrays, and
+ * the light engine reports every section it relights.
+ */
+public final class ChunkSnapshot implements ChunkAccess, AutoCloseable {
+    private final Chunk owner;
+    private boolean closed;
+    private final int chunkX;
+    private final int chunkZ;
+    private final ChunkSection[] sections;
+    private final Heightmap[] heightmaps;
+    private final NibbleArray[] blockLight;
+    private final NibbleArray[] skyLight;
+
+    ChunkSnapshot(Chunk owner, int chunkX, int chunkZ, ChunkSection[] sections, Heightmap[] heightmaps,
+                  NibbleArray[] blockLight, NibbleArray[] skyLight) {
+        this.owner = owner;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.sections = sections;
+        this.heightmaps = heightmaps;
+        this.blockLight = blockLight;
+        this.skyLight = skyLight;
+    }
+
+    @Override
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    @Override
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    @Override
+    public int getBlockId(int x, int y, int z) {
+        if (x < 0 || x >= Chunk.SIZE || y < 0 || y >= Chunk.HEIGHT || z < 0 || z >= Chunk.SIZE) {
+            return Chunk.AIR_ID;
+        }
+        ChunkSection section = sections[y >> 4];
+        return section == null ? Chunk.AIR_ID : section.getBlockId(x, y & 15, z);
+    }
+
+    /**
+     * Get a section by index (0-15), or null if it is all air.
+     * Sections are shared with the chunk and must not be modified.
+     */
+    @Override
+    public ChunkSection getSection(int sectionY) {
+        return sections[sectionY];
+    }
+
+    @Override
+    public int getHeight(Heightmap.Type type, int x, int z) {
+        return heightmaps[type.ordinal()].get(x & 15, z & 15);
+    }
+
+    @Override
+    public int getMaxHeight() {
+        return heightmaps[Heightmap.Type.SURFACE.ordinal()].getMax();
+    }
+
+    @Override
+    public int getBlockLight(int x, int y, int z) {
+        if (x < 0 || x >= Chunk.SIZE || y < 0 || y >= Chunk.HEIGHT || z < 0 || z >= Chunk.SIZE) return 0;
+        return blockLight[y >> 4].get((y & 15) << 8 | z << 4 | x);
+    }
+
+    @Override
+    public int getSkyLight(int x, int y, int z) {
+        if (x < 0 || x >= Chunk.SIZE || y < 0 || y >= Chunk.HEIGHT || z < 0 || z >= Chunk.SIZE) {
+            return LightEngine.MAX_LIGHT;
+        }
+        return skyLight[y >> 4].get((y & 15) << 8 | z << 4 | x);
+    }
+
+    /**
+     * Stop using the snapshot. It must not be read afterwards.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        owner.snapshotClosed();
+    }
+
+    /**
+     * Write block data: a bitmask of non-empty sections, then each section.
+     * Read back with {@link Chunk#read}.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        int mask = 0;
+        for (int i = 0; i < Chunk.SECTION_COUNT; i++) {
+            if (sections[i] != null) mask |= 1 << i;
+        }
+        out.writeShort(mask);
+        for (ChunkSection section : sections) {
+            if (section != null) section.write(out);
+        }
+    }
+}
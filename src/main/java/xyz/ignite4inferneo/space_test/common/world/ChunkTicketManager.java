@@ -0,0 +1,284 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.common.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides which chunks are loaded and which of them tick.
+ *
+ * Players, the spawn area and forced chunks hold tickets. A ticket has a
+ * level at its own chunk that rises by one per chunk of (Chebyshev)
+ * distance; each chunk takes the lowest level of any ticket in reach:
+ *
+ * <ul>
+ *   <li>{@link #ENTITY_TICKING} or below: entities, blocks and everything else tick</li>
+ *   <li>{@link #BLOCK_TICKING}: random, scheduled and neighbor block ticks run, entities freeze</li>
+ *   <li>{@link #BORDER}: loaded so neighbors can read it, nothing ticks</li>
+ *   <li>above that: unloaded, once it has stayed out of reach for {@link #UNLOAD_DELAY_TICKS}</li>
+ * </ul>
+ *
+ * A player ticket for view distance v sits at level {@code BORDER - v}, so
+ * the player's chunks are loaded out to v and entities tick out to v - 2.
+ * When tickets change the manager requests missing chunks in reach
+ * (asynchronously, so the tick never generates terrain). Once a second it
+ * retries missing chunks and unloads chunks that fell out of reach, a
+ * bounded number at a time. Worlds without tickets load and unload
+ * nothing on their own.
+ *
+ * Tickets may be added and removed from any thread; {@link #tick} runs on
+ * the world tick thread. Level lookups read an immutable map rebuilt when
+ * tickets change, so they never lock.
+ */
+public class ChunkTicketManager {
+    public static final int ENTITY_TICKING = 31;
+    public static final int BLOCK_TICKING = 32;
+    public static final int BORDER = 33;
+    public static final int UNLOADED = BORDER + 1;
+
+    public static final int UNLOAD_DELAY_TICKS = 100;
+    private static final int CHECK_INTERVAL_TICKS = 20; // Retry failed loads, look for chunks to unload
+    private static final int MAX_UNLOADS_PER_CHECK = 64;
+
+    public enum TicketType {
+        PLAYER,
+        SPAWN,
+        FORCED
+    }
+
+    /**
+     * What a chunk at a given level does
+     */
+    public enum Status {
+        ENTITY_TICKING,
+        BLOCK_TICKING,
+        BORDER,
+        UNLOADED;
+
+        public static Status of(int level) {
+            if (level <= ChunkTicketManager.ENTITY_TICKING) return ENTITY_TICKING;
+            if (level == ChunkTicketManager.BLOCK_TICKING) return BLOCK_TICKING;
+            if (level == ChunkTicketManager.BORDER) return BORDER;
+            return UNLOADED;
+        }
+    }
+
+    /**
+     * A ticket at a chunk. Handles are compared by identity.
+     */
+    public static final class Ticket {
+        private final TicketType type;
+        private final int chunkX;
+        private final int chunkZ;
+        private final int level;
+
+        Ticket(TicketType type, int chunkX, int chunkZ, int level) {
+            this.type = type;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.level = level;
+        }
+
+        public TicketType getType() {
+            return type;
+        }
+
+        public int getChunkX() {
+            return chunkX;
+        }
+
+        public int getChunkZ() {
+            return chunkZ;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+    }
+
+    private static final class PlayerTicket {
+        final int viewDistance;
+        Ticket ticket;
+
+        PlayerTicket(int viewDistance) {
+            this.viewDistance = viewDistance;
+        }
+    }
+
+    private final ChunkProvider provider;
+    private final ChunkLifecycleManager lifecycleManager;
+
+    // Guarded by this
+    private final List<Ticket> tickets = new ArrayList<>();
+    private final Map<Entity, PlayerTicket> players = new HashMap<>();
+    private boolean ticketsChanged;
+
+    private volatile Map<Long, Integer> levels = new HashMap<>(); // Replaced, never modified
+    private final Map<Long, Long> outOfReachSince = new HashMap<>(); // Tick thread only
+
+    public ChunkTicketManager(ChunkProvider provider, ChunkLifecycleManager lifecycleManager) {
+        this.provider = provider;
+        this.lifecycleManager = lifecycleManager;
+    }
+
+    /**
+     * Ticket level that loads chunks out to the given radius
+     */
+    public static int levelForRadius(int radius) {
+        return BORDER - Math.max(0, radius);
+    }
+
+    /**
+     * Add a ticket. Chunks in reach start loading on the next tick.
+     */
+    public synchronized Ticket addTicket(TicketType type, int chunkX, int chunkZ, int level) {
+        Ticket ticket = new Ticket(type, chunkX, chunkZ, level);
+        tickets.add(ticket);
+        ticketsChanged = true;
+        return ticket;
+    }
+
+    public synchronized void removeTicket(Ticket ticket) {
+        if (tickets.remove(ticket)) ticketsChanged = true;
+    }
+
+    /**
+     * Keep the chunks around a player loaded and ticking, following it as it moves
+     */
+    public synchronized void addPlayer(Entity player, int viewDistance) {
+        removePlayer(player);
+        players.put(player, new PlayerTicket(viewDistance));
+        ticketsChanged = true;
+    }
+
+    public synchronized void removePlayer(Entity player) {
+        PlayerTicket removed = players.remove(player);
+        if (removed != null && removed.ticket != null) {
+            tickets.remove(removed.ticket);
+            ticketsChanged = true;
+        }
+    }
+
+    /**
+     * Are there any tickets (or players) at all?
+     */
+    public synchronized boolean hasTickets() {
+        return !tickets.isEmpty() || !players.isEmpty();
+    }
+
+    /**
+     * Ticket level of a chunk, {@link #UNLOADED} if no ticket reaches it
+     */
+    public int getLevel(int chunkX, int chunkZ) {
+        Integer level = levels.get(ChunkMap.key(chunkX, chunkZ));
+        return level == null ? UNLOADED : level;
+    }
+
+    public Status getStatus(int chunkX, int chunkZ) {
+        return Status.of(getLevel(chunkX, chunkZ));
+    }
+
+    /**
+     * Do entities in this chunk tick? Also requires the chunk to be loaded.
+     */
+    public boolean isEntityTicking(int chunkX, int chunkZ) {
+        return getLevel(chunkX, chunkZ) <= ENTITY_TICKING && provider.getChunkIfLoaded(chunkX, chunkZ) != null;
+    }
+
+    /**
+     * Do blocks in this chunk receive random, scheduled and neighbor ticks?
+     */
+    public boolean isBlockTicking(int chunkX, int chunkZ) {
+        return getLevel(chunkX, chunkZ) <= BLOCK_TICKING;
+    }
+
+    /**
+     * Number of chunks in reach of a ticket (loaded or not)
+     */
+    public int getTicketedChunkCount() {
+        return levels.size();
+    }
+
+    /**
+     * Called every world tick: follow players, recompute levels if tickets
+     * changed, request missing chunks and unload chunks out of reach
+     */
+    public void tick(long tickCount) {
+        boolean changed = updateLevels();
+        boolean check = tickCount % CHECK_INTERVAL_TICKS == 0;
+        if (changed || check) requestMissing();
+        if (check) unloadOutOfReach(tickCount);
+    }
+
+    private boolean updateLevels() {
+        List<Ticket> current;
+        synchronized (this) {
+            for (Map.Entry<Entity, PlayerTicket> entry : players.entrySet()) {
+                Entity player = entry.getKey();
+                PlayerTicket playerTicket = entry.getValue();
+                int chunkX = (int) Math.floor(player.x) >> 4;
+                int chunkZ = (int) Math.floor(player.z) >> 4;
+                Ticket old = playerTicket.ticket;
+                if (old != null && old.chunkX == chunkX && old.chunkZ == chunkZ) continue;
+                if (old != null) tickets.remove(old);
+                playerTicket.ticket = new Ticket(TicketType.PLAYER, chunkX, chunkZ, levelForRadius(playerTicket.viewDistance));
+                tickets.add(playerTicket.ticket);
+                ticketsChanged = true;
+            }
+            if (!ticketsChanged) return false;
+            ticketsChanged = false;
+            current = new ArrayList<>(tickets);
+        }
+
+        Map<Long, Integer> next = new HashMap<>();
+        for (Ticket ticket : current) {
+            int radius = BORDER - ticket.level;
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    int level = ticket.level + Math.max(Math.abs(dx), Math.abs(dz));
+                    next.merge(ChunkMap.key(ticket.chunkX + dx, ticket.chunkZ + dz), level, Math::min);
+                }
+            }
+        }
+        levels = next;
+        return true;
+    }
+
+    private void requestMissing() {
+        for (Long key : levels.keySet()) {
+            int chunkX = (int) (key >> 32), chunkZ = (int) (long) key;
+            if (provider.getChunkIfLoaded(chunkX, chunkZ) == null) {
+                provider.requestChunk(chunkX, chunkZ, true);
+            }
+        }
+    }
+
+    private void unloadOutOfReach(long tickCount) {
+        if (!hasTickets()) {
+            outOfReachSince.clear();
+            return;
+        }
+        Map<Long, Integer> levels = this.levels;
+        List<Chunk> due = new ArrayList<>();
+        provider.getChunks().forEach(chunk -> {
+            long key = ChunkMap.key(chunk.getChunkX(), chunk.getChunkZ());
+            if (levels.containsKey(key)) {
+                outOfReachSince.remove(key);
+                return;
+            }
+            long since = outOfReachSince.computeIfAbsent(key, k -> tickCount);
+            if (tickCount - since >= UNLOAD_DELAY_TICKS && due.size() < MAX_UNLOADS_PER_CHECK) due.add(chunk);
+        });
+        for (Chunk chunk : due) {
+            outOfReachSince.remove(ChunkMap.key(chunk.getChunkX(), chunk.getChunkZ()));
+            lifecycleManager.evict(chunk);
+        }
+        if (outOfReachSince.size() > provider.getChunks().size()) {
+            // Drop entries for chunks that were unloaded some other way
+            outOfReachSince.keySet().removeIf(key -> provider.getChunks().get(key) == null);
+        }
+    }
+}
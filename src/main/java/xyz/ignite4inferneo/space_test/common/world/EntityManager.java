@@ -83,9 +83,12 @@ public class EntityManager {
             toRemove.clear();
         }
 
-        // Tick all entities
+        // Tick entities in entity-ticking chunks; the rest wait where they are
         for (Entity entity : entities.values()) {
-            entity.tick(deltaTime);
+            World world = entity.getWorld();
+            if (world == null || world.isEntityTicking(entity.x, entity.z)) {
+                entity.tick(deltaTime);
+            }
 
             // Auto-remove if marked for removal
             if (entity.isRemoved()) {
@@ -0,0 +1,67 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+
+/**
+ * What a feature stage may touch: reads and writes in its own chunk, plus
+ * writes reaching up to one chunk into each neighbor. All coordinates are
+ * world block coordinates.
+ *
+ * Writes into the chunk itself apply immediately. Writes into a neighbor
+ * are buffered and applied when that neighbor is finished, after its own
+ * features, so a feature never has to wait for or read from a neighbor.
+ * Writes farther out are dropped.
+ */
+public final class FeatureRegion {
+    private final ProtoChunk proto;
+    private final int chunkX;
+    private final int chunkZ;
+
+    FeatureRegion(ProtoChunk proto) {
+        this.proto = proto;
+        this.chunkX = proto.getChunkX();
+        this.chunkZ = proto.getChunkZ();
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    /**
+     * The proto-chunk being decorated, for its scratch data
+     */
+    public ProtoChunk getProtoChunk() {
+        return proto;
+    }
+
+    /**
+     * Block ID in the decorated chunk, air outside it
+     */
+    public int getBlockId(int x, int y, int z) {
+        if (x >> 4 != chunkX || z >> 4 != chunkZ) return Chunk.AIR_ID;
+        return proto.getChunk().getBlockId(x & 15, y, z & 15);
+    }
+
+    /**
+     * Set a block by string ID. Unregistered IDs are ignored.
+     */
+    public void setBlock(int x, int y, int z, String blockId) {
+        int id = Registries.BLOCKS.idOf(blockId);
+        if (id < 0) return;
+        setBlockId(x, y, z, id);
+    }
+
+    public void setBlockId(int x, int y, int z, int blockId) {
+        if (y < 0 || y >= Chunk.HEIGHT) return;
+        int targetX = x >> 4, targetZ = z >> 4;
+        if (targetX == chunkX && targetZ == chunkZ) {
+            proto.getChunk().setBlockId(x & 15, y, z & 15, blockId);
+        } else if (Math.abs(targetX - chunkX) <= 1 && Math.abs(targetZ - chunkZ) <= 1) {
+            proto.bufferWrite(targetX, targetZ, PackedPos.pack(x, y, z), blockId);
+        }
+    }
+}
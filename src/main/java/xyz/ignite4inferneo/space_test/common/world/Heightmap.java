@@ -0,0 +1,131 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+
+/**
+ * The highest block of some kind in each of a chunk's 16x16 columns.
+ *
+ * Raising a column is O(1). Removing the top block scans down to the next
+ * matching block, which is usually the one just below, so edits stay O(1)
+ * amortized. {@link #recompute} rebuilds the whole map from the blocks.
+ */
+public final class Heightmap {
+
+    public enum Type {
+        /** Any non-air block (what the mesher has to draw) */
+        SURFACE,
+        /** Blocks entities collide with (spawn placement, mob spawning) */
+        SOLID,
+        /** Blocks that hide what is behind them (skylight) */
+        OPAQUE;
+
+        boolean matches(int blockId) {
+            return switch (this) {
+                case SURFACE -> blockId != Chunk.AIR_ID;
+                case SOLID -> Registries.BLOCKS.isSolid(blockId);
+                case OPAQUE -> Registries.BLOCKS.isOpaque(blockId);
+            };
+        }
+    }
+
+    public static final Type[] TYPES = Type.values();
+
+    private final Type type;
+    private final short[] heights; // Highest matching Y + 1 per column, 0 if none
+
+    public Heightmap(Type type) {
+        this.type = type;
+        this.heights = new short[Chunk.SIZE * Chunk.SIZE];
+    }
+
+    private Heightmap(Heightmap other) {
+        this.type = other.type;
+        this.heights = other.heights.clone();
+    }
+
+    private static int index(int x, int z) {
+        return (z << 4) | x;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Y of the highest matching block in a column, or -1 if there is none
+     */
+    public int get(int x, int z) {
+        return heights[index(x, z)] - 1;
+    }
+
+    /**
+     * Highest Y in the whole map, or -1 if every column is empty
+     */
+    public int getMax() {
+        int max = 0;
+        for (short h : heights) {
+            if (h > max) max = h;
+        }
+        return max - 1;
+    }
+
+    /**
+     * Update a column after the block at (x, y, z) was set. The chunk must
+     * already contain the new block.
+     */
+    void update(ChunkAccess chunk, int x, int y, int z, int blockId) {
+        int i = index(x, z);
+        int top = heights[i];
+        if (type.matches(blockId)) {
+            if (y >= top) heights[i] = (short) (y + 1);
+        } else if (y == top - 1) {
+            heights[i] = (short) (scanDown(chunk, x, y - 1, z) + 1);
+        }
+    }
+
+    /**
+     * Update every column after a whole section was filled with one block.
+     * The chunk must already contain the new section.
+     */
+    void updateFilledSection(ChunkAccess chunk, int sectionY, int blockId) {
+        int bottom = sectionY << 4;
+        int top = bottom + ChunkSection.SIZE;
+        boolean matches = type.matches(blockId);
+        for (int i = 0; i < heights.length; i++) {
+            int height = heights[i];
+            if (matches) {
+                if (height < top) heights[i] = (short) top;
+            } else if (height > bottom && height <= top) {
+                heights[i] = (short) (scanDown(chunk, i & 15, bottom - 1, i >> 4) + 1);
+            }
+        }
+    }
+
+    /**
+     * Rebuild every column from the chunk's blocks
+     */
+    void recompute(ChunkAccess chunk) {
+        int startY = (chunk.getHighestSection() + 1) * ChunkSection.SIZE - 1;
+        for (int z = 0; z < Chunk.SIZE; z++) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                heights[index(x, z)] = (short) (scanDown(chunk, x, startY, z) + 1);
+            }
+        }
+    }
+
+    private int scanDown(ChunkAccess chunk, int x, int fromY, int z) {
+        for (int y = fromY; y >= 0; y--) {
+            ChunkSection section = chunk.getSection(y >> 4);
+            if (section == null) {
+                y &= ~15; // Skip the empty section
+                continue;
+            }
+            if (type.matches(section.getBlockId(x, y & 15, z))) return y;
+        }
+        return -1;
+    }
+
+    Heightmap copy() {
+        return new Heightmap(this);
+    }
+}
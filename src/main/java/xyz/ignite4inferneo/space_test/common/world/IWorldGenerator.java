@@ -3,16 +3,32 @@ package xyz.ignite4inferneo.space_test.common.world;
 /**
  * Interface for world generators.
  * Mods can implement custom world generation.
+ *
+ * The chunk provider calls {@link #generateChunk} from several worker
+ * threads at once, each with a different chunk. Implementations must be
+ * safe for that and deterministic: a chunk's contents may depend only on
+ * the seed and its coordinates, never on shared mutable state such as a
+ * common {@code Random} or on which chunks were generated before it.
  */
 public interface IWorldGenerator {
 
     /**
-     * Generate terrain for a chunk
+     * Generate terrain for a chunk. The chunk is not yet visible to other
+     * threads; write only to it.
      */
     void generateChunk(World world, Chunk chunk);
 
     /**
-     * Get the spawn position for new players
+     * Biome at a block column, for generation stages and display.
+     * Generators without biomes are all plains.
+     */
+    default Biome getBiome(int x, int z) {
+        return Biome.PLAINS;
+    }
+
+    /**
+     * Get the spawn column for new players. The Y is a fallback;
+     * {@link World#getSpawnPosition()} places players on the surface.
      */
     default int[] getSpawnPosition() {
         return new int[]{0, 64, 0};
@@ -1,26 +1,64 @@
 package xyz.ignite4inferneo.space_test.common.world;
 
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.world.density.DensityFunction;
+import xyz.ignite4inferneo.space_test.common.world.density.DensityProgram;
+
 import java.util.Random;
 
+import static xyz.ignite4inferneo.space_test.common.world.density.DensityFunction.*;
+
 /**
  * Advanced terrain generator with:
  * - Mountains using ridged noise
  * - Valleys and rolling hills
  * - River-like carvings
+ * - Overhangs and winding caves
  * - Better distribution of terrain features
+ *
+ * Terrain is a {@link DensityFunction} graph: a 2D height from the
+ * continental, peaks and erosion noise (cached on a coarse lattice) plus
+ * exact detail noise, turned into density by distance to the surface,
+ * perturbed by 3D noise for overhangs and carved by tunnel noise. It is
+ * compiled once per generator and evaluated on a 4x8x4 cell grid per chunk.
+ *
+ * Generation is staged: the shape stage fills the density with stone, the
+ * surface stage tops it with the blocks of each column's {@link Biome}, and
+ * the feature stage plants trees, as densely as the biome says, whose
+ * leaves may reach into neighboring chunks. Both stages read biomes from a
+ * shared {@link BiomeMap}, so its climate noise is evaluated per 4x4 cell
+ * and only once per region.
+ *
+ * Safe to call from several generation threads at once: the noise and the
+ * compiled program are immutable, the column cache only holds pure values
+ * and each column seeds its own Random from the world seed.
  */
-public class ImprovedWorldGenerator implements IWorldGenerator {
+public class ImprovedWorldGenerator implements StagedWorldGenerator {
 
     private final long seed;
     private final PerlinNoise continentalnessNoise;  // Large-scale terrain
     private final PerlinNoise erosionNoise;          // Valleys and rivers
     private final PerlinNoise peaksNoise;            // Mountain peaks
     private final PerlinNoise detailNoise;           // Small details
+    private final PerlinNoise overhangNoise;         // 3D surface warping
+    private final PerlinNoise caveNoise;             // Tunnels
+
+    private final BiomeMap biomeMap;
+    private final DensityFunction density;
+    private final DensityProgram program;
 
     // Terrain parameters
     private static final int SEA_LEVEL = 62;
     private static final int MIN_HEIGHT = 40;
     private static final int MAX_HEIGHT = 120;
+    private static final double SCALE = 0.003;       // Smaller = bigger features
+    private static final double RIVER_SCALE = 0.008; // Rivers
+    private static final int COARSE_CELL = 4;        // Lattice spacing of the cached low-frequency height, in blocks
+    private static final double SURFACE_FALLOFF = 1.0 / 16; // Density per block below the surface
+    private static final double OVERHANG_STRENGTH = 0.25;   // About 4 blocks of surface warping
+    private static final double CAVE_WIDTH = 0.07;          // Tunnel where |cave noise| is below this
+    private static final int CAVE_FLOOR = 12;               // No caves near bedrock
+    private static final int CAVE_ROOF = 8;                 // Caves close this far below the surface, fading over as many blocks again
 
     public ImprovedWorldGenerator(long seed) {
         this.seed = seed;
@@ -28,119 +66,146 @@ public class ImprovedWorldGenerator implements IWorldGenerator {
         this.erosionNoise = new PerlinNoise(seed + 1);
         this.peaksNoise = new PerlinNoise(seed + 2);
         this.detailNoise = new PerlinNoise(seed + 3);
-    }
-
-    @Override
-    public void generateChunk(World world, Chunk chunk) {
-        int baseX = chunk.getChunkX() * Chunk.SIZE;
-        int baseZ = chunk.getChunkZ() * Chunk.SIZE;
-
-        for (int x = 0; x < Chunk.SIZE; x++) {
-            for (int z = 0; z < Chunk.SIZE; z++) {
-                int worldX = baseX + x;
-                int worldZ = baseZ + z;
+        this.overhangNoise = new PerlinNoise(seed + 4);
+        this.caveNoise = new PerlinNoise(seed + 5);
 
-                int height = calculateTerrainHeight(worldX, worldZ);
-                generateColumn(chunk, x, z, height, worldX, worldZ);
-            }
-        }
-
-        chunk.clearDirty();
+        this.biomeMap = new BiomeMap(seed);
+        this.density = buildDensity();
+        this.program = DensityProgram.compile(density);
     }
 
-    private int calculateTerrainHeight(int x, int z) {
-        double scale = 0.003; // Smaller = bigger features
-        double riverScale = 0.008; // Rivers
-
+    private DensityFunction buildDensity() {
         // 1. Continental shape (large rolling hills)
-        double continental = continentalnessNoise.octaveNoise(
-                x * scale * 0.5, z * scale * 0.5, 4, 0.5
-        );
-
+        DensityFunction continental = noise(continentalnessNoise, SCALE * 0.5, 4, 0.5);
         // 2. Mountain peaks (ridged noise for dramatic mountains)
-        double peaks = peaksNoise.ridgedNoise(
-                x * scale * 2.0, z * scale * 2.0, 5, 0.5
-        );
-
+        DensityFunction peaks = ridgedNoise(peaksNoise, SCALE * 2.0, 5, 0.5);
         // 3. Erosion (valleys and river carving)
-        double erosion = erosionNoise.octaveNoise(
-                x * riverScale, z * riverScale, 4, 0.6
-        );
-
-        // Create river valleys where erosion is near zero
-        double riverCarving = Math.abs(erosion);
-        riverCarving = Math.pow(riverCarving, 0.5); // Make rivers wider
-
+        DensityFunction erosion = noise(erosionNoise, RIVER_SCALE, 4, 0.6);
         // 4. Fine detail
-        double detail = detailNoise.noise(x * scale * 8, z * scale * 8) * 0.1;
-
-        // Combine noises
-        // Continental provides base height
-        double baseHeight = continental * 0.6;
+        DensityFunction detail = noise(detailNoise, SCALE * 8, 1, 1);
 
+        // Create river valleys where erosion is near zero
+        DensityFunction riverCarving = sqrt(abs(erosion)); // Make rivers wider
+        // Sharp river cuts
+        DensityFunction carveAmount = cube(add(mul(riverCarving, -1), 1.0));
         // Add mountains where continental is high
-        double mountainInfluence = Math.max(0, continental * 0.8);
-        double mountainHeight = peaks * mountainInfluence;
-
-        // Apply river carving (deeper valleys in low areas)
-        double carveAmount = 1.0 - riverCarving;
-        carveAmount = Math.pow(carveAmount, 3.0); // Sharp river cuts
+        DensityFunction mountainHeight = mul(peaks, clamp(mul(continental, 0.8), 0, Double.MAX_VALUE));
+
+        // Low-frequency part, cached on a coarse lattice; the detail stays exact
+        DensityFunction baseNoise = add(add(mul(continental, 0.6), mul(mountainHeight, 0.8)), mul(carveAmount, -0.3));
+        DensityFunction baseHeight = cache2d(add(mul(baseNoise, MAX_HEIGHT - MIN_HEIGHT), SEA_LEVEL), COARSE_CELL);
+        // Map to world height and clamp
+        DensityFunction height = clamp(add(baseHeight, mul(detail, 0.1 * (MAX_HEIGHT - MIN_HEIGHT))),
+                MIN_HEIGHT, MAX_HEIGHT);
+
+        // Solid below the surface, warped by 3D noise into overhangs
+        DensityFunction terrain = add(mul(add(height, mul(y(), -1)), SURFACE_FALLOFF),
+                mul(noise3d(overhangNoise, 0.015, 0.03, 2, 0.5), OVERHANG_STRENGTH));
+
+        // Tunnels where the cave noise crosses zero, fading out near bedrock
+        // and under a roof of a few blocks so they rarely open into pits
+        DensityFunction tunnels = add(mul(abs(noise3d(caveNoise, 0.02, 0.035, 2, 0.5)), 1 / CAVE_WIDTH), -1);
+        DensityFunction caveFloor = spline(y(), new double[]{0, CAVE_FLOOR}, new double[]{2, 0});
+        DensityFunction caveRoof = clamp(mul(add(add(y(), mul(height, -1)), CAVE_ROOF * 2), 1.0 / CAVE_ROOF), 0, 2);
+        return min(terrain, add(add(tunnels, caveFloor), caveRoof));
+    }
 
-        // Combine everything
-        double finalNoise = baseHeight + mountainHeight * 0.8 - carveAmount * 0.3 + detail;
+    @Override
+    public Biome getBiome(int x, int z) {
+        return biomeMap.getBiome(x, z);
+    }
 
-        // Map to world height
-        int height = (int) (SEA_LEVEL + finalNoise * (MAX_HEIGHT - MIN_HEIGHT));
+    /**
+     * The terrain density graph, e.g. for profiling or tools
+     */
+    public DensityFunction getDensityFunction() {
+        return density;
+    }
 
-        // Clamp
-        return Math.max(MIN_HEIGHT, Math.min(MAX_HEIGHT, height));
+    @Override
+    public void generateShape(ProtoChunk proto) {
+        Chunk chunk = proto.getChunk();
+        int stone = Registries.BLOCKS.idOf("space_test:stone");
+        program.fillChunk(chunk, stone, proto.getSurfaceHeights());
+
+        // Bedrock
+        int[] heights = proto.getSurfaceHeights();
+        for (int z = 0; z < Chunk.SIZE; z++) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                chunk.setBlockId(x, 0, z, stone);
+                if (heights[z * Chunk.SIZE + x] < 0) heights[z * Chunk.SIZE + x] = 0;
+            }
+        }
     }
 
-    private void generateColumn(Chunk chunk, int x, int z, int height, int worldX, int worldZ) {
-        // Generate terrain layers
-        for (int y = 0; y <= height; y++) {
-            if (y == 0) {
-                // Bedrock
-                chunk.setBlock(x, y, z, "space_test:stone");
-            } else if (y < height - 4) {
-                // Deep stone
-                chunk.setBlock(x, y, z, "space_test:stone");
-            } else if (y < height) {
-                // Dirt layer
-                chunk.setBlock(x, y, z, "space_test:dirt");
-            } else {
-                // Surface block
-                if (height < SEA_LEVEL - 1) {
-                    // Sand near water (future)
-                    chunk.setBlock(x, y, z, "space_test:dirt");
-                } else {
-                    // Grass
-                    chunk.setBlock(x, y, z, "space_test:grass");
+    @Override
+    public void generateSurface(ProtoChunk proto) {
+        Chunk chunk = proto.getChunk();
+        int[] heights = proto.getSurfaceHeights();
+        Biome[] columnBiomes = new Biome[Chunk.SIZE * Chunk.SIZE];
+        biomeMap.fillChunk(chunk.getChunkX(), chunk.getChunkZ(), columnBiomes, null);
+
+        Biome[] all = Biome.values();
+        int[] surfaceIds = new int[all.length];
+        int[] fillerIds = new int[all.length];
+        for (Biome biome : all) {
+            surfaceIds[biome.ordinal()] = Registries.BLOCKS.idOf(biome.getSurfaceBlock());
+            fillerIds[biome.ordinal()] = Registries.BLOCKS.idOf(biome.getFillerBlock());
+        }
+
+        for (int z = 0; z < Chunk.SIZE; z++) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                int height = heights[z * Chunk.SIZE + x];
+                Biome biome = columnBiomes[z * Chunk.SIZE + x];
+                int filler = fillerIds[biome.ordinal()];
+                // Filler layer, keeping bedrock stone at y = 0 and cave air
+                for (int y = Math.max(1, height - 4); y < height; y++) {
+                    if (chunk.getBlockId(x, y, z) != Chunk.AIR_ID) chunk.setBlockId(x, y, z, filler);
                 }
+                // Surface block, or filler below sea level (sand near water in future)
+                chunk.setBlockId(x, height, z, height < SEA_LEVEL - 1 ? filler : surfaceIds[biome.ordinal()]);
             }
         }
+    }
 
-        // Trees on grass above sea level
-        if (height >= SEA_LEVEL && height < Chunk.HEIGHT - 8) {
-            Random r = new Random(seed + worldX * 374761393L + worldZ * 668265263L);
+    @Override
+    public void decorate(FeatureRegion region) {
+        int[] heights = region.getProtoChunk().getSurfaceHeights();
+        int baseX = region.getChunkX() * Chunk.SIZE;
+        int baseZ = region.getChunkZ() * Chunk.SIZE;
+        double[] treeChances = new double[Chunk.SIZE * Chunk.SIZE];
+        biomeMap.fillChunk(region.getChunkX(), region.getChunkZ(), null, treeChances);
+
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                int height = heights[z * Chunk.SIZE + x];
+                int worldX = baseX + x;
+                int worldZ = baseZ + z;
 
-            // More trees in valleys, fewer on mountain peaks
-            double treeDensity = 0.02; // Base 2% chance
+                // Trees above sea level, as often as the biome (blended at edges) allows
+                if (height >= SEA_LEVEL && height < Chunk.HEIGHT - 8) {
+                    Random r = new Random(seed + worldX * 374761393L + worldZ * 668265263L);
 
-            if (r.nextFloat() < treeDensity) {
-                generateTree(chunk, x, height + 1, z, r);
+                    if (r.nextFloat() < treeChances[z * Chunk.SIZE + x]) {
+                        generateTree(region, worldX, height + 1, worldZ, r);
+                    }
+                }
             }
         }
     }
 
-    private void generateTree(Chunk chunk, int x, int baseY, int z, Random r) {
+    /**
+     * Trunk and a 3x3 canopy at a world column. Leaves past the chunk border
+     * are buffered for the neighbor by the region.
+     */
+    private void generateTree(FeatureRegion region, int x, int baseY, int z, Random r) {
         int treeHeight = 4 + r.nextInt(3);
 
         // Trunk
         for (int y = 0; y < treeHeight; y++) {
             int worldY = baseY + y;
             if (worldY < Chunk.HEIGHT) {
-                chunk.setBlock(x, worldY, z, "space_test:wood");
+                region.setBlock(x, worldY, z, "space_test:wood");
             }
         }
 
@@ -156,10 +221,8 @@ public class ImprovedWorldGenerator implements IWorldGenerator {
                     int leafZ = z + lz;
                     int leafY = leafStartY + ly;
 
-                    if (leafX >= 0 && leafX < Chunk.SIZE &&
-                            leafZ >= 0 && leafZ < Chunk.SIZE &&
-                            leafY < Chunk.HEIGHT) {
-                        chunk.setBlock(leafX, leafY, leafZ, "space_test:leaves");
+                    if (leafY < Chunk.HEIGHT) {
+                        region.setBlock(leafX, leafY, leafZ, "space_test:leaves");
                     }
                 }
             }
@@ -168,7 +231,7 @@ public class ImprovedWorldGenerator implements IWorldGenerator {
 
     @Override
     public int[] getSpawnPosition() {
-        // Spawn at a reasonable height
+        // World.getSpawnPosition moves this onto the surface
         return new int[]{0, 70, 0};
     }
 }
\ No newline at end of file
@@ -0,0 +1,570 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Block light and skylight for a world, propagated by breadth-first flood
+ * fill on a worker thread of its own.
+ *
+ * Light is 0-15 per voxel and drops by one per step, except that full
+ * skylight travels straight down without loss until it hits an opaque
+ * block. Emitters take their level from {@link BlockRegistry#getLightLevel}.
+ * Transparent blocks (leaves, glass) let light through like air.
+ *
+ * Newly loaded chunks are lit from scratch: skylight straight down each
+ * column, then spread sideways, plus light flowing in from lit neighbors.
+ * Block changes relight incrementally: a removal pass clears light that
+ * came through or from the changed block, then an increase pass refills it
+ * from the surrounding light and any new source. Light is not saved; it is
+ * recomputed whenever a chunk loads.
+ *
+ * Changes are queued from any thread and processed in batches: everything
+ * queued while a batch runs is handled by the next one. After each batch,
+ * listeners hear about every section whose light changed.
+ */
+public class LightEngine {
+    public static final int MAX_LIGHT = 15;
+
+    private static final int HORIZONTAL_FACES = 1 << ChunkSection.FACE_NORTH | 1 << ChunkSection.FACE_SOUTH
+            | 1 << ChunkSection.FACE_WEST | 1 << ChunkSection.FACE_EAST;
+
+    // Neighbor offsets in ChunkSection face order
+    private static final int[] DX = {0, 0, 0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0, 0, 0};
+    private static final int[] DZ = {0, 0, -1, 1, 0, 0};
+
+    private final World world;
+    private final Thread worker;
+    private final List<World.SectionListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Queued work, guarded by lock; the worker takes all of it per batch
+    private final Object lock = new Object();
+    private long[] changes = new long[256]; // Packed positions of changed blocks
+    private int changeCount;
+    private List<Chunk> chunks = new ArrayList<>(); // Waiting for initial light
+    private List<Chunk> unloaded = new ArrayList<>(); // Light storage to release
+    private boolean busy;
+    private volatile boolean running = true;
+
+    // Worker state
+    private final Map<Long, Target> targets = new HashMap<>();
+    private Target lastTarget;
+    private final LongQueue increase = new LongQueue();
+    private final LongQueue decrease = new LongQueue(); // Positions with their old level, see PackedPos.withLevel
+
+    /**
+     * A chunk touched by the current batch: the live chunk for light, a
+     * snapshot for blocks, and the sections whose light changed
+     */
+    private static final class Target {
+        final Chunk chunk;
+        ChunkSnapshot blocks;      // Taken on first read in a batch
+        int changedSections;       // Bit per section
+        final int[] changedFaces = new int[Chunk.SECTION_COUNT]; // Border faces touched per section
+
+        Target(Chunk chunk) {
+            this.chunk = chunk;
+        }
+
+        int getBlockId(int x, int y, int z) {
+            if (blocks == null) blocks = chunk.snapshot();
+            return blocks.getBlockId(x & 15, y, z & 15);
+        }
+
+        void mark(int sectionY, int faces) {
+            changedSections |= 1 << sectionY;
+            changedFaces[sectionY] |= faces;
+        }
+    }
+
+    /**
+     * Growable FIFO of packed positions
+     */
+    private static final class LongQueue {
+        long[] values = new long[1024];
+        int head;
+        int tail;
+
+        void add(long value) {
+            if (tail == values.length) {
+                if (head > values.length / 2) {
+                    System.arraycopy(values, head, values, 0, tail - head);
+                    tail -= head;
+                    head = 0;
+                } else {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+            }
+            values[tail++] = value;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        long poll() {
+            long value = values[head++];
+            if (head == tail) head = tail = 0;
+            return value;
+        }
+    }
+
+    public LightEngine(World world) {
+        this.world = world;
+        this.worker = new Thread(this::run, "LightWorker");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.NORM_PRIORITY - 1);
+        worker.start();
+    }
+
+    /**
+     * Does replacing one block with another change how light spreads?
+     */
+    public static boolean affectsLight(int oldId, int newId) {
+        BlockRegistry blocks = Registries.BLOCKS;
+        return blocks.isOpaque(oldId) != blocks.isOpaque(newId)
+                || blocks.getLightLevel(oldId) != blocks.getLightLevel(newId);
+    }
+
+    /**
+     * Listen for sections whose light changed. Border faces are set for
+     * changes on a section face, since faces of neighboring sections show
+     * that light.
+     */
+    public void addListener(World.SectionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(World.SectionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queue a newly loaded chunk for lighting from scratch
+     */
+    public void queueChunk(Chunk chunk) {
+        synchronized (lock) {
+            if (isIdle()) lock.notifyAll();
+            chunks.add(chunk);
+        }
+    }
+
+    /**
+     * Queue releasing the light storage of an unloaded chunk. Done on the
+     * worker between batches, so no write can land in released memory.
+     */
+    public void queueRelease(Chunk chunk) {
+        synchronized (lock) {
+            if (isIdle()) lock.notifyAll();
+            unloaded.add(chunk);
+        }
+    }
+
+    /**
+     * Queue relighting around a block that changed from oldId to newId.
+     * Changes that cannot affect light are dropped.
+     */
+    public void queueBlockChange(int x, int y, int z, int oldId, int newId) {
+        if (!affectsLight(oldId, newId)) return;
+        synchronized (lock) {
+            if (isIdle()) lock.notifyAll();
+            addChange(PackedPos.pack(x, y, z));
+        }
+    }
+
+    /**
+     * Queue relighting around many changed blocks at once
+     * @param positions positions from {@link PackedPos#pack}
+     */
+    void queueBlockChanges(long[] positions, int count) {
+        if (count == 0) return;
+        synchronized (lock) {
+            if (isIdle()) lock.notifyAll();
+            for (int i = 0; i < count; i++) {
+                addChange(positions[i]);
+            }
+        }
+    }
+
+    /**
+     * Nothing queued, so the worker may be waiting. Guarded by lock.
+     */
+    private boolean isIdle() {
+        return changeCount == 0 && chunks.isEmpty() && unloaded.isEmpty();
+    }
+
+    private void addChange(long position) {
+        if (changeCount == changes.length) {
+            changes = Arrays.copyOf(changes, changeCount * 2);
+        }
+        changes[changeCount++] = position;
+    }
+
+    /**
+     * Block until every queued update has been applied
+     */
+    public void awaitIdle() throws InterruptedException {
+        synchronized (lock) {
+            while (running && (busy || !isIdle())) {
+                lock.wait();
+            }
+        }
+    }
+
+    /**
+     * Stop the worker. Queued updates are dropped.
+     */
+    public void shutdown() {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long[] batch;
+            int batchCount;
+            List<Chunk> batchChunks;
+            List<Chunk> batchUnloaded;
+            synchronized (lock) {
+                busy = false;
+                while (running && isIdle()) {
+                    lock.notifyAll(); // Wake awaitIdle
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) return;
+                busy = true;
+                batch = changes;
+                batchCount = changeCount;
+                batchChunks = chunks;
+                batchUnloaded = unloaded;
+                changes = new long[256];
+                changeCount = 0;
+                chunks = new ArrayList<>();
+                unloaded = new ArrayList<>();
+            }
+
+            try {
+                processBatch(batchChunks, batch, batchCount);
+            } catch (RuntimeException e) {
+                System.err.println("[LightEngine] Error updating light: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                for (Target target : targets.values()) {
+                    if (target.blocks != null) target.blocks.close();
+                }
+                targets.clear();
+                lastTarget = null;
+                increase.head = increase.tail = 0;
+                decrease.head = decrease.tail = 0;
+            }
+            for (Chunk chunk : batchUnloaded) {
+                chunk.releaseLight();
+            }
+        }
+    }
+
+    private void processBatch(List<Chunk> batchChunks, long[] batch, int count) {
+        for (Chunk chunk : batchChunks) {
+            lightChunk(chunk);
+        }
+
+        for (boolean sky : new boolean[]{true, false}) {
+            // Clear light the changed blocks no longer let through or emit
+            for (int i = 0; i < count; i++) {
+                long position = batch[i];
+                int x = PackedPos.x(position), z = PackedPos.z(position), y = PackedPos.y(position);
+                Target target = target(x >> 4, z >> 4);
+                if (target == null) continue;
+                int id = target.getBlockId(x, y, z);
+                int current = getLight(target, x, y, z, sky);
+                int source = sky ? 0 : Registries.BLOCKS.getLightLevel(id);
+                if (current > source && (Registries.BLOCKS.isOpaque(id) || !sky)) {
+                    setLight(target, x, y, z, sky, 0);
+                    decrease.add(PackedPos.withLevel(position, current));
+                }
+            }
+            propagateDecrease(sky);
+
+            // Refill from new sources and from the light around each change
+            for (int i = 0; i < count; i++) {
+                long position = batch[i];
+                int x = PackedPos.x(position), z = PackedPos.z(position), y = PackedPos.y(position);
+                Target target = target(x >> 4, z >> 4);
+                if (target == null) continue;
+                int id = target.getBlockId(x, y, z);
+                int source = sky
+                        ? (y == Chunk.HEIGHT - 1 && !Registries.BLOCKS.isOpaque(id) ? MAX_LIGHT : 0)
+                        : Registries.BLOCKS.getLightLevel(id);
+                if (source > getLight(target, x, y, z, sky)) {
+                    setLight(target, x, y, z, sky, source);
+                    increase.add(position);
+                }
+                if (!Registries.BLOCKS.isOpaque(id)) {
+                    for (int face = 0; face < 6; face++) {
+                        int ny = y + DY[face];
+                        if (ny < 0 || ny >= Chunk.HEIGHT) continue;
+                        increase.add(PackedPos.pack(x + DX[face], ny, z + DZ[face]));
+                    }
+                }
+            }
+            propagateIncrease(sky);
+        }
+
+        for (Target target : targets.values()) {
+            int changed = target.changedSections;
+            while (changed != 0) {
+                int sectionY = Integer.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                for (World.SectionListener listener : listeners) {
+                    listener.onSectionChanged(target.chunk.getChunkX(), sectionY, target.chunk.getChunkZ(),
+                            target.changedFaces[sectionY]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Light a chunk from scratch and exchange light with its lit neighbors
+     */
+    private void lightChunk(Chunk chunk) {
+        long key = ChunkMap.key(chunk.getChunkX(), chunk.getChunkZ());
+        if (world.getChunks().get(key) != chunk) return; // Unloaded before its turn
+        Target target = new Target(chunk);
+        targets.put(key, target);
+        lastTarget = target;
+        ChunkSnapshot blocks = chunk.snapshot();
+        target.blocks = blocks;
+        BlockRegistry registry = Registries.BLOCKS;
+        int baseX = chunk.getChunkX() << 4, baseZ = chunk.getChunkZ() << 4;
+
+        // Skylight straight down to the first opaque block of each column
+        int[] skyFrom = new int[Chunk.SIZE * Chunk.SIZE]; // Lowest Y with full skylight
+        int lowest = Chunk.HEIGHT, highest = 0;
+        for (int i = 0; i < skyFrom.length; i++) {
+            skyFrom[i] = blocks.getHeight(Heightmap.Type.OPAQUE, i & 15, i >> 4) + 1;
+            lowest = Math.min(lowest, skyFrom[i]);
+            highest = Math.max(highest, skyFrom[i]);
+        }
+        for (int sectionY = 0; sectionY < Chunk.SECTION_COUNT; sectionY++) {
+            int bottom = sectionY << 4, top = bottom + ChunkSection.SIZE;
+            NibbleArray sky = chunk.getSkyLightSection(sectionY);
+            chunk.getBlockLightSection(sectionY).fill(0);
+            if (bottom >= highest) {
+                sky.fill(MAX_LIGHT);
+            } else {
+                sky.fill(0);
+                if (top > lowest) {
+                    for (int i = 0; i < skyFrom.length; i++) {
+                        for (int y = Math.max(bottom, skyFrom[i]); y < top; y++) {
+                            sky.set((y & 15) << 8 | i, MAX_LIGHT);
+                        }
+                    }
+                }
+            }
+        }
+        chunk.setLightReady(true);
+
+        // Full skylight spreads sideways wherever a neighboring column is taller
+        for (int z = 0; z < Chunk.SIZE; z++) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                int from = skyFrom[z << 4 | x];
+                int to = from;
+                for (int face = ChunkSection.FACE_NORTH; face <= ChunkSection.FACE_EAST; face++) {
+                    int nx = x + DX[face], nz = z + DZ[face];
+                    if (nx >= 0 && nx < Chunk.SIZE && nz >= 0 && nz < Chunk.SIZE) {
+                        to = Math.max(to, skyFrom[nz << 4 | nx]);
+                    } else {
+                        Target neighbor = target((baseX + nx) >> 4, (baseZ + nz) >> 4);
+                        if (neighbor != null) {
+                            to = Math.max(to, neighbor.chunk.getHeight(Heightmap.Type.OPAQUE, nx, nz) + 1);
+                        }
+                    }
+                }
+                for (int y = from; y < Math.min(to, Chunk.HEIGHT); y++) {
+                    increase.add(PackedPos.pack(baseX + x, y, baseZ + z));
+                }
+            }
+        }
+        propagateIncrease(true);
+
+        // Emitters
+        for (int sectionY = 0; sectionY < Chunk.SECTION_COUNT; sectionY++) {
+            ChunkSection section = blocks.getSection(sectionY);
+            if (section == null || !hasEmitter(section, registry)) continue;
+            NibbleArray light = chunk.getBlockLightSection(sectionY);
+            for (int index = 0; index < ChunkSection.VOLUME; index++) {
+                int level = registry.getLightLevel(section.getBlockId(index));
+                if (level == 0) continue;
+                light.set(index, level);
+                increase.add(PackedPos.pack(baseX | (index & 15), sectionY << 4 | index >> 8, baseZ | (index >> 4 & 15)));
+            }
+        }
+        propagateIncrease(false);
+
+        pullFromNeighbors(chunk, skyFrom, true);
+        pullFromNeighbors(chunk, skyFrom, false);
+
+        // Every section may differ from the unlit defaults. Neighbor faces
+        // only need a refresh where the light is not plain open sky.
+        for (int sectionY = 0; sectionY < Chunk.SECTION_COUNT; sectionY++) {
+            boolean openSky = chunk.getSkyLightSection(sectionY).isUniform()
+                    && chunk.getSkyLight(0, sectionY << 4, 0) == MAX_LIGHT
+                    && chunk.getBlockLightSection(sectionY).isUniform()
+                    && chunk.getBlockLight(0, sectionY << 4, 0) == 0;
+            target.mark(sectionY, openSky ? 0 : HORIZONTAL_FACES);
+        }
+    }
+
+    /**
+     * Spread light into a newly lit chunk from the border voxels of its lit
+     * neighbors, wherever they are brighter than one step above ours
+     */
+    private void pullFromNeighbors(Chunk chunk, int[] skyFrom, boolean sky) {
+        int baseX = chunk.getChunkX() << 4, baseZ = chunk.getChunkZ() << 4;
+        for (int face = ChunkSection.FACE_NORTH; face <= ChunkSection.FACE_EAST; face++) {
+            Target neighbor = target(chunk.getChunkX() + DX[face], chunk.getChunkZ() + DZ[face]);
+            if (neighbor == null) continue;
+            for (int i = 0; i < Chunk.SIZE; i++) {
+                // Our border column and the neighbor column facing it
+                int x = DX[face] < 0 ? 0 : DX[face] > 0 ? 15 : i;
+                int z = DZ[face] < 0 ? 0 : DZ[face] > 0 ? 15 : i;
+                int nx = baseX + x + DX[face], nz = baseZ + z + DZ[face];
+                // Skylight above our column top is already full
+                int top = sky ? Math.min(skyFrom[z << 4 | x], Chunk.HEIGHT) : Chunk.HEIGHT;
+                for (int y = 0; y < top; y++) {
+                    int theirs = sky ? neighbor.chunk.getSkyLight(nx & 15, y, nz & 15)
+                            : neighbor.chunk.getBlockLight(nx & 15, y, nz & 15);
+                    int ours = sky ? chunk.getSkyLight(x, y, z) : chunk.getBlockLight(x, y, z);
+                    if (theirs > ours + 1) increase.add(PackedPos.pack(nx, y, nz));
+                }
+            }
+        }
+        propagateIncrease(sky);
+    }
+
+    private static boolean hasEmitter(ChunkSection section, BlockRegistry registry) {
+        for (int i = 0; i < section.getPaletteSize(); i++) {
+            if (registry.getLightLevel(section.getPaletteEntry(i)) > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Spread light outward from every queued position
+     */
+    private void propagateIncrease(boolean sky) {
+        BlockRegistry registry = Registries.BLOCKS;
+        while (!increase.isEmpty()) {
+            long position = increase.poll();
+            int x = PackedPos.x(position), z = PackedPos.z(position), y = PackedPos.y(position);
+            Target target = target(x >> 4, z >> 4);
+            if (target == null) continue;
+            int level = getLight(target, x, y, z, sky);
+            if (level <= 1) continue;
+
+            for (int face = 0; face < 6; face++) {
+                int ny = y + DY[face];
+                if (ny < 0 || ny >= Chunk.HEIGHT) continue;
+                int nx = x + DX[face], nz = z + DZ[face];
+                Target neighbor = target(nx >> 4, nz >> 4);
+                if (neighbor == null || registry.isOpaque(neighbor.getBlockId(nx, ny, nz))) continue;
+
+                int next = sky && level == MAX_LIGHT && face == ChunkSection.FACE_BOTTOM ? MAX_LIGHT : level - 1;
+                if (getLight(neighbor, nx, ny, nz, sky) < next) {
+                    setLight(neighbor, nx, ny, nz, sky, next);
+                    increase.add(PackedPos.pack(nx, ny, nz));
+                }
+            }
+        }
+    }
+
+    /**
+     * Clear light that came from the queued positions, queueing the edges
+     * of the cleared area (and any emitters inside it) to refill it
+     */
+    private void propagateDecrease(boolean sky) {
+        BlockRegistry registry = Registries.BLOCKS;
+        while (!decrease.isEmpty()) {
+            long entry = decrease.poll();
+            int level = PackedPos.level(entry);
+            int x = PackedPos.x(entry), z = PackedPos.z(entry), y = PackedPos.y(entry);
+
+            for (int face = 0; face < 6; face++) {
+                int ny = y + DY[face];
+                if (ny < 0 || ny >= Chunk.HEIGHT) continue;
+                int nx = x + DX[face], nz = z + DZ[face];
+                Target neighbor = target(nx >> 4, nz >> 4);
+                if (neighbor == null) continue;
+                int neighborLevel = getLight(neighbor, nx, ny, nz, sky);
+                if (neighborLevel == 0) continue;
+
+                boolean fromHere = neighborLevel < level
+                        || (sky && level == MAX_LIGHT && neighborLevel == MAX_LIGHT && face == ChunkSection.FACE_BOTTOM);
+                if (fromHere) {
+                    setLight(neighbor, nx, ny, nz, sky, 0);
+                    decrease.add(PackedPos.withLevel(PackedPos.pack(nx, ny, nz), neighborLevel));
+                    int emitted = sky ? 0 : registry.getLightLevel(neighbor.getBlockId(nx, ny, nz));
+                    if (emitted > 0) {
+                        setLight(neighbor, nx, ny, nz, false, emitted);
+                        increase.add(PackedPos.pack(nx, ny, nz));
+                    }
+                } else {
+                    increase.add(PackedPos.pack(nx, ny, nz)); // Lit from elsewhere, spread it back
+                }
+            }
+        }
+    }
+
+    /**
+     * A loaded, lit chunk to read and write light in, or null
+     */
+    private Target target(int chunkX, int chunkZ) {
+        Target target = lastTarget;
+        if (target != null && target.chunk.getChunkX() == chunkX && target.chunk.getChunkZ() == chunkZ) {
+            return target;
+        }
+        long key = ChunkMap.key(chunkX, chunkZ);
+        target = targets.get(key);
+        if (target == null) {
+            Chunk chunk = world.getChunks().get(key);
+            if (chunk == null || !chunk.isLightReady()) return null;
+            target = new Target(chunk);
+            targets.put(key, target);
+        }
+        lastTarget = target;
+        return target;
+    }
+
+    private static int getLight(Target target, int x, int y, int z, boolean sky) {
+        int index = (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+        Chunk chunk = target.chunk;
+        return sky ? chunk.getSkyLightSection(y >> 4).get(index) : chunk.getBlockLightSection(y >> 4).get(index);
+    }
+
+    private static void setLight(Target target, int x, int y, int z, boolean sky, int level) {
+        int index = (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+        Chunk chunk = target.chunk;
+        NibbleArray light = sky ? chunk.getSkyLightSection(y >> 4) : chunk.getBlockLightSection(y >> 4);
+        light.set(index, level);
+        target.mark(y >> 4, ChunkSection.borderFaces(x & 15, y & 15, z & 15));
+    }
+}
@@ -0,0 +1,113 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.util.Arrays;
+
+/**
+ * 4-bit values for every voxel of a 16x16x16 section (light levels 0-15),
+ * packed two per byte at the same flat index as block storage.
+ *
+ * A section whose values are all the same (open sky, solid rock) stores
+ * just that value; the 2 KB array is allocated on the first differing write,
+ * in {@link OffHeapArena} memory if the arena is enabled at that point.
+ *
+ * Written by one thread (the light worker) and read racily by others:
+ * readers may see a mix of old and new values while an update is running,
+ * never a torn or out-of-range one.
+ */
+public final class NibbleArray {
+    public static final int BYTES = ChunkSection.VOLUME / 2;
+
+    private volatile byte[] data;  // Null while every value equals fill, or off-heap
+    private volatile long address; // Off-heap values, 0 unless allocated there
+    private volatile int fill;
+    private OffHeapArena.Allocation offHeap; // Created on the first off-heap allocation
+
+    public NibbleArray(int fill) {
+        this.fill = fill & 15;
+    }
+
+    /**
+     * Get the value at a flat section index
+     */
+    public int get(int index) {
+        byte[] d = data;
+        if (d != null) return (d[index >> 1] >> ((index & 1) << 2)) & 15;
+        long a = address;
+        if (a == 0) return fill;
+        return (MemoryUtil.memGetByte(a + (index >> 1)) >> ((index & 1) << 2)) & 15;
+    }
+
+    /**
+     * Set the value at a flat section index
+     */
+    public void set(int index, int value) {
+        int i = index >> 1;
+        int shift = (index & 1) << 2;
+        byte[] d = data;
+        if (d == null) {
+            long a = address;
+            if (a == 0) {
+                if (value == fill) return;
+                byte packed = (byte) (fill | fill << 4);
+                if (OffHeapArena.isEnabled()) {
+                    a = allocateOffHeap(packed);
+                } else {
+                    d = new byte[BYTES];
+                    Arrays.fill(d, packed);
+                    data = d;
+                }
+            }
+            if (d == null) {
+                MemoryUtil.memPutByte(a + i, (byte) ((MemoryUtil.memGetByte(a + i) & ~(15 << shift)) | (value & 15) << shift));
+                return;
+            }
+        }
+        d[i] = (byte) ((d[i] & ~(15 << shift)) | (value & 15) << shift);
+    }
+
+    private long allocateOffHeap(byte packed) {
+        if (offHeap == null) {
+            offHeap = new OffHeapArena.Allocation();
+            OffHeapArena.register(this, offHeap);
+        }
+        long a = offHeap.reallocate(BYTES);
+        MemoryUtil.memSet(a, packed, BYTES);
+        address = a;
+        return a;
+    }
+
+    /**
+     * Set every value, dropping the array
+     */
+    public void fill(int value) {
+        fill = value & 15;
+        data = null;
+        if (address != 0) {
+            address = 0;
+            offHeap.free();
+        }
+    }
+
+    /**
+     * Return off-heap storage to the arena, keeping the uniform value
+     */
+    public void release() {
+        fill(fill);
+    }
+
+    /**
+     * True if every value is the same and no array is allocated
+     */
+    public boolean isUniform() {
+        return data == null && address == 0;
+    }
+
+    /**
+     * Approximate footprint in bytes, on or off the heap
+     */
+    public long getMemoryUsage() {
+        return isUniform() ? 24 : 24 + 16 + BYTES;
+    }
+}
@@ -0,0 +1,235 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One noise layer of a terrain generator, sampled per block column.
+ *
+ * With a cell size of 1 every column is evaluated exactly. With a larger
+ * cell size the noise is only evaluated on a lattice every cellSize blocks
+ * and bilinearly interpolated in between, which is plenty for noise that
+ * varies over tens or hundreds of blocks. Lattice values are kept in a small
+ * cache so neighboring chunks reuse the corners and edges they share.
+ *
+ * Safe to use from several generation threads at once. The cache is a
+ * direct-mapped array of immutable entries, so racing threads at worst
+ * evaluate a point twice; a value is a pure function of its coordinates,
+ * so results never depend on what was cached.
+ */
+public final class NoiseLayer {
+    public static final int DEFAULT_CACHE_SIZE = 4096; // Entries, power of two
+
+    /**
+     * Noise over block columns
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * Fill {@code out[j * xs.length + i]} with the noise at block
+         * column (xs[i], zs[j])
+         */
+        void fill(double[] out, int[] xs, int[] zs);
+    }
+
+    private static final class Sample {
+        final long key;
+        final double value;
+
+        Sample(long key, double value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final Source source;
+    private final int cellSize;
+    private final Sample[] cache; // Null if caching is off
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+
+    public NoiseLayer(Source source, int cellSize) {
+        this(source, cellSize, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cellSize lattice spacing in blocks, 1 for exact sampling
+     * @param cacheSize lattice values to keep (rounded up to a power of two), 0 for none
+     */
+    public NoiseLayer(Source source, int cellSize, int cacheSize) {
+        if (cellSize < 1) throw new IllegalArgumentException("Cell size must be at least 1: " + cellSize);
+        this.source = source;
+        this.cellSize = cellSize;
+        this.cache = cellSize > 1 && cacheSize > 0
+                ? new Sample[Integer.highestOneBit(Math.max(1, cacheSize - 1)) << 1]
+                : null;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Fill {@code out[j * w + i]} with the layer's value at block column
+     * (baseX + i, baseZ + j)
+     */
+    public void fill(double[] out, int baseX, int baseZ, int w, int h) {
+        if (cellSize == 1) {
+            source.fill(out, range(baseX, w), range(baseZ, h));
+            evaluations.add((long) w * h);
+            return;
+        }
+
+        // Lattice points covering the area, including the far edge
+        int cellX0 = Math.floorDiv(baseX, cellSize);
+        int cellZ0 = Math.floorDiv(baseZ, cellSize);
+        int latticeW = Math.floorDiv(baseX + w - 1, cellSize) - cellX0 + 2;
+        int latticeH = Math.floorDiv(baseZ + h - 1, cellSize) - cellZ0 + 2;
+        double[] lattice = sampleLattice(cellX0, cellZ0, latticeW, latticeH);
+
+        // Per column: lattice cell and position within it
+        int[] cellX = new int[w];
+        double[] fracX = new double[w];
+        for (int i = 0; i < w; i++) {
+            int x = baseX + i;
+            int cell = Math.floorDiv(x, cellSize);
+            cellX[i] = cell - cellX0;
+            fracX[i] = (double) (x - cell * cellSize) / cellSize;
+        }
+
+        for (int j = 0; j < h; j++) {
+            int z = baseZ + j;
+            int cell = Math.floorDiv(z, cellSize);
+            int row0 = (cell - cellZ0) * latticeW;
+            int row1 = row0 + latticeW;
+            double fz = (double) (z - cell * cellSize) / cellSize;
+            for (int i = 0; i < w; i++) {
+                int c = cellX[i];
+                double fx = fracX[i];
+                double north = lattice[row0 + c] + fx * (lattice[row0 + c + 1] - lattice[row0 + c]);
+                double south = lattice[row1 + c] + fx * (lattice[row1 + c + 1] - lattice[row1 + c]);
+                out[j * w + i] = north + fz * (south - north);
+            }
+        }
+    }
+
+    /**
+     * Fill {@code out[j * xs.length + i]} with the layer's value at block
+     * column (xs[i], zs[j]) for arbitrary, ascending columns. Exact on
+     * lattice columns, interpolated between them.
+     */
+    public void sample(double[] out, int[] xs, int[] zs) {
+        if (cellSize == 1) {
+            source.fill(out, xs, zs);
+            evaluations.add((long) xs.length * zs.length);
+            return;
+        }
+
+        // Lattice points covering the columns; the far edge only if something lies past the last one
+        int cellX0 = Math.floorDiv(xs[0], cellSize);
+        int cellZ0 = Math.floorDiv(zs[0], cellSize);
+        int latticeW = Math.floorDiv(xs[xs.length - 1] + cellSize - 1, cellSize) - cellX0 + 1;
+        int latticeH = Math.floorDiv(zs[zs.length - 1] + cellSize - 1, cellSize) - cellZ0 + 1;
+        double[] lattice = sampleLattice(cellX0, cellZ0, latticeW, latticeH);
+
+        for (int j = 0; j < zs.length; j++) {
+            int cellZ = Math.floorDiv(zs[j], cellSize);
+            int row = (cellZ - cellZ0) * latticeW;
+            int offsetZ = zs[j] - cellZ * cellSize;
+            for (int i = 0; i < xs.length; i++) {
+                int cellX = Math.floorDiv(xs[i], cellSize);
+                int c = row + cellX - cellX0;
+                int offsetX = xs[i] - cellX * cellSize;
+                double north = offsetX == 0 ? lattice[c]
+                        : lattice[c] + (double) offsetX / cellSize * (lattice[c + 1] - lattice[c]);
+                if (offsetZ == 0) {
+                    out[j * xs.length + i] = north;
+                    continue;
+                }
+                int s = c + latticeW;
+                double south = offsetX == 0 ? lattice[s]
+                        : lattice[s] + (double) offsetX / cellSize * (lattice[s + 1] - lattice[s]);
+                out[j * xs.length + i] = north + (double) offsetZ / cellSize * (south - north);
+            }
+        }
+    }
+
+    /**
+     * Lattice values for a w x h block of lattice points, from the cache where
+     * possible. Misses are evaluated in one batch covering their bounding box
+     * (usually all but the row and column shared with earlier neighbors).
+     */
+    private double[] sampleLattice(int cellX0, int cellZ0, int w, int h) {
+        double[] lattice = new double[w * h];
+        int minI = w, maxI = -1, minJ = h, maxJ = -1;
+        for (int j = 0; j < h; j++) {
+            for (int i = 0; i < w; i++) {
+                long key = ChunkMap.key(cellX0 + i, cellZ0 + j);
+                Sample sample = cache != null ? cache[slot(key)] : null;
+                if (sample != null && sample.key == key) {
+                    lattice[j * w + i] = sample.value;
+                } else {
+                    minI = Math.min(minI, i);
+                    maxI = Math.max(maxI, i);
+                    minJ = Math.min(minJ, j);
+                    maxJ = Math.max(maxJ, j);
+                }
+            }
+        }
+        if (maxI < 0) {
+            cacheHits.add(w * h);
+            return lattice;
+        }
+
+        int boxW = maxI - minI + 1;
+        int boxH = maxJ - minJ + 1;
+        int[] xs = new int[boxW];
+        int[] zs = new int[boxH];
+        for (int i = 0; i < boxW; i++) xs[i] = (cellX0 + minI + i) * cellSize;
+        for (int j = 0; j < boxH; j++) zs[j] = (cellZ0 + minJ + j) * cellSize;
+        double[] values = new double[boxW * boxH];
+        source.fill(values, xs, zs);
+        evaluations.add(values.length);
+        cacheHits.add(w * h - values.length);
+
+        for (int j = 0; j < boxH; j++) {
+            for (int i = 0; i < boxW; i++) {
+                int cx = cellX0 + minI + i, cz = cellZ0 + minJ + j;
+                double value = values[j * boxW + i];
+                lattice[(minJ + j) * w + minI + i] = value;
+                if (cache != null) {
+                    long key = ChunkMap.key(cx, cz);
+                    cache[slot(key)] = new Sample(key, value);
+                }
+            }
+        }
+        return lattice;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (cache.length - 1);
+    }
+
+    private static int[] range(int base, int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = base + i;
+        }
+        return values;
+    }
+
+    /**
+     * Noise values computed so far (lattice points, or columns for exact layers)
+     */
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Lattice values served from the cache so far
+     */
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+}
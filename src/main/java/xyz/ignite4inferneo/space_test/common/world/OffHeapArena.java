@@ -0,0 +1,182 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of native memory blocks for chunk storage kept off the Java heap.
+ *
+ * When enabled (with {@link #setEnabled} or {@code -Dspace_test.offHeapChunks=true}),
+ * newly created {@link PalettedContainer}s and {@link NibbleArray}s keep
+ * their packed data here, so loaded terrain adds nothing for the garbage
+ * collector to trace or copy. Storage created before the switch stays where
+ * it is.
+ *
+ * Blocks come in power-of-two size classes from 512 bytes to 8 KB, exactly
+ * the sizes section storage needs. Memory comes from LWJGL's allocator
+ * (jemalloc or rpmalloc when present). Released blocks go back to a free
+ * list rather than the system, so a racy reader still holding an old
+ * address reads stale values instead of faulting; {@link #trim()} hands free
+ * blocks back once no chunk storage is in use.
+ *
+ * Storage is released explicitly when its chunk unloads. Anything still
+ * referenced then (a section shared with a snapshot) or never released is
+ * returned by a {@link Cleaner} once it becomes unreachable.
+ */
+public final class OffHeapArena {
+    private static final int MIN_CLASS_SHIFT = 9; // 512 bytes
+    private static final int CLASS_COUNT = 5;     // Up to 8 KB
+
+    private static volatile boolean enabled = Boolean.getBoolean("space_test.offHeapChunks");
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final FreeList[] FREE_LISTS = new FreeList[CLASS_COUNT];
+    private static final AtomicLong reservedBytes = new AtomicLong();
+    private static final AtomicLong usedBytes = new AtomicLong();
+
+    static {
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            FREE_LISTS[i] = new FreeList();
+        }
+    }
+
+    private static final class FreeList {
+        long[] addresses = new long[64];
+        int count;
+    }
+
+    /**
+     * A native block owned by one storage object. The address may change as
+     * the owner grows and is 0 while nothing is allocated. Also the cleaning
+     * action, so it must not reference its owner.
+     */
+    static final class Allocation implements Runnable {
+        private long address;
+        private int bytes;
+
+        /**
+         * Replace the current block (if any) with a new one of the given size.
+         * The old block is released, contents are not copied.
+         * @return the new address
+         */
+        synchronized long reallocate(int newBytes) {
+            if (address != 0) OffHeapArena.release(address, bytes);
+            address = OffHeapArena.allocate(newBytes);
+            bytes = newBytes;
+            return address;
+        }
+
+        synchronized void free() {
+            if (address != 0) OffHeapArena.release(address, bytes);
+            address = 0;
+            bytes = 0;
+        }
+
+        @Override
+        public void run() {
+            free();
+        }
+    }
+
+    private OffHeapArena() {}
+
+    /**
+     * Should new chunk storage be allocated off-heap?
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        OffHeapArena.enabled = enabled;
+    }
+
+    /**
+     * Track an allocation so it is returned if its owner is collected
+     * without releasing it
+     */
+    static Cleaner.Cleanable register(Object owner, Allocation allocation) {
+        return CLEANER.register(owner, allocation);
+    }
+
+    private static int sizeClass(int bytes) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(bytes, 1 << MIN_CLASS_SHIFT) - 1);
+        int sizeClass = shift - MIN_CLASS_SHIFT;
+        if (sizeClass >= CLASS_COUNT) {
+            throw new IllegalArgumentException("Off-heap block too large: " + bytes + " bytes");
+        }
+        return sizeClass;
+    }
+
+    /**
+     * Take a block of at least the given size. Contents are undefined.
+     */
+    static long allocate(int bytes) {
+        int sizeClass = sizeClass(bytes);
+        FreeList list = FREE_LISTS[sizeClass];
+        long address = 0;
+        synchronized (list) {
+            if (list.count > 0) address = list.addresses[--list.count];
+        }
+        int classBytes = 1 << (sizeClass + MIN_CLASS_SHIFT);
+        if (address == 0) {
+            address = MemoryUtil.nmemAllocChecked(classBytes);
+            reservedBytes.addAndGet(classBytes);
+        }
+        usedBytes.addAndGet(classBytes);
+        return address;
+    }
+
+    /**
+     * Return a block to its free list
+     */
+    static void release(long address, int bytes) {
+        int sizeClass = sizeClass(bytes);
+        FreeList list = FREE_LISTS[sizeClass];
+        synchronized (list) {
+            if (list.count == list.addresses.length) {
+                list.addresses = Arrays.copyOf(list.addresses, list.count * 2);
+            }
+            list.addresses[list.count++] = address;
+        }
+        usedBytes.addAndGet(-(1L << (sizeClass + MIN_CLASS_SHIFT)));
+    }
+
+    /**
+     * Free every pooled block back to the system. Only safe when nothing can
+     * still read released storage, e.g. after the world is shut down.
+     * @return bytes freed
+     */
+    public static long trim() {
+        long freed = 0;
+        for (int sizeClass = 0; sizeClass < CLASS_COUNT; sizeClass++) {
+            FreeList list = FREE_LISTS[sizeClass];
+            synchronized (list) {
+                for (int i = 0; i < list.count; i++) {
+                    MemoryUtil.nmemFree(list.addresses[i]);
+                }
+                freed += (long) list.count << (sizeClass + MIN_CLASS_SHIFT);
+                list.count = 0;
+            }
+        }
+        reservedBytes.addAndGet(-freed);
+        return freed;
+    }
+
+    /**
+     * Native memory held by the arena, in use or pooled
+     */
+    public static long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    /**
+     * Native memory currently backing chunk storage
+     */
+    public static long getUsedBytes() {
+        return usedBytes.get();
+    }
+}
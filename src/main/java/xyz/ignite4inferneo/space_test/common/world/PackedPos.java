@@ -0,0 +1,48 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+/**
+ * Block positions packed into a long for queues and sorted batches:
+ * x (26 bits) << 38 | z (26 bits) << 12 | level (4 bits) << 8 | y (8 bits).
+ * The level field is free for a light level riding along with the
+ * position (see {@link #withLevel}); plain positions leave it zero.
+ * Sorting packed positions groups duplicates together.
+ */
+final class PackedPos {
+    private static final int Y_BITS = 8;
+    private static final int LEVEL_SHIFT = Y_BITS;
+
+    static {
+        if (Chunk.HEIGHT > 1 << Y_BITS) {
+            throw new IllegalStateException("[PackedPos] Chunk.HEIGHT " + Chunk.HEIGHT + " does not fit in " + Y_BITS + " bits of y");
+        }
+    }
+
+    private PackedPos() {}
+
+    static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFF);
+    }
+
+    static int x(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    static int y(long packed) {
+        return (int) (packed & 0xFF);
+    }
+
+    static int z(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    /**
+     * The position with a level (0-15) stored alongside it
+     */
+    static long withLevel(long packed, int level) {
+        return packed & ~(15L << LEVEL_SHIFT) | (long) (level & 15) << LEVEL_SHIFT;
+    }
+
+    static int level(long packed) {
+        return (int) (packed >> LEVEL_SHIFT & 15);
+    }
+}
@@ -0,0 +1,334 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.ref.Cleaner;
+
+/**
+ * Palette-compressed block storage.
+ * Keeps a small palette of the distinct numeric block IDs in the container
+ * and bit-packs each voxel's palette index into a long[].
+ *
+ * The index width starts at 1 bit and doubles (1, 2, 4, 8, 16) whenever the
+ * palette outgrows it, so a container of only stone and air costs 1 bit per
+ * voxel instead of a 4-8 byte reference. Widths are powers of two so entries
+ * never straddle a long and every access is a shift and a mask.
+ *
+ * The packed data lives on the heap, or in {@link OffHeapArena} memory if
+ * the arena was enabled when the container was created. Off-heap
+ * containers should be {@link #release released} once their chunk unloads.
+ *
+ * One thread writes at a time; others may read concurrently without
+ * locking. Each read takes the current storage (palette, packed data and
+ * entry width) from one volatile field, and a grow builds the wider
+ * storage completely before publishing it, so a racing read sees an old
+ * or new value but never faults.
+ */
+public class PalettedContainer {
+    private static final int MAX_BITS_LOG2 = 4; // 16 bits per entry
+    private static final long[] RELEASED = new long[ChunkSection.VOLUME >>> (6 - MAX_BITS_LOG2)]; // Reads as palette entry 0, never written
+
+    /**
+     * Palette and packed data with the entry width they are packed at.
+     * Replaced as a whole whenever the width or the palette array changes,
+     * so a reader on another thread never pairs a new width with an old
+     * array. Only the packed entries and palette slots past the size are
+     * written in place.
+     */
+    private static final class Storage {
+        final int[] palette;
+        final long[] data;     // Null when off-heap
+        final long address;    // Off-heap data when data is null
+        final int bitsLog2;    // log2 of bits per entry
+        final int valuesShift; // log2 of entries per long
+        final int valueMask;   // entries per long - 1
+        final int entryMask;   // (1 << bits) - 1
+
+        Storage(int[] palette, long[] data, long address, int bitsLog2) {
+            this.palette = palette;
+            this.data = data;
+            this.address = address;
+            this.bitsLog2 = bitsLog2;
+            this.valuesShift = 6 - bitsLog2;
+            this.valueMask = (1 << valuesShift) - 1;
+            this.entryMask = (1 << (1 << bitsLog2)) - 1;
+        }
+
+        Storage withPalette(int[] newPalette) {
+            return new Storage(newPalette, data, address, bitsLog2);
+        }
+
+        int longs(int size) {
+            return (size + valueMask) >>> valuesShift;
+        }
+
+        long getWord(int word) {
+            long[] d = data;
+            return d != null ? d[word] : MemoryUtil.memGetLong(address + ((long) word << 3));
+        }
+
+        void setEntry(int index, int paletteIndex) {
+            int longIndex = index >>> valuesShift;
+            int shift = (index & valueMask) << bitsLog2;
+            long[] d = data;
+            if (d != null) {
+                d[longIndex] = (d[longIndex] & ~((long) entryMask << shift)) | ((long) paletteIndex << shift);
+            } else {
+                long at = address + ((long) longIndex << 3);
+                MemoryUtil.memPutLong(at, (MemoryUtil.memGetLong(at) & ~((long) entryMask << shift)) | ((long) paletteIndex << shift));
+            }
+        }
+    }
+
+    private final int size;
+
+    private volatile Storage storage; // Read once into a local by every access
+    private int paletteSize;          // Written by the (single) writer only
+    private OffHeapArena.Allocation offHeap;
+    private Cleaner.Cleanable cleanable;
+
+    /**
+     * Create a container of the given size with every entry set to initialId
+     */
+    public PalettedContainer(int size, int initialId) {
+        this.size = size;
+        int[] palette = new int[2];
+        palette[0] = initialId;
+        this.paletteSize = 1;
+        Storage empty = allocate(palette, 0, OffHeapArena.isEnabled());
+        if (empty.data == null) MemoryUtil.memSet(empty.address, 0, dataBytes(empty));
+        this.storage = empty;
+    }
+
+    /**
+     * Restore a container from serialized palette and packed data
+     */
+    PalettedContainer(int size, int[] palette, int paletteSize, int bitsPerEntry, long[] data) {
+        this.size = size;
+        this.paletteSize = paletteSize;
+        Storage restored = new Storage(palette, data, 0, Integer.numberOfTrailingZeros(bitsPerEntry));
+        if (Integer.bitCount(bitsPerEntry) != 1 || restored.bitsLog2 > MAX_BITS_LOG2
+                || paletteSize < 1 || paletteSize > restored.entryMask + 1 || data.length != restored.longs(size)) {
+            throw new IllegalArgumentException("Corrupt palette data: " + bitsPerEntry + " bits, "
+                    + paletteSize + " entries, " + data.length + " longs");
+        }
+        if (OffHeapArena.isEnabled()) {
+            restored = allocate(palette, restored.bitsLog2, true);
+            for (int i = 0; i < data.length; i++) {
+                MemoryUtil.memPutLong(restored.address + ((long) i << 3), data[i]);
+            }
+        }
+        this.storage = restored;
+    }
+
+    /**
+     * Create an independent copy of another container
+     */
+    public PalettedContainer(PalettedContainer other) {
+        this.size = other.size;
+        Storage from = other.storage;
+        this.paletteSize = other.paletteSize;
+        int[] palette = from.palette.clone();
+        if (from.data != null) {
+            this.storage = new Storage(palette, from.data.clone(), 0, from.bitsLog2);
+        } else {
+            Storage copy = allocate(palette, from.bitsLog2, true);
+            MemoryUtil.memCopy(from.address, copy.address, dataBytes(copy));
+            this.storage = copy;
+        }
+    }
+
+    private int dataBytes(Storage s) {
+        return s.longs(size) << 3;
+    }
+
+    /**
+     * Allocate unpublished storage for an entry width. Any old off-heap
+     * block goes back to the arena, so read it before calling this.
+     * Contents are undefined off-heap and zero on the heap.
+     */
+    private Storage allocate(int[] palette, int bitsLog2, boolean offHeap) {
+        Storage layout = new Storage(palette, null, 0, bitsLog2);
+        if (!offHeap) {
+            return new Storage(palette, new long[layout.longs(size)], 0, bitsLog2);
+        }
+        if (this.offHeap == null) {
+            this.offHeap = new OffHeapArena.Allocation();
+            this.cleanable = OffHeapArena.register(this, this.offHeap);
+        }
+        return new Storage(palette, null, this.offHeap.reallocate(dataBytes(layout)), bitsLog2);
+    }
+
+    /**
+     * Get the block ID at a flat index
+     */
+    public int get(int index) {
+        Storage s = storage;
+        int paletteIndex = paletteIndex(s, index);
+        // Past the palette only when racing a grow that freed the old off-heap block
+        return paletteIndex < s.palette.length ? s.palette[paletteIndex] : s.palette[0];
+    }
+
+    /**
+     * Get the raw palette index at a flat index (for hot paths).
+     * Resolve it with {@link #getPaletteEntry(int)}.
+     */
+    public int getPaletteIndex(int index) {
+        return paletteIndex(storage, index);
+    }
+
+    private static int paletteIndex(Storage s, int index) {
+        int shift = (index & s.valueMask) << s.bitsLog2;
+        return (int) (s.getWord(index >>> s.valuesShift) >>> shift) & s.entryMask;
+    }
+
+    /**
+     * Copy every raw palette index, in flat index order, reading each
+     * packed word once
+     */
+    public void getPaletteIndices(int[] out) {
+        Storage s = storage;
+        int perWord = 1 << s.valuesShift;
+        int bits = 1 << s.bitsLog2;
+        for (int i = 0, word = 0; i < size; word++) {
+            long packed = s.getWord(word);
+            for (int k = 0; k < perWord && i < size; k++, i++) {
+                out[i] = (int) packed & s.entryMask;
+                packed >>>= bits;
+            }
+        }
+    }
+
+    /**
+     * Set the block ID at a flat index, growing the palette if needed.
+     * Does nothing once the container is released.
+     */
+    public void set(int index, int blockId) {
+        if (storage.data == RELEASED) return; // Late write to an unloaded chunk, see release()
+        int paletteIndex = indexOf(blockId);
+        if (paletteIndex < 0) {
+            paletteIndex = addToPalette(blockId);
+        }
+        storage.setEntry(index, paletteIndex);
+    }
+
+    private int indexOf(int blockId) {
+        // Palettes are tiny, a linear scan beats hashing
+        int[] palette = storage.palette;
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == blockId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int addToPalette(int blockId) {
+        if (paletteSize > storage.entryMask) {
+            grow();
+        }
+        Storage s = storage;
+        if (paletteSize == s.palette.length) {
+            int[] newPalette = new int[s.palette.length * 2];
+            System.arraycopy(s.palette, 0, newPalette, 0, paletteSize);
+            newPalette[paletteSize] = blockId;
+            storage = s.withPalette(newPalette);
+        } else {
+            s.palette[paletteSize] = blockId; // Past the size, no reader looks there yet
+        }
+        return paletteSize++;
+    }
+
+    /**
+     * Double the entry width and repack all entries into new storage,
+     * published in one step once filled
+     */
+    private void grow() {
+        Storage old = storage;
+        if (old.bitsLog2 >= MAX_BITS_LOG2) {
+            throw new IllegalStateException("Palette overflow: more than 65536 distinct blocks");
+        }
+
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = paletteIndex(old, i);
+        }
+
+        boolean offHeap = old.data == null;
+        Storage grown = allocate(old.palette, old.bitsLog2 + 1, offHeap);
+        if (offHeap) MemoryUtil.memSet(grown.address, 0, dataBytes(grown));
+        for (int i = 0; i < size; i++) {
+            grown.setEntry(i, values[i]);
+        }
+        storage = grown;
+    }
+
+    /**
+     * Get the block ID stored at a palette index
+     */
+    public int getPaletteEntry(int paletteIndex) {
+        int[] palette = storage.palette;
+        return paletteIndex < palette.length ? palette[paletteIndex] : palette[0];
+    }
+
+    /**
+     * Get the number of distinct entries in the palette
+     */
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    /**
+     * Get the current number of bits used per entry
+     */
+    public int getBitsPerEntry() {
+        return 1 << storage.bitsLog2;
+    }
+
+    /**
+     * Packed palette indices, for serialization (do not modify).
+     * Off-heap data is copied out.
+     */
+    long[] getRawData() {
+        Storage s = storage;
+        if (s.data != null) return s.data;
+        long[] copy = new long[s.longs(size)];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = s.getWord(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Is the packed data stored in {@link OffHeapArena} memory?
+     */
+    public boolean isOffHeap() {
+        return offHeap != null && storage.data == null;
+    }
+
+    /**
+     * Return off-heap storage to the arena. Reads afterwards see palette
+     * entry 0 (racing ones may see stale values), and writes are dropped,
+     * since a chunk's storage is only released once the chunk is unloaded
+     * and saved. Does nothing for heap storage.
+     */
+    public void release() {
+        Storage s = storage;
+        if (offHeap == null || s.data != null) return;
+        storage = new Storage(s.palette, RELEASED, 0, 0);
+        cleanable.clean();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Approximate footprint of this container in bytes
+     * (object headers, palette and packed data, on or off the heap)
+     */
+    public long getMemoryUsage() {
+        Storage s = storage;
+        return 48 + 16 + 40 + (long) s.palette.length * 4 + 16 + dataBytes(s);
+    }
+}
@@ -3,8 +3,15 @@ package xyz.ignite4inferneo.space_test.common.world;
 /**
  * Perlin noise generator for natural terrain generation.
  * Based on Ken Perlin's improved noise algorithm.
+ *
+ * Immutable once constructed, so one instance can be shared by every
+ * generation thread.
  */
 public class PerlinNoise {
+    // grad() as sign factors per hash & 3, for the branch-free batch loop
+    private static final double[] GRAD_X = {1, -1, -1, -1};
+    private static final double[] GRAD_Z = {1, 1, 1, -1};
+
     private final int[] permutation;
 
     public PerlinNoise(long seed) {
@@ -62,6 +69,35 @@ public class PerlinNoise {
         );
     }
 
+    /**
+     * Get 3D Perlin noise value at coordinates
+     * @return value between -1 and 1
+     */
+    public double noise(double x, double y, double z) {
+        int X = (int) Math.floor(x) & 255;
+        int Y = (int) Math.floor(y) & 255;
+        int Z = (int) Math.floor(z) & 255;
+
+        x -= Math.floor(x);
+        y -= Math.floor(y);
+        z -= Math.floor(z);
+
+        double u = fade(x);
+        double v = fade(y);
+        double w = fade(z);
+
+        // Hash coordinates of 8 cube corners
+        int A = permutation[X] + Y, AA = permutation[A] + Z, AB = permutation[A + 1] + Z;
+        int B = permutation[X + 1] + Y, BA = permutation[B] + Z, BB = permutation[B + 1] + Z;
+
+        return lerp(w,
+                lerp(v, lerp(u, grad(permutation[AA], x, y, z), grad(permutation[BA], x - 1, y, z)),
+                        lerp(u, grad(permutation[AB], x, y - 1, z), grad(permutation[BB], x - 1, y - 1, z))),
+                lerp(v, lerp(u, grad(permutation[AA + 1], x, y, z - 1), grad(permutation[BA + 1], x - 1, y, z - 1)),
+                        lerp(u, grad(permutation[AB + 1], x, y - 1, z - 1), grad(permutation[BB + 1], x - 1, y - 1, z - 1)))
+        );
+    }
+
     /**
      * Octave noise - multiple layers for more detail
      */
@@ -81,6 +117,25 @@ public class PerlinNoise {
         return total / maxValue;
     }
 
+    /**
+     * 3D octave noise
+     */
+    public double octaveNoise(double x, double y, double z, int octaves, double persistence) {
+        double total = 0;
+        double frequency = 1;
+        double amplitude = 1;
+        double maxValue = 0;
+
+        for (int i = 0; i < octaves; i++) {
+            total += noise(x * frequency, y * frequency, z * frequency) * amplitude;
+            maxValue += amplitude;
+            amplitude *= persistence;
+            frequency *= 2;
+        }
+
+        return total / maxValue;
+    }
+
     /**
      * Ridged noise - creates ridge-like features (good for mountains)
      */
@@ -103,6 +158,107 @@ public class PerlinNoise {
         return total / maxValue;
     }
 
+    /**
+     * Single-octave noise over a grid. {@code out[j * xs.length + i]} gets
+     * exactly {@code noise(xs[i], zs[j])}.
+     */
+    public void fillNoise(double[] out, double[] xs, double[] zs) {
+        java.util.Arrays.fill(out, 0, xs.length * zs.length, 0.0);
+        addOctave(out, xs, zs, 1, 1, false);
+    }
+
+    /**
+     * Octave noise over a grid. {@code out[j * xs.length + i]} gets exactly
+     * {@code octaveNoise(xs[i], zs[j], octaves, persistence)}, but the floor
+     * and fade work is done once per row and column instead of per sample.
+     */
+    public void fillOctaveNoise(double[] out, double[] xs, double[] zs, int octaves, double persistence) {
+        fillOctaves(out, xs, zs, octaves, persistence, false);
+    }
+
+    /**
+     * Ridged noise over a grid, exactly matching {@link #ridgedNoise} per sample
+     */
+    public void fillRidgedNoise(double[] out, double[] xs, double[] zs, int octaves, double persistence) {
+        fillOctaves(out, xs, zs, octaves, persistence, true);
+    }
+
+    private void fillOctaves(double[] out, double[] xs, double[] zs, int octaves, double persistence, boolean ridged) {
+        int count = xs.length * zs.length;
+        java.util.Arrays.fill(out, 0, count, 0.0);
+
+        double frequency = 1;
+        double amplitude = 1;
+        double maxValue = 0;
+        for (int i = 0; i < octaves; i++) {
+            addOctave(out, xs, zs, frequency, amplitude, ridged);
+            maxValue += amplitude;
+            amplitude *= persistence;
+            frequency *= 2;
+        }
+
+        for (int i = 0; i < count; i++) {
+            out[i] /= maxValue;
+        }
+    }
+
+    /**
+     * Add one octave to every sample. Same arithmetic as {@link #noise} and
+     * the octave loops, so results are bit-identical; the gradient sign
+     * factors are exact and the sums only swap operand order.
+     */
+    private void addOctave(double[] out, double[] xs, double[] zs, double frequency, double amplitude, boolean ridged) {
+        int w = xs.length;
+        int h = zs.length;
+
+        // Per column: lattice hashes, offsets to both cell edges and fade
+        int[] hashX0 = new int[w];
+        int[] hashX1 = new int[w];
+        double[] dx0 = new double[w];
+        double[] dx1 = new double[w];
+        double[] fadeX = new double[w];
+        for (int i = 0; i < w; i++) {
+            double x = xs[i] * frequency;
+            double floor = Math.floor(x);
+            int cell = (int) floor & 255;
+            hashX0[i] = permutation[cell];
+            hashX1[i] = permutation[cell + 1];
+            dx0[i] = x - floor;
+            dx1[i] = dx0[i] - 1;
+            fadeX[i] = fade(dx0[i]);
+        }
+
+        for (int j = 0; j < h; j++) {
+            double z = zs[j] * frequency;
+            double floor = Math.floor(z);
+            int cellZ = (int) floor & 255;
+            double dz0 = z - floor;
+            double dz1 = dz0 - 1;
+            double v = fade(dz0);
+
+            int row = j * w;
+            for (int i = 0; i < w; i++) {
+                int a = hashX0[i] + cellZ;
+                int b = hashX1[i] + cellZ;
+                int ga = permutation[a] & 3, gb = permutation[b] & 3;
+                int ga1 = permutation[a + 1] & 3, gb1 = permutation[b + 1] & 3;
+                double u = fadeX[i];
+                double n = lerp(v,
+                        lerp(u, GRAD_X[ga] * dx0[i] + GRAD_Z[ga] * dz0,
+                                GRAD_X[gb] * dx1[i] + GRAD_Z[gb] * dz0),
+                        lerp(u, GRAD_X[ga1] * dx0[i] + GRAD_Z[ga1] * dz1,
+                                GRAD_X[gb1] * dx1[i] + GRAD_Z[gb1] * dz1)
+                );
+                if (ridged) {
+                    n = Math.abs(n);
+                    n = 1.0 - n;
+                    n = n * n;
+                }
+                out[row + i] += n * amplitude;
+            }
+        }
+    }
+
     private double fade(double t) {
         // 6t^5 - 15t^4 + 10t^3
         return t * t * t * (t * (t * 6 - 15) + 10);
@@ -119,4 +275,12 @@ public class PerlinNoise {
         double v = h < 2 ? y : x;
         return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
     }
-}
\ No newline at end of file
+
+    private double grad(int hash, double x, double y, double z) {
+        // Low 4 bits of hash pick one of 12 edge directions of the cube
+        int h = hash & 15;
+        double u = h < 8 ? x : y;
+        double v = h < 4 ? y : h == 12 || h == 14 ? x : z;
+        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    }
+}
@@ -0,0 +1,164 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A chunk on its way through a {@link StagedWorldGenerator}.
+ *
+ * Holds the unpublished chunk, the last stage it completed, scratch space
+ * the generator can share between its stages, and the feature writes it
+ * buffered for each neighbor. Each proto-chunk advances under its own lock;
+ * a thread never holds two of these locks at once, so concurrent
+ * generation cannot deadlock.
+ */
+public final class ProtoChunk {
+
+    /**
+     * Generation stages, in order
+     */
+    public enum Stage {
+        EMPTY,
+        SHAPE,
+        SURFACE,
+        FEATURES,
+        FULL // Neighbor writes applied, chunk handed to the provider
+    }
+
+    /**
+     * Feature writes into one neighboring chunk, in the order they were made
+     */
+    static final class BufferedWrites {
+        long[] positions = new long[64]; // PackedPos, world coordinates
+        int[] blockIds = new int[64];
+        int count;
+
+        void add(long position, int blockId) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+                blockIds = Arrays.copyOf(blockIds, count * 2);
+            }
+            positions[count] = position;
+            blockIds[count++] = blockId;
+        }
+    }
+
+    private final int chunkX;
+    private final int chunkZ;
+    private Chunk chunk; // Null once handed to the provider or discarded
+    private boolean discarded;
+    private volatile Stage stage = Stage.EMPTY;
+    private int[] surfaceHeights;
+
+    // Written while decorating, read-only once the stage is FEATURES
+    private final Map<Long, BufferedWrites> outgoing = new HashMap<>();
+
+    ProtoChunk(int chunkX, int chunkZ) {
+        this(new Chunk(chunkX, chunkZ));
+    }
+
+    ProtoChunk(Chunk chunk) {
+        this.chunkX = chunk.getChunkX();
+        this.chunkZ = chunk.getChunkZ();
+        this.chunk = chunk;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    /**
+     * The chunk being generated. Not visible to the world yet, so the
+     * generator may write to it freely.
+     */
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    /**
+     * Scratch per-column heights (index z * 16 + x) for the generator to
+     * pass from one stage to the next, e.g. the terrain height found while
+     * shaping
+     */
+    public int[] getSurfaceHeights() {
+        if (surfaceHeights == null) surfaceHeights = new int[Chunk.SIZE * Chunk.SIZE];
+        return surfaceHeights;
+    }
+
+    /**
+     * Run stages on the calling thread until the given one is complete
+     * @return false if the proto-chunk was discarded; fetch a new one
+     */
+    synchronized boolean advance(Stage target, StagedWorldGenerator generator) {
+        if (discarded) return false;
+        while (stage.compareTo(target) < 0) {
+            switch (stage) {
+                case EMPTY -> generator.generateShape(this);
+                case SHAPE -> generator.generateSurface(this);
+                case SURFACE -> generator.decorate(new FeatureRegion(this));
+                default -> throw new IllegalStateException("Stage " + target + " is reached by finishing the chunk");
+            }
+            stage = Stage.values()[stage.ordinal() + 1];
+        }
+        return true;
+    }
+
+    /**
+     * Buffer a feature write that lands in another chunk
+     */
+    void bufferWrite(int chunkX, int chunkZ, long position, int blockId) {
+        outgoing.computeIfAbsent(ChunkMap.key(chunkX, chunkZ), k -> new BufferedWrites()).add(position, blockId);
+    }
+
+    /**
+     * Writes buffered for a neighbor, or null if none. Only valid once
+     * this proto-chunk has been decorated.
+     */
+    BufferedWrites getWritesFor(int chunkX, int chunkZ) {
+        return outgoing.get(ChunkMap.key(chunkX, chunkZ));
+    }
+
+    /**
+     * Apply the neighbors' buffered writes, in the order given, and hand
+     * over the chunk
+     * @return the chunk, or null if the proto-chunk was discarded
+     */
+    synchronized Chunk finish(ProtoChunk[] neighbors) {
+        if (discarded) return null;
+        for (ProtoChunk neighbor : neighbors) {
+            if (neighbor == null || neighbor == this) continue;
+            BufferedWrites writes = neighbor.getWritesFor(chunkX, chunkZ);
+            if (writes == null) continue;
+            for (int i = 0; i < writes.count; i++) {
+                long p = writes.positions[i];
+                chunk.setBlockId(PackedPos.x(p) & 15, PackedPos.y(p), PackedPos.z(p) & 15, writes.blockIds[i]);
+            }
+        }
+        Chunk finished = chunk;
+        finished.clearDirty();
+        chunk = null;
+        surfaceHeights = null;
+        stage = Stage.FULL;
+        return finished;
+    }
+
+    /**
+     * Free the chunk of a proto-chunk that will never be finished
+     */
+    synchronized void discard() {
+        discarded = true;
+        if (chunk != null) {
+            chunk.release();
+            chunk = null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs a {@link StagedWorldGenerator} for a {@link ChunkProvider}.
+ *
+ * To finish a chunk, each chunk of its 3x3 neighborhood is advanced to
+ * {@link ProtoChunk.Stage#FEATURES} on the calling thread, one proto-chunk
+ * at a time. Then the neighbors' buffered writes into the center are applied
+ * in a fixed order, so the result is the same whichever thread decorated
+ * which neighbor first. Neighbors are never finished or loaded to get there.
+ *
+ * Proto-chunks stay around while a chunk that is not loaded yet may still
+ * need their writes. They are dropped once every chunk they could write
+ * into is loaded, or when no loaded chunk is next to them any more. A
+ * dropped proto-chunk is simply regenerated if it is needed again.
+ */
+final class ProtoChunkPipeline {
+    private final StagedWorldGenerator generator;
+    private final ChunkMap loaded;
+    private final ConcurrentHashMap<Long, ProtoChunk> protos = new ConcurrentHashMap<>();
+
+    ProtoChunkPipeline(StagedWorldGenerator generator, ChunkMap loaded) {
+        this.generator = generator;
+        this.loaded = loaded;
+    }
+
+    /**
+     * Generate a chunk, decorating its neighborhood as needed
+     */
+    Chunk generate(int chunkX, int chunkZ) {
+        ProtoChunk[] neighborhood = new ProtoChunk[9]; // Row by row from (-1, -1)
+        while (true) {
+            for (int dz = -1; dz <= 1; dz++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    neighborhood[(dz + 1) * 3 + dx + 1] = decorate(chunkX + dx, chunkZ + dz, dx == 0 && dz == 0);
+                }
+            }
+            Chunk chunk = neighborhood[4].finish(neighborhood);
+            if (chunk == null) continue; // Discarded while we worked, start over
+
+            for (ProtoChunk proto : neighborhood) {
+                dropIfDone(proto, chunkX, chunkZ);
+            }
+            return chunk;
+        }
+    }
+
+    private ProtoChunk decorate(int chunkX, int chunkZ, boolean center) {
+        long key = ChunkMap.key(chunkX, chunkZ);
+        while (true) {
+            // A finished proto-chunk can serve as a neighbor, but the center
+            // is being generated again (it was unloaded) and needs a fresh one
+            ProtoChunk proto = protos.compute(key, (k, existing) ->
+                    existing == null || (center && existing.getStage() == ProtoChunk.Stage.FULL)
+                            ? new ProtoChunk(chunkX, chunkZ) : existing);
+            if (proto.advance(ProtoChunk.Stage.FEATURES, generator)) return proto;
+        }
+    }
+
+    /**
+     * Drop a proto-chunk if its own chunk is done and every chunk it writes
+     * into is loaded (or is the one just finished)
+     */
+    private void dropIfDone(ProtoChunk proto, int finishedX, int finishedZ) {
+        int chunkX = proto.getChunkX(), chunkZ = proto.getChunkZ();
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int x = chunkX + dx, z = chunkZ + dz;
+                if (x == finishedX && z == finishedZ) continue;
+                if (loaded.get(ChunkMap.key(x, z)) == null) return;
+            }
+        }
+        drop(proto);
+    }
+
+    /**
+     * Called after a chunk unloads: drop proto-chunks around it that no
+     * loaded chunk is next to any more
+     */
+    void onUnload(int chunkX, int chunkZ) {
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                ProtoChunk proto = protos.get(ChunkMap.key(chunkX + dx, chunkZ + dz));
+                if (proto != null && !anyLoadedAround(proto)) drop(proto);
+            }
+        }
+    }
+
+    private boolean anyLoadedAround(ProtoChunk proto) {
+        for (int dz = -1; dz <= 1; dz++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                if (loaded.get(ChunkMap.key(proto.getChunkX() + dx, proto.getChunkZ() + dz)) != null) return true;
+            }
+        }
+        return false;
+    }
+
+    private void drop(ProtoChunk proto) {
+        if (protos.remove(ChunkMap.key(proto.getChunkX(), proto.getChunkZ()), proto)) {
+            proto.discard();
+        }
+    }
+
+    /**
+     * Proto-chunks currently held
+     */
+    int getProtoChunkCount() {
+        return protos.size();
+    }
+}
@@ -0,0 +1,222 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import org.lwjgl.system.MemoryUtil;
+import org.lwjgl.util.lz4.LZ4;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * A file holding up to 32x32 chunks, stored in 4 KB sectors.
+ *
+ * The first sector is the allocation table: one int per chunk, holding the
+ * first sector (upper 24 bits) and sector count (lower 8 bits), or 0 if the
+ * chunk is absent. Each stored chunk starts with its compressed length,
+ * a compression type and the uncompressed length, followed by LZ4 data.
+ *
+ * Reads go through a read-only memory mapping of the file (remapped when the
+ * file grows), so LZ4 decompresses straight from the page cache. Writes reuse
+ * a chunk's sectors when the new data fits and otherwise take the first free
+ * run, appending at the end of the file if none is large enough.
+ */
+public class RegionFile implements Closeable {
+    public static final int SIZE = 32; // Chunks per side
+    public static final int SHIFT = 5;
+
+    private static final int SECTOR_BYTES = 4096;
+    private static final int HEADER_SECTORS = 1;
+    private static final int CHUNK_HEADER_BYTES = 9; // int compressed length, byte type, int raw length
+    private static final int MAX_CHUNK_SECTORS = 255;
+    private static final byte COMPRESSION_LZ4 = 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int[] offsets = new int[SIZE * SIZE];
+    private final BitSet usedSectors = new BitSet();
+
+    private MappedByteBuffer mapped;
+
+    public RegionFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        usedSectors.set(0, HEADER_SECTORS);
+
+        if (channel.size() < HEADER_SECTORS * SECTOR_BYTES) {
+            writeFully(ByteBuffer.allocate(HEADER_SECTORS * SECTOR_BYTES), 0);
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(offsets.length * 4);
+        readFully(header, 0);
+        header.flip();
+        long fileSectors = (channel.size() + SECTOR_BYTES - 1) / SECTOR_BYTES;
+        for (int i = 0; i < offsets.length; i++) {
+            int entry = header.getInt();
+            int sector = entry >>> 8;
+            int count = entry & 0xFF;
+            if (entry == 0) continue;
+            if (sector < HEADER_SECTORS || count == 0 || sector + count > fileSectors || overlapsUsed(sector, count)) {
+                System.err.println("[RegionFile] Dropping invalid entry " + i + " in " + path);
+                continue;
+            }
+            offsets[i] = entry;
+            usedSectors.set(sector, sector + count);
+        }
+    }
+
+    private static int index(int localX, int localZ) {
+        return (localZ << SHIFT) | localX;
+    }
+
+    private boolean overlapsUsed(int sector, int count) {
+        int next = usedSectors.nextSetBit(sector);
+        return next >= 0 && next < sector + count;
+    }
+
+    /**
+     * Is a chunk stored at region-local coordinates (0-31)?
+     */
+    public synchronized boolean hasChunk(int localX, int localZ) {
+        return offsets[index(localX, localZ)] != 0;
+    }
+
+    /**
+     * Read and decompress a chunk
+     * @return the uncompressed bytes, or null if the chunk is not stored
+     */
+    public synchronized byte[] read(int localX, int localZ) throws IOException {
+        int entry = offsets[index(localX, localZ)];
+        if (entry == 0) return null;
+
+        long start = (long) (entry >>> 8) * SECTOR_BYTES;
+        long end = start + (long) (entry & 0xFF) * SECTOR_BYTES;
+        ByteBuffer view = mappedView(start, Math.min(end, channel.size()));
+
+        int compressedLength = view.getInt();
+        byte type = view.get();
+        int rawLength = view.getInt();
+        if (type != COMPRESSION_LZ4 || compressedLength < 0 || compressedLength > view.remaining() || rawLength < 0) {
+            throw new IOException("Corrupt chunk (" + localX + ", " + localZ + ") in " + path);
+        }
+        view.limit(view.position() + compressedLength);
+
+        ByteBuffer raw = MemoryUtil.memAlloc(Math.max(1, rawLength));
+        try {
+            raw.limit(rawLength);
+            int decompressed = LZ4.LZ4_decompress_safe(view, raw);
+            if (decompressed != rawLength) {
+                throw new IOException("Corrupt chunk (" + localX + ", " + localZ + ") in " + path);
+            }
+            byte[] bytes = new byte[rawLength];
+            raw.get(bytes);
+            return bytes;
+        } finally {
+            MemoryUtil.memFree(raw);
+        }
+    }
+
+    private ByteBuffer mappedView(long start, long end) throws IOException {
+        if (mapped == null || mapped.capacity() < end) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer view = mapped.duplicate();
+        view.limit((int) end).position((int) start);
+        return view;
+    }
+
+    /**
+     * Compress and store a chunk, replacing any previous copy
+     */
+    public void write(int localX, int localZ, byte[] data) throws IOException {
+        // Compress outside the lock so workers saving different chunks overlap
+        ByteBuffer src = MemoryUtil.memAlloc(Math.max(1, data.length));
+        ByteBuffer dst = MemoryUtil.memAlloc(CHUNK_HEADER_BYTES + LZ4.LZ4_compressBound(data.length));
+        try {
+            src.put(data).flip();
+            dst.position(CHUNK_HEADER_BYTES);
+            int compressed = LZ4.LZ4_compress_default(src, dst);
+            if (compressed <= 0) {
+                throw new IOException("LZ4 compression failed for chunk (" + localX + ", " + localZ + ")");
+            }
+            dst.position(0);
+            dst.order(ByteOrder.BIG_ENDIAN).putInt(compressed).put(COMPRESSION_LZ4).putInt(data.length);
+            dst.position(0).limit(CHUNK_HEADER_BYTES + compressed);
+
+            int sectors = (dst.limit() + SECTOR_BYTES - 1) / SECTOR_BYTES;
+            if (sectors > MAX_CHUNK_SECTORS) {
+                throw new IOException("Chunk (" + localX + ", " + localZ + ") too large: " + dst.limit() + " bytes");
+            }
+            store(index(localX, localZ), dst, sectors);
+        } finally {
+            MemoryUtil.memFree(src);
+            MemoryUtil.memFree(dst);
+        }
+    }
+
+    private synchronized void store(int index, ByteBuffer payload, int sectors) throws IOException {
+        int old = offsets[index];
+        int oldSector = old >>> 8;
+        int oldCount = old & 0xFF;
+
+        int sector;
+        if (old != 0 && sectors <= oldCount) {
+            sector = oldSector;
+            usedSectors.clear(oldSector + sectors, oldSector + oldCount);
+        } else {
+            if (old != 0) usedSectors.clear(oldSector, oldSector + oldCount);
+            sector = findFreeRun(sectors);
+        }
+
+        writeFully(payload, (long) sector * SECTOR_BYTES);
+        usedSectors.set(sector, sector + sectors);
+
+        int entry = (sector << 8) | sectors;
+        offsets[index] = entry;
+        ByteBuffer header = ByteBuffer.allocate(4);
+        header.putInt(entry).flip();
+        writeFully(header, index * 4L);
+    }
+
+    private int findFreeRun(int sectors) {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (true) {
+            int nextUsed = usedSectors.nextSetBit(start);
+            if (nextUsed < 0 || nextUsed - start >= sectors) return start;
+            start = usedSectors.nextClearBit(nextUsed);
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new IOException("Unexpected end of " + path);
+            position += read;
+        }
+    }
+
+    /**
+     * Flush written data to disk
+     */
+    public synchronized void flush() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mapped = null;
+        channel.close();
+    }
+}
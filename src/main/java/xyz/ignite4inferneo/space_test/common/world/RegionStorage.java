@@ -0,0 +1,103 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saves and loads chunks through region files (r.X.Z.region, 32x32 chunks each)
+ * in a directory. Region files are opened on first use and kept open.
+ */
+public class RegionStorage implements Closeable {
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path directory;
+    private final ConcurrentHashMap<Long, RegionFile> regions = new ConcurrentHashMap<>();
+
+    public RegionStorage(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    private RegionFile region(int chunkX, int chunkZ) throws IOException {
+        int regionX = chunkX >> RegionFile.SHIFT;
+        int regionZ = chunkZ >> RegionFile.SHIFT;
+        try {
+            return regions.computeIfAbsent(ChunkMap.key(regionX, regionZ), key -> {
+                try {
+                    return new RegionFile(directory.resolve("r." + regionX + "." + regionZ + ".region"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Load a saved chunk
+     * @return the chunk, or null if it has never been saved
+     */
+    public Chunk load(int chunkX, int chunkZ) throws IOException {
+        byte[] data = region(chunkX, chunkZ).read(chunkX & (RegionFile.SIZE - 1), chunkZ & (RegionFile.SIZE - 1));
+        if (data == null) return null;
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported chunk format " + version + " at (" + chunkX + ", " + chunkZ + ")");
+        }
+        return Chunk.read(chunkX, chunkZ, in);
+    }
+
+    /**
+     * Has a chunk been saved?
+     */
+    public boolean contains(int chunkX, int chunkZ) throws IOException {
+        return region(chunkX, chunkZ).hasChunk(chunkX & (RegionFile.SIZE - 1), chunkZ & (RegionFile.SIZE - 1));
+    }
+
+    /**
+     * Save a chunk and mark it saved
+     */
+    public void save(Chunk chunk) throws IOException {
+        // Mark first: an edit made while we serialize flags the chunk again
+        chunk.markSaved();
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            try (ChunkSnapshot snapshot = chunk.snapshot()) {
+                snapshot.write(out);
+            }
+            out.flush();
+
+            int chunkX = chunk.getChunkX();
+            int chunkZ = chunk.getChunkZ();
+            region(chunkX, chunkZ).write(chunkX & (RegionFile.SIZE - 1), chunkZ & (RegionFile.SIZE - 1), bytes.toByteArray());
+        } catch (IOException | RuntimeException e) {
+            chunk.markUnsaved();
+            throw e;
+        }
+    }
+
+    /**
+     * Flush all open region files to disk
+     */
+    public void flush() throws IOException {
+        for (RegionFile region : regions.values()) {
+            region.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (RegionFile region : regions.values()) {
+            region.close();
+        }
+        regions.clear();
+    }
+}
@@ -0,0 +1,46 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+/**
+ * A world generator split into stages, so features can cross chunk borders.
+ *
+ * The chunk provider runs each chunk through the stages of
+ * {@link ProtoChunk.Stage} as a proto-chunk: shape, then surface, then
+ * features. Shape and surface only ever touch their own chunk. Features
+ * (trees and other decoration) write through a {@link FeatureRegion} that
+ * may reach one chunk into each neighbor; those writes are buffered and
+ * applied when the neighbor is finished, which happens once its whole 3x3
+ * neighborhood has been decorated. No stage ever waits for a neighbor to be
+ * fully generated, so chunks can be generated in parallel in any order.
+ *
+ * The same determinism rules as {@link IWorldGenerator} apply to every
+ * stage.
+ */
+public interface StagedWorldGenerator extends IWorldGenerator {
+
+    /**
+     * Lay down the terrain shape (solid blocks and air)
+     */
+    void generateShape(ProtoChunk chunk);
+
+    /**
+     * Replace the top of the shape with surface blocks
+     */
+    void generateSurface(ProtoChunk chunk);
+
+    /**
+     * Place features starting in the region's chunk
+     */
+    void decorate(FeatureRegion region);
+
+    /**
+     * Run every stage on a single chunk without its neighbors. Feature
+     * writes that fall outside the chunk are dropped; the chunk provider
+     * never uses this path.
+     */
+    @Override
+    default void generateChunk(World world, Chunk chunk) {
+        ProtoChunk proto = new ProtoChunk(chunk);
+        proto.advance(ProtoChunk.Stage.FEATURES, this);
+        chunk.clearDirty();
+    }
+}
@@ -1,27 +1,85 @@
 package xyz.ignite4inferneo.space_test.common.world;
 
-import xyz.ignite4inferneo.space_test.api.block.Block;
 import xyz.ignite4inferneo.space_test.api.event.EventBus;
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
 import xyz.ignite4inferneo.space_test.api.registry.Registries;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Represents the game world, managing chunks, blocks, and entities
+ * Represents the game world, managing chunks, blocks, and entities.
+ *
+ * Which chunks are loaded and ticking is decided by the
+ * {@link ChunkTicketManager}. Block reads outside loaded chunks return air
+ * and never generate terrain; only {@link #getChunk}, block writes and edit
+ * sessions load chunks on demand.
  */
 public class World {
     private static final int CHUNK_SIZE = 16;
     private static final int CHUNK_SHIFT = 4;
+    public static final int SPAWN_CHUNK_RADIUS = 3; // Kept loaded by the spawn ticket
 
-    private final Map<Long, Chunk> chunks = new HashMap<>();
     private final IWorldGenerator generator;
+    private final ChunkProvider chunkProvider;
     private final EntityManager entityManager;
+    private final ChunkLifecycleManager lifecycleManager;
+    private final LightEngine lightEngine;
+    private final BlockTicker blockTicker;
+    private final ChunkTicketManager ticketManager;
+    private final List<SectionListener> sectionListeners = new CopyOnWriteArrayList<>();
     private long tickCount = 0;
 
+    /**
+     * Notified when blocks in a 16x16x16 section change. A single edit or a
+     * whole {@link BlockEditSession} raises one notification per section.
+     */
+    @FunctionalInterface
+    public interface SectionListener {
+        /**
+         * @param borderFaces bit per section face a changed block touches, in
+         *                    {@link ChunkSection#FACE_BOTTOM} order; 0 if every
+         *                    change was inside the section
+         */
+        void onSectionChanged(int chunkX, int sectionY, int chunkZ, int borderFaces);
+    }
+
     public World(IWorldGenerator generator) {
+        this(generator, null);
+    }
+
+    /**
+     * Create a world whose chunks are loaded from and saved to region files
+     * @param storage region storage, or null to regenerate every session
+     */
+    public World(IWorldGenerator generator, RegionStorage storage) {
+        this(generator, storage, ChunkProvider.defaultThreadCount());
+    }
+
+    /**
+     * Create a world with a given number of chunk generation workers
+     */
+    public World(IWorldGenerator generator, RegionStorage storage, int generationThreads) {
         this.generator = generator;
+        this.chunkProvider = new ChunkProvider(this, generator, storage, generationThreads);
         this.entityManager = new EntityManager();
+        this.lifecycleManager = new ChunkLifecycleManager(this, chunkProvider);
+        this.lightEngine = new LightEngine(this);
+        chunkProvider.addLoadListener(lightEngine::queueChunk);
+        chunkProvider.addUnloadListener(lightEngine::queueRelease);
+        this.blockTicker = new BlockTicker(this);
+        this.ticketManager = new ChunkTicketManager(chunkProvider, lifecycleManager);
+
+        int[] spawn = generator.getSpawnPosition();
+        ticketManager.addTicket(ChunkTicketManager.TicketType.SPAWN, spawn[0] >> CHUNK_SHIFT, spawn[2] >> CHUNK_SHIFT,
+                ChunkTicketManager.levelForRadius(SPAWN_CHUNK_RADIUS));
     }
 
     /**
@@ -32,40 +90,152 @@ public class World {
     }
 
     /**
-     * Get or generate a chunk at the given chunk coordinates
+     * Read the seed stored in a save directory, creating a new random
+     * seed (and the level file) if the world does not exist yet
      */
-    public Chunk getChunk(int chunkX, int chunkZ) {
-        long key = chunkKey(chunkX, chunkZ);
-        Chunk chunk = chunks.get(key);
+    public static long loadOrCreateSeed(Path saveDir) throws IOException {
+        return loadOrCreateSeed(saveDir, ThreadLocalRandom.current().nextLong());
+    }
 
-        if (chunk == null) {
-            chunk = new Chunk(chunkX, chunkZ);
-            generator.generateChunk(this, chunk);
-            chunks.put(key, chunk);
+    /**
+     * Read the seed stored in a save directory, creating the level file
+     * with the given seed if the world does not exist yet
+     */
+    public static long loadOrCreateSeed(Path saveDir, long newSeed) throws IOException {
+        Path levelFile = saveDir.resolve("level.properties");
+        Properties level = new Properties();
+        if (Files.exists(levelFile)) {
+            try (Reader reader = Files.newBufferedReader(levelFile)) {
+                level.load(reader);
+            }
+            String seed = level.getProperty("seed");
+            if (seed != null) {
+                try {
+                    return Long.parseLong(seed.trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid seed in " + levelFile + ": " + seed);
+                }
+            }
+        }
+
+        level.setProperty("seed", Long.toString(newSeed));
+        Files.createDirectories(saveDir);
+        try (Writer writer = Files.newBufferedWriter(levelFile)) {
+            level.store(writer, "Space Test world");
         }
+        return newSeed;
+    }
 
-        return chunk;
+    /**
+     * Save all chunks with unsaved changes (no-op for unsaved worlds)
+     */
+    public void save() {
+        chunkProvider.saveAll();
+    }
+
+    /**
+     * Get the chunk lifecycle manager (memory budget, eviction)
+     */
+    public ChunkLifecycleManager getChunkLifecycleManager() {
+        return lifecycleManager;
+    }
+
+    /**
+     * Get the light engine (block light and skylight)
+     */
+    public LightEngine getLightEngine() {
+        return lightEngine;
+    }
+
+    /**
+     * Get the tickets that decide which chunks load and tick
+     */
+    public ChunkTicketManager getTicketManager() {
+        return ticketManager;
+    }
+
+    /**
+     * Do entities at this world position tick?
+     */
+    public boolean isEntityTicking(double x, double z) {
+        return ticketManager.isEntityTicking((int) Math.floor(x) >> CHUNK_SHIFT, (int) Math.floor(z) >> CHUNK_SHIFT);
+    }
+
+    /**
+     * Get the scheduled, random and neighbor tick engine
+     */
+    public BlockTicker getBlockTicker() {
+        return blockTicker;
+    }
+
+    /**
+     * Schedule Block#onUpdate for whatever block is at a position now
+     * @param delay ticks from now, at least 1
+     */
+    public void scheduleTick(int x, int y, int z, int delay) {
+        if (y < 0 || y >= 256) return;
+        blockTicker.scheduleTick(x, y, z, getBlockId(x, y, z), delay);
+    }
+
+    /**
+     * Get the chunk provider (async loading, priorities, cancellation)
+     */
+    public ChunkProvider getChunkProvider() {
+        return chunkProvider;
+    }
+
+    /**
+     * Get or generate a chunk at the given chunk coordinates.
+     * Safe to call from any thread; each chunk is generated exactly once.
+     * Generation runs on the calling thread, so render code should use
+     * {@link #getChunkIfLoaded} and request missing chunks instead.
+     */
+    public Chunk getChunk(int chunkX, int chunkZ) {
+        return chunkProvider.getChunk(chunkX, chunkZ);
+    }
+
+    /**
+     * Get a chunk only if it is already loaded (never blocks)
+     */
+    public Chunk getChunkIfLoaded(int chunkX, int chunkZ) {
+        return chunkProvider.getChunkIfLoaded(chunkX, chunkZ);
     }
 
     /**
      * Get block ID at world position
      */
     public String getBlock(int x, int y, int z) {
-        if (y < 0 || y >= 256) return "space_test:air";
+        return Registries.BLOCKS.getKey(getBlockId(x, y, z));
+    }
+
+    /**
+     * Set block at world position. Unregistered IDs are ignored.
+     */
+    public void setBlock(int x, int y, int z, String blockId) {
+        int id = Registries.BLOCKS.idOf(blockId);
+        if (id < 0) return;
+        setBlockId(x, y, z, id);
+    }
+
+    /**
+     * Get numeric block ID at world position; air if the chunk is not loaded
+     */
+    public int getBlockId(int x, int y, int z) {
+        if (y < 0 || y >= 256) return Chunk.AIR_ID;
 
         int chunkX = x >> CHUNK_SHIFT;
         int chunkZ = z >> CHUNK_SHIFT;
         int localX = x & 15;
         int localZ = z & 15;
 
-        Chunk chunk = getChunk(chunkX, chunkZ);
-        return chunk.getBlock(localX, y, localZ);
+        Chunk chunk = getChunkIfLoaded(chunkX, chunkZ);
+        return chunk == null ? Chunk.AIR_ID : chunk.getBlockId(localX, y, localZ);
     }
 
     /**
-     * Set block at world position
+     * Set numeric block ID at world position, loading the chunk if needed
      */
-    public void setBlock(int x, int y, int z, String blockId) {
+    public void setBlockId(int x, int y, int z, int blockId) {
         if (y < 0 || y >= 256) return;
 
         int chunkX = x >> CHUNK_SHIFT;
@@ -74,20 +244,45 @@ public class World {
         int localZ = z & 15;
 
         Chunk chunk = getChunk(chunkX, chunkZ);
-        String oldBlock = chunk.getBlock(localX, y, localZ);
+        int oldBlock = chunk.setBlockId(localX, y, localZ, blockId);
+        if (blockId == oldBlock) return;
 
-        chunk.setBlock(localX, y, localZ, blockId);
-        chunk.markDirty();
+        notifySectionChanged(chunkX, y >> 4, chunkZ, ChunkSection.borderFaces(localX, y & 15, localZ));
+        lightEngine.queueBlockChange(x, y, z, oldBlock, blockId);
+        if (Registries.BLOCKS.anyHasCallback(BlockRegistry.CALLBACK_NEIGHBOR)) {
+            blockTicker.queueNeighbors(x, y, z);
+        }
 
         // Notify block callbacks
-        Block block = Registries.BLOCKS.get(blockId);
-        if (block != null && !blockId.equals(oldBlock)) {
-            block.onPlace(this, x, y, z);
+        if (Registries.BLOCKS.hasCallback(blockId, BlockRegistry.CALLBACK_PLACE)) {
+            Registries.BLOCKS.byId(blockId).onPlace(this, x, y, z);
+        }
+        if (Registries.BLOCKS.hasCallback(oldBlock, BlockRegistry.CALLBACK_BREAK)) {
+            Registries.BLOCKS.byId(oldBlock).onBreak(this, x, y, z);
         }
+    }
+
+    /**
+     * Start a batch of block edits, applied together by {@link BlockEditSession#commit()}
+     */
+    public BlockEditSession beginEdit() {
+        return new BlockEditSession(this);
+    }
+
+    /**
+     * Listen for section changes (e.g. to remesh)
+     */
+    public void addSectionListener(SectionListener listener) {
+        sectionListeners.add(listener);
+    }
+
+    public void removeSectionListener(SectionListener listener) {
+        sectionListeners.remove(listener);
+    }
 
-        Block old = Registries.BLOCKS.get(oldBlock);
-        if (old != null && !blockId.equals(oldBlock)) {
-            old.onBreak(this, x, y, z);
+    void notifySectionChanged(int chunkX, int sectionY, int chunkZ, int borderFaces) {
+        for (SectionListener listener : sectionListeners) {
+            listener.onSectionChanged(chunkX, sectionY, chunkZ, borderFaces);
         }
     }
 
@@ -95,11 +290,86 @@ public class World {
      * Check if a block is solid at the given position
      */
     public boolean isSolid(int x, int y, int z) {
-        String blockId = getBlock(x, y, z);
-        if (blockId.equals("space_test:air")) return false;
+        return Registries.BLOCKS.isSolid(getBlockId(x, y, z));
+    }
+
+    /**
+     * Biome at a block column, as chosen by the generator
+     */
+    public Biome getBiome(int x, int z) {
+        return generator.getBiome(x, z);
+    }
+
+    /**
+     * Y of the highest solid block in a column, or -1 if there is none
+     */
+    public int getHeight(int x, int z) {
+        return getHeight(Heightmap.Type.SOLID, x, z);
+    }
+
+    /**
+     * Y of the highest block of a heightmap type in a column, or -1 if there
+     * is none or the chunk is not loaded
+     */
+    public int getHeight(Heightmap.Type type, int x, int z) {
+        Chunk chunk = getChunkIfLoaded(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT);
+        return chunk == null ? -1 : chunk.getHeight(type, x & 15, z & 15);
+    }
+
+    /**
+     * Block light (0-15) at a world position; unloaded chunks are dark
+     */
+    public int getBlockLight(int x, int y, int z) {
+        Chunk chunk = getChunkIfLoaded(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT);
+        return chunk == null ? 0 : chunk.getBlockLight(x & 15, y, z & 15);
+    }
+
+    /**
+     * Skylight (0-15) at a world position; unloaded chunks and the space
+     * above the world are open sky
+     */
+    public int getSkyLight(int x, int y, int z) {
+        Chunk chunk = getChunkIfLoaded(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT);
+        return chunk == null ? LightEngine.MAX_LIGHT : chunk.getSkyLight(x & 15, y, z & 15);
+    }
+
+    /**
+     * Get the spawn position for new players, standing on the ground
+     */
+    public int[] getSpawnPosition() {
+        int[] spawn = generator.getSpawnPosition();
+        int height = getChunk(spawn[0] >> CHUNK_SHIFT, spawn[2] >> CHUNK_SHIFT).getHeight(Heightmap.Type.SOLID, spawn[0] & 15, spawn[2] & 15);
+        return new int[]{spawn[0], height + 1, spawn[2]};
+    }
 
-        Block block = Registries.BLOCKS.get(blockId);
-        return block != null && block.isSolid();
+    /**
+     * Is the 16x16x16 section containing this position all air (or not loaded)?
+     */
+    public boolean isSectionEmpty(int x, int y, int z) {
+        if (y < 0 || y >= 256) return true;
+        Chunk chunk = getChunkIfLoaded(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT);
+        return chunk == null || chunk.isSectionEmpty(y);
+    }
+
+    /**
+     * Are all sections overlapping this block-space box (inclusive) empty?
+     * Lets collision code skip per-block checks in open air.
+     */
+    public boolean isAreaEmpty(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        minY = Math.max(0, minY);
+        maxY = Math.min(255, maxY);
+        if (minY > maxY) return true;
+
+        for (int cx = minX >> CHUNK_SHIFT; cx <= maxX >> CHUNK_SHIFT; cx++) {
+            for (int cz = minZ >> CHUNK_SHIFT; cz <= maxZ >> CHUNK_SHIFT; cz++) {
+                Chunk chunk = getChunkIfLoaded(cx, cz);
+                if (chunk == null) continue;
+                for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                    if (chunk.getSection(sy) != null) return false;
+                }
+            }
+        }
+        return true;
     }
 
     /**
@@ -107,35 +377,35 @@ public class World {
      */
     public void tick() {
         tickCount++;
+        ticketManager.tick(tickCount);
         EventBus.fire(new xyz.ignite4inferneo.space_test.api.event.TickEvent(tickCount));
 
         // Tick entities at 20 TPS (each tick is 0.05 seconds)
         entityManager.tick(0.05);
+
+        blockTicker.tick(tickCount);
+
+        lifecycleManager.tick(tickCount);
     }
 
     /**
      * Get all loaded chunks
      */
-    public Map<Long, Chunk> getChunks() {
-        return chunks;
+    public ChunkMap getChunks() {
+        return chunkProvider.getChunks();
     }
 
     /**
-     * Unload chunks far from a position
+     * Save and unload chunks far from a position
      */
     public void unloadDistantChunks(int centerChunkX, int centerChunkZ, int maxDistance) {
-        chunks.entrySet().removeIf(entry -> {
-            Chunk chunk = entry.getValue();
+        chunkProvider.unload(chunk -> {
             int dx = chunk.getChunkX() - centerChunkX;
             int dz = chunk.getChunkZ() - centerChunkZ;
             return Math.abs(dx) > maxDistance || Math.abs(dz) > maxDistance;
         });
     }
 
-    private static long chunkKey(int x, int z) {
-        return ((long)x << 32) | (z & 0xFFFFFFFFL);
-    }
-
     public long getTickCount() {
         return tickCount;
     }
@@ -0,0 +1,186 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Generates a square of chunks into region storage without a window or a
+ * live world, so players never wait on terrain inside it.
+ *
+ * Chunks are generated ring by ring, spiralling out from the center, on a
+ * {@link ChunkProvider} with its own worker pool; the next ring is queued
+ * while the current one finishes so the workers never run dry. Each chunk
+ * is saved as soon as its ring is done, and a ring is unloaded once the
+ * ring outside it is done too, so only about three rings are in memory.
+ *
+ * Chunks already in storage are skipped, so an interrupted run picks up
+ * where it stopped. Generators are deterministic per chunk (see
+ * {@link IWorldGenerator}), so chunks next to skipped ones still get the
+ * features that cross from them. Generators are run without a
+ * {@link World}.
+ */
+public final class WorldPregenerator {
+    private static final long PROGRESS_INTERVAL_NS = TimeUnit.SECONDS.toNanos(1);
+    private static final int FLUSH_EVERY_RINGS = 8;
+
+    private final ChunkProvider provider;
+    private final RegionStorage storage;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean stopped;
+
+    private long generated;
+    private long skipped;
+
+    /**
+     * @param storage where chunks go; closed when the run ends
+     * @param threadCount generation workers
+     */
+    public WorldPregenerator(IWorldGenerator generator, RegionStorage storage, int threadCount) {
+        this.provider = new ChunkProvider(null, generator, storage, threadCount);
+        this.storage = storage;
+    }
+
+    /**
+     * Generate every chunk within radius chunks (a square) of a center chunk,
+     * printing progress. Returns when done or after {@link #stop()}; either
+     * way every generated chunk is saved and the storage is closed.
+     * @return true if the whole area is now in storage
+     */
+    public boolean run(int centerX, int centerZ, int radius) {
+        long total = (long) (radius * 2 + 1) * (radius * 2 + 1);
+        System.out.println("[WorldPregenerator] Generating " + total + " chunks around (" + centerX + ", " + centerZ
+                + ") with " + provider.getThreadCount() + " threads");
+        provider.setCenter(centerX, centerZ);
+
+        long start = System.nanoTime();
+        long lastReport = start;
+        boolean complete = false;
+        try {
+            List<Chunk> previous = List.of();
+            List<CompletableFuture<Chunk>> current = request(centerX, centerZ, 0);
+            for (int r = 0; r <= radius && !stopped; r++) {
+                List<CompletableFuture<Chunk>> next = r < radius ? request(centerX, centerZ, r + 1) : List.of();
+
+                List<Chunk> ring = await(current);
+                if (ring == null) break; // Stopped or failed
+                for (Chunk chunk : ring) {
+                    provider.save(chunk);
+                }
+                // The previous ring's neighbors are all generated now
+                for (Chunk chunk : previous) {
+                    provider.unload(chunk);
+                }
+                previous = ring;
+                current = next;
+                if (r % FLUSH_EVERY_RINGS == 0) flush();
+
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NS || r == radius) {
+                    report(r, radius, total, now - start);
+                    lastReport = now;
+                }
+                if (r == radius) complete = true;
+            }
+        } finally {
+            provider.shutdown(); // Saves what is still loaded and closes the storage
+            System.out.println("[WorldPregenerator] " + (complete ? "Done" : "Stopped") + ": " + generated
+                    + " generated, " + skipped + " already saved, " + provider.getSavedCount() + " saves in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            finished.countDown();
+        }
+        return complete;
+    }
+
+    /**
+     * Stop the run, keeping what is generated so far, and wait (briefly)
+     * for it to save and close, e.g. from a shutdown hook
+     */
+    public void stop() {
+        stopped = true;
+        try {
+            finished.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queue the chunks of ring r that are not saved yet, walking its
+     * perimeter from the east side round, so the rings form a spiral
+     */
+    private List<CompletableFuture<Chunk>> request(int centerX, int centerZ, int r) {
+        List<CompletableFuture<Chunk>> futures = new ArrayList<>(Math.max(1, 8 * r));
+        if (r == 0) {
+            addIfMissing(futures, centerX, centerZ);
+            return futures;
+        }
+        for (int dz = -r + 1; dz <= r; dz++) addIfMissing(futures, centerX + r, centerZ + dz);   // East
+        for (int dx = r - 1; dx >= -r; dx--) addIfMissing(futures, centerX + dx, centerZ + r);   // South
+        for (int dz = r - 1; dz >= -r; dz--) addIfMissing(futures, centerX - r, centerZ + dz);   // West
+        for (int dx = -r + 1; dx <= r; dx++) addIfMissing(futures, centerX + dx, centerZ - r);   // North
+        return futures;
+    }
+
+    private void addIfMissing(List<CompletableFuture<Chunk>> futures, int chunkX, int chunkZ) {
+        try {
+            if (storage.contains(chunkX, chunkZ)) {
+                skipped++;
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println("[WorldPregenerator] Could not check chunk (" + chunkX + ", " + chunkZ + "), generating it: " + e.getMessage());
+        }
+        futures.add(provider.requestChunk(chunkX, chunkZ, true));
+    }
+
+    /**
+     * Wait for a ring, checking for stop requests
+     * @return its chunks, or null if stopped or a chunk failed
+     */
+    private List<Chunk> await(List<CompletableFuture<Chunk>> futures) {
+        List<Chunk> chunks = new ArrayList<>(futures.size());
+        for (CompletableFuture<Chunk> future : futures) {
+            while (true) {
+                if (stopped) return null;
+                try {
+                    chunks.add(future.get(100, TimeUnit.MILLISECONDS));
+                    generated++;
+                    break;
+                } catch (TimeoutException e) {
+                    // Check for stop and keep waiting
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                } catch (ExecutionException | CancellationException e) {
+                    System.err.println("[WorldPregenerator] Chunk failed, stopping: " + e.getMessage());
+                    return null;
+                }
+            }
+        }
+        return chunks;
+    }
+
+    private void flush() {
+        try {
+            storage.flush();
+        } catch (IOException e) {
+            System.err.println("[WorldPregenerator] Failed to flush region files: " + e.getMessage());
+        }
+    }
+
+    private void report(int ring, int radius, long total, long elapsedNs) {
+        long done = generated + skipped;
+        double seconds = elapsedNs / 1e9;
+        double rate = seconds > 0 ? generated / seconds : 0;
+        long etaSeconds = rate > 0 ? (long) ((total - done) / rate) : 0;
+        System.out.printf("[WorldPregenerator] Ring %d/%d: %d/%d chunks (%.1f%%), %.1f chunks/s, ETA %d:%02d%n",
+                ring, radius, done, total, 100.0 * done / total, rate, etaSeconds / 60, etaSeconds % 60);
+    }
+}
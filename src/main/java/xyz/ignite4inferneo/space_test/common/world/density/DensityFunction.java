@@ -0,0 +1,443 @@
+package xyz.ignite4inferneo.space_test.common.world.density;
+
+import xyz.ignite4inferneo.space_test.common.world.NoiseLayer;
+import xyz.ignite4inferneo.space_test.common.world.PerlinNoise;
+
+import java.util.Arrays;
+
+/**
+ * A node in a terrain density graph. Positive density is solid, zero or
+ * below is air.
+ *
+ * Graphs are built from the static factories below and compiled once with
+ * {@link DensityProgram#compile}; the compiled program evaluates a whole
+ * chunk's cell grid per call. {@link #evaluate} walks the graph for a
+ * single block and is only meant for tests and tools.
+ *
+ * Nodes are immutable and may be shared: a node used by several parents is
+ * evaluated once per point. Nodes that do not depend on y are evaluated once
+ * per column, and {@link #cache2d} additionally keeps their values across
+ * chunks.
+ */
+public abstract class DensityFunction {
+    private final DensityFunction[] inputs;
+    private final boolean dependsOnY;
+
+    DensityFunction(DensityFunction... inputs) {
+        this(false, inputs);
+    }
+
+    DensityFunction(boolean usesY, DensityFunction... inputs) {
+        this.inputs = inputs;
+        boolean y = usesY;
+        for (DensityFunction input : inputs) {
+            y |= input.dependsOnY;
+        }
+        this.dependsOnY = y;
+    }
+
+    /**
+     * Density at a block, computed directly from the graph
+     */
+    public abstract double evaluate(int x, int y, int z);
+
+    /**
+     * Fill {@code out[0..count)} for every point (or column, for nodes that do
+     * not depend on y) of the grid, from input values in the same layout
+     */
+    abstract void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count);
+
+    final DensityFunction[] inputs() {
+        return inputs;
+    }
+
+    /**
+     * Does the value change with y? If not, it is evaluated per column.
+     */
+    public final boolean dependsOnY() {
+        return dependsOnY;
+    }
+
+    // ---- Factories ----
+
+    public static DensityFunction constant(double value) {
+        return new Constant(value);
+    }
+
+    /**
+     * The block's y coordinate
+     */
+    public static DensityFunction y() {
+        return new BlockY();
+    }
+
+    /**
+     * 2D octave noise at (x * scale, z * scale)
+     */
+    public static DensityFunction noise(PerlinNoise noise, double scale, int octaves, double persistence) {
+        return new Noise2D(noise, scale, octaves, persistence, false);
+    }
+
+    /**
+     * 2D ridged noise at (x * scale, z * scale)
+     */
+    public static DensityFunction ridgedNoise(PerlinNoise noise, double scale, int octaves, double persistence) {
+        return new Noise2D(noise, scale, octaves, persistence, true);
+    }
+
+    /**
+     * 3D octave noise at (x * xzScale, y * yScale, z * xzScale)
+     */
+    public static DensityFunction noise3d(PerlinNoise noise, double xzScale, double yScale, int octaves, double persistence) {
+        return new Noise3D(noise, xzScale, yScale, octaves, persistence);
+    }
+
+    /**
+     * Values of a 2D noise layer (coarse layers are interpolated)
+     */
+    public static DensityFunction layer(NoiseLayer layer) {
+        return new Layer(layer);
+    }
+
+    /**
+     * Evaluate a y-independent function on a lattice every cellSize blocks,
+     * interpolating between, and keep the values in a cache shared by
+     * neighboring chunks. Only worth it for low-frequency inputs; leave
+     * high-frequency ones outside so they stay exact.
+     * @param cellSize lattice spacing in blocks, 1 for exact values
+     */
+    public static DensityFunction cache2d(DensityFunction input, int cellSize) {
+        if (input.dependsOnY()) throw new IllegalArgumentException("cache2d input must not depend on y");
+        DensityProgram program = DensityProgram.compile(input);
+        return new Layer(new NoiseLayer(program::evaluateColumns, cellSize));
+    }
+
+    public static DensityFunction add(DensityFunction a, DensityFunction b) {
+        return new Binary(Binary.ADD, a, b);
+    }
+
+    public static DensityFunction add(DensityFunction a, double b) {
+        return add(a, constant(b));
+    }
+
+    public static DensityFunction mul(DensityFunction a, DensityFunction b) {
+        return new Binary(Binary.MUL, a, b);
+    }
+
+    public static DensityFunction mul(DensityFunction a, double b) {
+        return mul(a, constant(b));
+    }
+
+    public static DensityFunction min(DensityFunction a, DensityFunction b) {
+        return new Binary(Binary.MIN, a, b);
+    }
+
+    public static DensityFunction max(DensityFunction a, DensityFunction b) {
+        return new Binary(Binary.MAX, a, b);
+    }
+
+    public static DensityFunction abs(DensityFunction input) {
+        return new Unary(Unary.ABS, input);
+    }
+
+    public static DensityFunction square(DensityFunction input) {
+        return new Unary(Unary.SQUARE, input);
+    }
+
+    public static DensityFunction cube(DensityFunction input) {
+        return new Unary(Unary.CUBE, input);
+    }
+
+    /**
+     * Square root of the value, 0 for negative values
+     */
+    public static DensityFunction sqrt(DensityFunction input) {
+        return new Unary(Unary.SQRT, input);
+    }
+
+    public static DensityFunction clamp(DensityFunction input, double min, double max) {
+        return new Clamp(input, min, max);
+    }
+
+    /**
+     * Smooth curve through (locations[i], values[i]) using cubic Hermite
+     * segments with Catmull-Rom tangents; flat outside the first and last
+     * location
+     * @param locations strictly increasing
+     */
+    public static DensityFunction spline(DensityFunction input, double[] locations, double[] values) {
+        if (locations.length < 2 || locations.length != values.length) {
+            throw new IllegalArgumentException("Spline needs at least two points and one value per location");
+        }
+        for (int i = 1; i < locations.length; i++) {
+            if (locations[i] <= locations[i - 1]) throw new IllegalArgumentException("Spline locations must increase");
+        }
+        return new Spline(input, locations.clone(), values.clone());
+    }
+
+    // ---- Nodes ----
+
+    static final class Constant extends DensityFunction {
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            return value;
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            Arrays.fill(out, 0, count, value);
+        }
+    }
+
+    static final class BlockY extends DensityFunction {
+        BlockY() {
+            super(true);
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            return y;
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            for (int p = 0; p < count; p++) {
+                out[p] = grid.pointY(p);
+            }
+        }
+    }
+
+    static final class Noise2D extends DensityFunction {
+        final PerlinNoise noise;
+        final double scale;
+        final int octaves;
+        final double persistence;
+        final boolean ridged;
+
+        Noise2D(PerlinNoise noise, double scale, int octaves, double persistence, boolean ridged) {
+            this.noise = noise;
+            this.scale = scale;
+            this.octaves = octaves;
+            this.persistence = persistence;
+            this.ridged = ridged;
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            return ridged ? noise.ridgedNoise(x * scale, z * scale, octaves, persistence)
+                    : noise.octaveNoise(x * scale, z * scale, octaves, persistence);
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            double[] xs = scaled(grid.xs, scale);
+            double[] zs = scaled(grid.zs, scale);
+            if (ridged) {
+                noise.fillRidgedNoise(out, xs, zs, octaves, persistence);
+            } else {
+                noise.fillOctaveNoise(out, xs, zs, octaves, persistence);
+            }
+        }
+
+        private static double[] scaled(int[] blocks, double scale) {
+            double[] coords = new double[blocks.length];
+            for (int i = 0; i < blocks.length; i++) {
+                coords[i] = blocks[i] * scale;
+            }
+            return coords;
+        }
+    }
+
+    static final class Noise3D extends DensityFunction {
+        final PerlinNoise noise;
+        final double xzScale;
+        final double yScale;
+        final int octaves;
+        final double persistence;
+
+        Noise3D(PerlinNoise noise, double xzScale, double yScale, int octaves, double persistence) {
+            super(true);
+            this.noise = noise;
+            this.xzScale = xzScale;
+            this.yScale = yScale;
+            this.octaves = octaves;
+            this.persistence = persistence;
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            return noise.octaveNoise(x * xzScale, y * yScale, z * xzScale, octaves, persistence);
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            for (int p = 0; p < count; p++) {
+                out[p] = noise.octaveNoise(grid.pointX(p) * xzScale, grid.pointY(p) * yScale,
+                        grid.pointZ(p) * xzScale, octaves, persistence);
+            }
+        }
+    }
+
+    static final class Layer extends DensityFunction {
+        final NoiseLayer layer;
+
+        Layer(NoiseLayer layer) {
+            this.layer = layer;
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            double[] out = new double[1];
+            layer.sample(out, new int[]{x}, new int[]{z});
+            return out[0];
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            layer.sample(out, grid.xs, grid.zs);
+        }
+    }
+
+    static final class Binary extends DensityFunction {
+        static final int ADD = 0, MUL = 1, MIN = 2, MAX = 3;
+
+        final int op;
+
+        Binary(int op, DensityFunction a, DensityFunction b) {
+            super(a, b);
+            this.op = op;
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            return apply(inputs()[0].evaluate(x, y, z), inputs()[1].evaluate(x, y, z));
+        }
+
+        private double apply(double a, double b) {
+            return switch (op) {
+                case ADD -> a + b;
+                case MUL -> a * b;
+                case MIN -> Math.min(a, b);
+                default -> Math.max(a, b);
+            };
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            double[] a = in[0], b = in[1];
+            switch (op) {
+                case ADD -> { for (int p = 0; p < count; p++) out[p] = a[p] + b[p]; }
+                case MUL -> { for (int p = 0; p < count; p++) out[p] = a[p] * b[p]; }
+                case MIN -> { for (int p = 0; p < count; p++) out[p] = Math.min(a[p], b[p]); }
+                default -> { for (int p = 0; p < count; p++) out[p] = Math.max(a[p], b[p]); }
+            }
+        }
+    }
+
+    static final class Unary extends DensityFunction {
+        static final int ABS = 0, SQUARE = 1, CUBE = 2, SQRT = 3;
+
+        final int op;
+
+        Unary(int op, DensityFunction input) {
+            super(input);
+            this.op = op;
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            return apply(inputs()[0].evaluate(x, y, z));
+        }
+
+        private double apply(double v) {
+            return switch (op) {
+                case ABS -> Math.abs(v);
+                case SQUARE -> v * v;
+                case CUBE -> v * v * v;
+                default -> v > 0 ? Math.sqrt(v) : 0;
+            };
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            double[] v = in[0];
+            for (int p = 0; p < count; p++) {
+                out[p] = apply(v[p]);
+            }
+        }
+    }
+
+    static final class Clamp extends DensityFunction {
+        final double min;
+        final double max;
+
+        Clamp(DensityFunction input, double min, double max) {
+            super(input);
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            return Math.max(min, Math.min(max, inputs()[0].evaluate(x, y, z)));
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            double[] v = in[0];
+            for (int p = 0; p < count; p++) {
+                out[p] = Math.max(min, Math.min(max, v[p]));
+            }
+        }
+    }
+
+    static final class Spline extends DensityFunction {
+        final double[] locations;
+        final double[] values;
+        final double[] tangents; // Catmull-Rom, per location
+
+        Spline(DensityFunction input, double[] locations, double[] values) {
+            super(input);
+            this.locations = locations;
+            this.values = values;
+            int n = locations.length;
+            this.tangents = new double[n];
+            for (int i = 0; i < n; i++) {
+                int lo = Math.max(0, i - 1), hi = Math.min(n - 1, i + 1);
+                tangents[i] = (values[hi] - values[lo]) / (locations[hi] - locations[lo]);
+            }
+        }
+
+        @Override
+        public double evaluate(int x, int y, int z) {
+            return apply(inputs()[0].evaluate(x, y, z));
+        }
+
+        private double apply(double t) {
+            int n = locations.length;
+            if (t <= locations[0]) return values[0];
+            if (t >= locations[n - 1]) return values[n - 1];
+            int i = 0;
+            while (t >= locations[i + 1]) i++;
+            double width = locations[i + 1] - locations[i];
+            double s = (t - locations[i]) / width;
+            double s2 = s * s, s3 = s2 * s;
+            return (2 * s3 - 3 * s2 + 1) * values[i] + (s3 - 2 * s2 + s) * width * tangents[i]
+                    + (-2 * s3 + 3 * s2) * values[i + 1] + (s3 - s2) * width * tangents[i + 1];
+        }
+
+        @Override
+        void fill(DensityProgram.Grid grid, double[][] in, double[] out, int count) {
+            double[] v = in[0];
+            for (int p = 0; p < count; p++) {
+                out[p] = apply(v[p]);
+            }
+        }
+    }
+}
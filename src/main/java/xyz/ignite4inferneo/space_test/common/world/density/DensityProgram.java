@@ -0,0 +1,318 @@
+package xyz.ignite4inferneo.space_test.common.world.density;
+
+import xyz.ignite4inferneo.space_test.common.world.Chunk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DensityFunction} graph compiled into a flat list of instructions.
+ *
+ * Compiling orders the graph so every node comes after its inputs, gives
+ * each shared node a single instruction, and assigns registers, reusing a
+ * register once its last reader has run. Each instruction then runs over a
+ * whole grid of points in one tight loop: nodes that depend on y over every
+ * point, the rest over columns only, broadcast to points when a y-dependent
+ * node reads them.
+ *
+ * For chunks the grid is the cell lattice: density is evaluated every
+ * {@link #CELL_WIDTH} blocks horizontally and {@link #CELL_HEIGHT}
+ * vertically and trilinearly interpolated in between.
+ *
+ * A program is immutable and can be shared by generation threads; each
+ * evaluation allocates its own registers.
+ */
+public final class DensityProgram {
+    public static final int CELL_WIDTH = 4;
+    public static final int CELL_HEIGHT = 8;
+
+    private static final int LATTICE_W = Chunk.SIZE / CELL_WIDTH + 1;
+    private static final int LATTICE_H = Chunk.HEIGHT / CELL_HEIGHT + 1;
+
+    /**
+     * Points to evaluate: every combination of the column coordinates
+     * (xs, zs) and ys. Columns are indexed z-major ({@code k * xs.length + i}),
+     * points by column then y ({@code column * ys.length + j}).
+     */
+    static final class Grid {
+        final int[] xs;
+        final int[] zs;
+        final int[] ys;
+
+        Grid(int[] xs, int[] zs, int[] ys) {
+            this.xs = xs;
+            this.zs = zs;
+            this.ys = ys;
+        }
+
+        int columnCount() {
+            return xs.length * zs.length;
+        }
+
+        int pointCount() {
+            return columnCount() * ys.length;
+        }
+
+        int pointX(int p) {
+            return xs[(p / ys.length) % xs.length];
+        }
+
+        int pointY(int p) {
+            return ys[p % ys.length];
+        }
+
+        int pointZ(int p) {
+            return zs[(p / ys.length) / xs.length];
+        }
+    }
+
+    private static final class Instruction {
+        final DensityFunction node; // Null to broadcast a column register to points
+        final int[] inputs;
+        final int output;
+        final boolean perColumn;
+
+        Instruction(DensityFunction node, int[] inputs, int output, boolean perColumn) {
+            this.node = node;
+            this.inputs = inputs;
+            this.output = output;
+            this.perColumn = perColumn;
+        }
+    }
+
+    private final Instruction[] code;
+    private final int registerCount;
+    private final int result;
+    private final boolean perColumn; // Result does not depend on y
+
+    private DensityProgram(Instruction[] code, int registerCount, int result, boolean perColumn) {
+        this.code = code;
+        this.registerCount = registerCount;
+        this.result = result;
+        this.perColumn = perColumn;
+    }
+
+    /**
+     * Compile a density graph
+     */
+    public static DensityProgram compile(DensityFunction root) {
+        Compiler compiler = new Compiler();
+        int result = compiler.visit(root);
+        return compiler.build(result, !root.dependsOnY());
+    }
+
+    /**
+     * Number of instructions, for profiling
+     */
+    public int getInstructionCount() {
+        return code.length;
+    }
+
+    /**
+     * Evaluate a y-independent program for a grid of columns:
+     * {@code out[j * xs.length + i]} for column (xs[i], zs[j])
+     */
+    public void evaluateColumns(double[] out, int[] xs, int[] zs) {
+        if (!perColumn) throw new IllegalStateException("Program depends on y");
+        double[] values = run(new Grid(xs, zs, new int[]{0}));
+        System.arraycopy(values, 0, out, 0, xs.length * zs.length);
+    }
+
+    /**
+     * Density at every lattice point of a chunk, indexed
+     * {@code (k * 5 + i) * 33 + j} for the point at
+     * (i * CELL_WIDTH, j * CELL_HEIGHT, k * CELL_WIDTH) in the chunk
+     */
+    public double[] evaluateChunk(int chunkX, int chunkZ) {
+        int[] xs = new int[LATTICE_W];
+        int[] zs = new int[LATTICE_W];
+        int[] ys = new int[LATTICE_H];
+        for (int i = 0; i < LATTICE_W; i++) {
+            xs[i] = chunkX * Chunk.SIZE + i * CELL_WIDTH;
+            zs[i] = chunkZ * Chunk.SIZE + i * CELL_WIDTH;
+        }
+        for (int j = 0; j < LATTICE_H; j++) {
+            ys[j] = j * CELL_HEIGHT;
+        }
+        Grid grid = new Grid(xs, zs, ys);
+        double[] values = run(grid);
+        return perColumn ? broadcast(values, grid) : values;
+    }
+
+    /**
+     * Set every block whose interpolated density is positive. Cells with
+     * all corners on one side are filled or skipped whole.
+     * @param topY receives the highest solid y per column (index z * 16 + x), -1 if none
+     * @return number of blocks set
+     */
+    public int fillChunk(Chunk chunk, int blockId, int[] topY) {
+        double[] d = evaluateChunk(chunk.getChunkX(), chunk.getChunkZ());
+        Arrays.fill(topY, 0, Chunk.SIZE * Chunk.SIZE, -1);
+        int filled = 0;
+
+        for (int ck = 0; ck < LATTICE_W - 1; ck++) {
+            for (int ci = 0; ci < LATTICE_W - 1; ci++) {
+                int c00 = (ck * LATTICE_W + ci) * LATTICE_H;
+                int c10 = c00 + LATTICE_H;                  // +x
+                int c01 = c00 + LATTICE_W * LATTICE_H;      // +z
+                int c11 = c01 + LATTICE_H;
+                for (int cj = 0; cj < LATTICE_H - 1; cj++) {
+                    double d000 = d[c00 + cj], d100 = d[c10 + cj], d001 = d[c01 + cj], d101 = d[c11 + cj];
+                    double d010 = d[c00 + cj + 1], d110 = d[c10 + cj + 1], d011 = d[c01 + cj + 1], d111 = d[c11 + cj + 1];
+                    double min = Math.min(Math.min(Math.min(d000, d100), Math.min(d001, d101)),
+                            Math.min(Math.min(d010, d110), Math.min(d011, d111)));
+                    double max = Math.max(Math.max(Math.max(d000, d100), Math.max(d001, d101)),
+                            Math.max(Math.max(d010, d110), Math.max(d011, d111)));
+                    if (max <= 0) continue; // All air
+
+                    for (int by = 0; by < CELL_HEIGHT; by++) {
+                        int y = cj * CELL_HEIGHT + by;
+                        double fy = (double) by / CELL_HEIGHT;
+                        // Edges along z at this y, then along x
+                        double e00 = d000 + fy * (d010 - d000), e10 = d100 + fy * (d110 - d100);
+                        double e01 = d001 + fy * (d011 - d001), e11 = d101 + fy * (d111 - d101);
+                        for (int bz = 0; bz < CELL_WIDTH; bz++) {
+                            double fz = (double) bz / CELL_WIDTH;
+                            double west = e00 + fz * (e01 - e00), east = e10 + fz * (e11 - e10);
+                            int z = ck * CELL_WIDTH + bz;
+                            for (int bx = 0; bx < CELL_WIDTH; bx++) {
+                                if (min <= 0 && west + (double) bx / CELL_WIDTH * (east - west) <= 0) continue;
+                                int x = ci * CELL_WIDTH + bx;
+                                chunk.setBlockId(x, y, z, blockId);
+                                topY[z * Chunk.SIZE + x] = y; // Cells run upwards, so the last one set is the top
+                                filled++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return filled;
+    }
+
+    private double[] run(Grid grid) {
+        int columns = grid.columnCount();
+        int points = grid.pointCount();
+        double[][] registers = new double[registerCount][];
+        for (Instruction instruction : code) {
+            int count = instruction.perColumn ? columns : points;
+            double[] out = registers[instruction.output];
+            if (out == null || out.length != count) {
+                out = new double[count];
+                registers[instruction.output] = out;
+            }
+            if (instruction.node == null) {
+                double[] source = registers[instruction.inputs[0]];
+                int perColumn = grid.ys.length;
+                for (int p = 0; p < count; p++) {
+                    out[p] = source[p / perColumn];
+                }
+                continue;
+            }
+            double[][] in = new double[instruction.inputs.length][];
+            for (int i = 0; i < in.length; i++) {
+                in[i] = registers[instruction.inputs[i]];
+            }
+            instruction.node.fill(grid, in, out, count);
+        }
+        return registers[result];
+    }
+
+    private static double[] broadcast(double[] columnValues, Grid grid) {
+        double[] values = new double[grid.pointCount()];
+        for (int p = 0; p < values.length; p++) {
+            values[p] = columnValues[p / grid.ys.length];
+        }
+        return values;
+    }
+
+    /**
+     * Orders the graph, dedupes shared nodes and allocates registers
+     */
+    private static final class Compiler {
+        private final Map<DensityFunction, Integer> values = new IdentityHashMap<>();      // Node -> instruction index
+        private final Map<DensityFunction, Integer> broadcasts = new IdentityHashMap<>();  // Column node -> broadcast instruction index
+        private final List<DensityFunction> nodes = new ArrayList<>();                    // Null for broadcasts
+        private final List<int[]> inputs = new ArrayList<>();
+        private final List<Boolean> perColumn = new ArrayList<>();
+
+        int visit(DensityFunction node) {
+            Integer done = values.get(node);
+            if (done != null) return done;
+
+            DensityFunction[] children = node.inputs();
+            int[] in = new int[children.length];
+            for (int i = 0; i < children.length; i++) {
+                in[i] = visit(children[i]);
+                if (node.dependsOnY() && !children[i].dependsOnY()) in[i] = broadcast(children[i], in[i]);
+            }
+            int index = emit(node, in, !node.dependsOnY());
+            values.put(node, index);
+            return index;
+        }
+
+        private int broadcast(DensityFunction node, int columnValue) {
+            Integer done = broadcasts.get(node);
+            if (done != null) return done;
+            int index = emit(null, new int[]{columnValue}, false);
+            broadcasts.put(node, index);
+            return index;
+        }
+
+        private int emit(DensityFunction node, int[] in, boolean columnOnly) {
+            nodes.add(node);
+            inputs.add(in);
+            perColumn.add(columnOnly);
+            return nodes.size() - 1;
+        }
+
+        /**
+         * Map instruction results onto registers, reusing a register of the
+         * same shape once every reader of its value has run
+         */
+        DensityProgram build(int resultIndex, boolean resultPerColumn) {
+            int n = nodes.size();
+            int[] lastUse = new int[n];
+            for (int i = 0; i < n; i++) {
+                lastUse[i] = i;
+                for (int input : inputs.get(i)) lastUse[input] = i;
+            }
+            lastUse[resultIndex] = n; // Read after the program
+
+            int[] register = new int[n];
+            List<Integer> freeColumn = new ArrayList<>();
+            List<Integer> freePoint = new ArrayList<>();
+            int registerCount = 0;
+            Instruction[] code = new Instruction[n];
+            for (int i = 0; i < n; i++) {
+                boolean columnOnly = perColumn.get(i);
+                List<Integer> free = columnOnly ? freeColumn : freePoint;
+                register[i] = free.isEmpty() ? registerCount++ : free.remove(free.size() - 1);
+
+                int[] in = inputs.get(i);
+                int[] inRegisters = new int[in.length];
+                for (int k = 0; k < in.length; k++) inRegisters[k] = register[in[k]];
+                code[i] = new Instruction(nodes.get(i), inRegisters, register[i], columnOnly);
+
+                for (int k = 0; k < in.length; k++) {
+                    int input = in[k];
+                    if (lastUse[input] == i && !contains(in, input, k)) {
+                        (perColumn.get(input) ? freeColumn : freePoint).add(register[input]);
+                    }
+                }
+                if (lastUse[i] == i) free.add(register[i]); // Never read
+            }
+            return new DensityProgram(code, registerCount, register[resultIndex], resultPerColumn);
+        }
+
+        private static boolean contains(int[] values, int value, int before) {
+            for (int i = 0; i < before; i++) {
+                if (values[i] == value) return true;
+            }
+            return false;
+        }
+    }
+}
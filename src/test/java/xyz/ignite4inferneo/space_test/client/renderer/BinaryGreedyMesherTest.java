@@ -0,0 +1,166 @@
+package xyz.ignite4inferneo.space_test.client.renderer;
+
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+import xyz.ignite4inferneo.space_test.common.world.Chunk;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSection;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSnapshot;
+import xyz.ignite4inferneo.space_test.common.world.ImprovedWorldGenerator;
+import xyz.ignite4inferneo.space_test.common.world.World;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks the bitmask mesher draws the same surface as the per-voxel one:
+ * every quad is split back into unit faces, and both meshers must produce
+ * the same faces with the same texture and brightness, none twice. Runs
+ * over generated terrain and over chunks scrambled with random blocks
+ * (leaves included, for see-through faces), then reports time and quads
+ * per chunk for each.
+ */
+public class BinaryGreedyMesherTest {
+
+    private static final int RADIUS = 3;
+    private static final int RANDOM_EDITS = 20000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        World world = new World(new ImprovedWorldGenerator(12345L));
+        for (int cx = -RADIUS - 1; cx <= RADIUS + 1; cx++) {
+            for (int cz = -RADIUS - 1; cz <= RADIUS + 1; cz++) {
+                world.getChunk(cx, cz);
+            }
+        }
+        world.getLightEngine().awaitIdle();
+
+        System.out.println("=== Binary Greedy Mesher Test ===");
+        int mismatches = compareAll(world, "generated");
+
+        // Random blocks in the lower half of the middle chunks
+        int[] palette = {
+                0,
+                Registries.BLOCKS.idOf("space_test:stone"),
+                Registries.BLOCKS.idOf("space_test:dirt"),
+                Registries.BLOCKS.idOf("space_test:grass"),
+                Registries.BLOCKS.idOf("space_test:leaves"),
+                Registries.BLOCKS.idOf("space_test:wood")
+        };
+        Random random = new Random(7);
+        int span = (RADIUS * 2 + 1) * Chunk.SIZE;
+        for (int i = 0; i < RANDOM_EDITS; i++) {
+            int x = random.nextInt(span) - RADIUS * Chunk.SIZE;
+            int z = random.nextInt(span) - RADIUS * Chunk.SIZE;
+            int y = random.nextInt(Chunk.HEIGHT / 2);
+            world.setBlockId(x, y, z, palette[random.nextInt(palette.length)]);
+        }
+        world.getLightEngine().awaitIdle();
+        mismatches += compareAll(world, "random");
+
+        System.out.println(mismatches == 0 ? "OK: same surface" : "FAILED: " + mismatches + " mismatched faces");
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    private static int compareAll(World world, String label) {
+        int mismatches = 0;
+        long greedyQuads = 0, binaryQuads = 0;
+        long greedyNs = 0, binaryNs = 0;
+        int chunks = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+                for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                    Chunk chunk = world.getChunk(cx, cz);
+                    Chunk[] neighbors = new Chunk[BlockRegistry.FACES];
+                    neighbors[ChunkSection.FACE_NORTH] = world.getChunkIfLoaded(cx, cz - 1);
+                    neighbors[ChunkSection.FACE_SOUTH] = world.getChunkIfLoaded(cx, cz + 1);
+                    neighbors[ChunkSection.FACE_WEST] = world.getChunkIfLoaded(cx - 1, cz);
+                    neighbors[ChunkSection.FACE_EAST] = world.getChunkIfLoaded(cx + 1, cz);
+
+                    try (ChunkSnapshot snapshot = chunk.snapshot()) {
+                        long start = System.nanoTime();
+                        List<GreedyMesher.Quad>[] greedy = GreedyMesher.meshSections(snapshot, GreedyMesher.ALL_SECTIONS, neighbors);
+                        long mid = System.nanoTime();
+                        List<GreedyMesher.Quad>[] binary = BinaryGreedyMesher.meshSections(snapshot, GreedyMesher.ALL_SECTIONS, neighbors);
+                        long end = System.nanoTime();
+
+                        // The first round warms up and checks; later rounds only time
+                        if (round == 0) {
+                            for (int s = 0; s < Chunk.SECTION_COUNT; s++) {
+                                mismatches += compare(greedy[s], binary[s], cx, cz, s);
+                            }
+                            continue;
+                        }
+                        greedyNs += mid - start;
+                        binaryNs += end - mid;
+                        chunks++;
+                        for (int s = 0; s < Chunk.SECTION_COUNT; s++) {
+                            greedyQuads += greedy[s].size();
+                            binaryQuads += binary[s].size();
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%s: %d mismatches%n", label, mismatches);
+        System.out.printf("  GreedyMesher:       %8.1f us/chunk, %6d quads/chunk%n",
+                greedyNs / 1000.0 / chunks, greedyQuads / chunks);
+        System.out.printf("  BinaryGreedyMesher: %8.1f us/chunk, %6d quads/chunk (%.2fx faster)%n",
+                binaryNs / 1000.0 / chunks, binaryQuads / chunks, (double) greedyNs / binaryNs);
+        return mismatches;
+    }
+
+    /**
+     * Number of unit faces that differ between two quad lists
+     */
+    static int compare(List<GreedyMesher.Quad> expected, List<GreedyMesher.Quad> actual, int cx, int cz, int section) {
+        Map<Long, Long> expectedFaces = new HashMap<>();
+        Map<Long, Long> actualFaces = new HashMap<>();
+        int mismatches = expand(expected, expectedFaces) + expand(actual, actualFaces);
+
+        for (Map.Entry<Long, Long> entry : expectedFaces.entrySet()) {
+            if (!entry.getValue().equals(actualFaces.get(entry.getKey()))) {
+                if (mismatches++ == 0) {
+                    System.out.println("  First mismatch in chunk (" + cx + ", " + cz + ") section " + section
+                            + ": face " + Long.toHexString(entry.getKey()));
+                }
+            }
+        }
+        for (Long key : actualFaces.keySet()) {
+            if (!expectedFaces.containsKey(key)) mismatches++;
+        }
+        return mismatches;
+    }
+
+    /**
+     * Split quads into unit faces, position and direction to texture and
+     * brightness
+     * @return faces covered more than once
+     */
+    private static int expand(List<GreedyMesher.Quad> quads, Map<Long, Long> faces) {
+        int overlaps = 0;
+        for (GreedyMesher.Quad q : quads) {
+            for (int i = 0; i < q.w; i++) {
+                for (int j = 0; j < q.h; j++) {
+                    int x = q.x, y = q.y, z = q.z;
+                    if (q.axis == 1) { x += i; z += j; }
+                    else if (q.axis == 2) { x += i; y += j; }
+                    else { z += i; y += j; }
+
+                    long key = ((long) q.axis << 40) | ((long) (q.dir + 1) << 36)
+                            | ((long) y << 16) | ((long) z << 8) | x;
+                    long value = ((long) q.texIndex << 32) | Float.floatToIntBits(q.brightness);
+                    if (faces.put(key, value) != null) overlaps++;
+                }
+            }
+        }
+        return overlaps;
+    }
+}
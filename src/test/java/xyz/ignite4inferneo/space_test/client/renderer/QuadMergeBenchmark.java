@@ -0,0 +1,142 @@
+package xyz.ignite4inferneo.space_test.client.renderer;
+
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.client.ClientSettings;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+import xyz.ignite4inferneo.space_test.common.world.Chunk;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSection;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSnapshot;
+import xyz.ignite4inferneo.space_test.common.world.IWorldGenerator;
+import xyz.ignite4inferneo.space_test.common.world.ImprovedWorldGenerator;
+import xyz.ignite4inferneo.space_test.common.world.World;
+
+import java.util.List;
+
+/**
+ * Quad counts and frame times for different merged quad size limits
+ * (ClientSettings.MAX_QUAD_SIZE): 1 is a quad per block face, 4 the old
+ * fixed limit, 16 whole sections. Runs over a flat world and generated
+ * terrain; frame times are for the software renderer, headless, once every
+ * chunk in view is meshed. The renderer draws at most FACE_LIMIT faces a
+ * frame, so a frame that reaches it left chunks out and is marked.
+ */
+public class QuadMergeBenchmark {
+
+    private static final int RADIUS = 4;
+    private static final int[] SIZES = {1, 4, 16};
+    private static final int[] FRAME_SIZES = {4, 16};
+    private static final int FACE_LIMIT = 8192; // UltraOptimizedRenderer's face list
+    private static final int WIDTH = 854;
+    private static final int HEIGHT = 480;
+    private static final int FRAMES = 30;
+    private static final long BYTES_PER_QUAD = 56; // As UltraOptimizedRenderer counts them
+
+    public static void main(String[] args) throws Exception {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        IWorldGenerator flat = (world, chunk) -> {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    for (int y = 0; y < 60; y++) chunk.setBlock(x, y, z, "space_test:stone");
+                    for (int y = 60; y < 63; y++) chunk.setBlock(x, y, z, "space_test:dirt");
+                    chunk.setBlock(x, 63, z, "space_test:grass");
+                }
+            }
+        };
+
+        System.out.println("=== Quad Merge Benchmark ===");
+        benchmark("Flat", flat);
+        benchmark("Generated", new ImprovedWorldGenerator(12345L));
+        System.exit(0);
+    }
+
+    private static void benchmark(String label, IWorldGenerator generator) throws Exception {
+        World world = new World(generator);
+        for (int cx = -RADIUS - 1; cx <= RADIUS + 1; cx++) {
+            for (int cz = -RADIUS - 1; cz <= RADIUS + 1; cz++) {
+                world.getChunk(cx, cz);
+            }
+        }
+        world.getLightEngine().awaitIdle();
+
+        System.out.println(label + ":");
+        for (int size : SIZES) {
+            ClientSettings.MAX_QUAD_SIZE = size;
+            meshChunks(world); // Warm up
+            long[] result = meshChunks(world);
+            int chunks = (RADIUS * 2 + 1) * (RADIUS * 2 + 1);
+            System.out.printf("  max %2d: %6d quads/chunk, %6.1f KB/chunk, %7.1f us/chunk to mesh%n",
+                    size, result[0] / chunks, result[0] * BYTES_PER_QUAD / 1024.0 / chunks, result[1] / 1000.0 / chunks);
+        }
+        for (int size : FRAME_SIZES) {
+            ClientSettings.MAX_QUAD_SIZE = size;
+            renderFrames(world, size);
+        }
+        ClientSettings.MAX_QUAD_SIZE = Chunk.SIZE;
+    }
+
+    /**
+     * @return total quads and nanoseconds for meshing every chunk in the radius
+     */
+    private static long[] meshChunks(World world) {
+        long quads = 0, ns = 0;
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                Chunk[] neighbors = new Chunk[BlockRegistry.FACES];
+                neighbors[ChunkSection.FACE_NORTH] = world.getChunkIfLoaded(cx, cz - 1);
+                neighbors[ChunkSection.FACE_SOUTH] = world.getChunkIfLoaded(cx, cz + 1);
+                neighbors[ChunkSection.FACE_WEST] = world.getChunkIfLoaded(cx - 1, cz);
+                neighbors[ChunkSection.FACE_EAST] = world.getChunkIfLoaded(cx + 1, cz);
+                try (ChunkSnapshot snapshot = world.getChunk(cx, cz).snapshot()) {
+                    long start = System.nanoTime();
+                    List<GreedyMesher.Quad>[] sections = BinaryGreedyMesher.meshSections(snapshot, GreedyMesher.ALL_SECTIONS, neighbors);
+                    ns += System.nanoTime() - start;
+                    for (List<GreedyMesher.Quad> section : sections) quads += section.size();
+                }
+            }
+        }
+        return new long[]{quads, ns};
+    }
+
+    /**
+     * Time frames from above the middle of the world, looking out over it,
+     * after every chunk in view has a mesh
+     */
+    private static void renderFrames(World world, int size) {
+        UltraOptimizedRenderer renderer = new UltraOptimizedRenderer(world);
+        renderer.setCanvasSize(WIDTH, HEIGHT);
+        renderer.x = 0.5;
+        renderer.z = 0.5;
+        renderer.y = world.getHeight(0, 0) + 3;
+        renderer.pitch = 0.35; // Looking down a little
+
+        // Render until the mesh cache stops growing and nothing is meshing
+        int stable = 0, lastCached = -1;
+        long deadline = System.currentTimeMillis() + 120_000;
+        while (stable < 10 && System.currentTimeMillis() < deadline) {
+            renderer.render();
+            int cached = renderer.getCachedMeshCount();
+            stable = cached == lastCached && renderer.getChunksMeshing() == 0 ? stable + 1 : 0;
+            lastCached = cached;
+            sleep(20);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) renderer.render();
+        long ns = System.nanoTime() - start;
+        int drawn = renderer.getQuadsRendered();
+        System.out.printf("  max %2d: %6.2f ms/frame, %6d quads drawn%s, %d chunks%n", size, ns / 1e6 / FRAMES,
+                drawn, drawn >= FACE_LIMIT ? " (face list full)" : "", renderer.getChunksRendered());
+        renderer.shutdown();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
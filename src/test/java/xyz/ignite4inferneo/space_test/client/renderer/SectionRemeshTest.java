@@ -0,0 +1,157 @@
+package xyz.ignite4inferneo.space_test.client.renderer;
+
+import xyz.ignite4inferneo.space_test.api.registry.BlockRegistry;
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+import xyz.ignite4inferneo.space_test.common.block.BaseBlock;
+import xyz.ignite4inferneo.space_test.common.world.Chunk;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSection;
+import xyz.ignite4inferneo.space_test.common.world.ChunkSnapshot;
+import xyz.ignite4inferneo.space_test.common.world.ImprovedWorldGenerator;
+import xyz.ignite4inferneo.space_test.common.world.World;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks that remeshing only the dirty sections gives the same surface as
+ * a full remesh: after each round of random edits, the sections the
+ * renderers would mark dirty (from block and light change notifications)
+ * are remeshed and spliced into the kept mesh, and every chunk must then
+ * match a fresh full mesh face for face.
+ */
+public class SectionRemeshTest {
+
+    private static final int RADIUS = 1;
+    private static final int ROUNDS = 500;
+    private static final int EDITS_PER_ROUND = 4;
+    private static final long SEED = 12345L;
+
+    private static final Map<Long, Integer> dirty = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        VanillaBlocks.register();
+        Registries.BLOCKS.register("test:lamp", new BaseBlock("test:lamp", "Lamp", 0) {
+            @Override
+            public int getLightLevel() {
+                return 14;
+            }
+        });
+        Registries.freezeAll();
+
+        int[] palette = {
+                Chunk.AIR_ID,
+                Chunk.AIR_ID,
+                Registries.BLOCKS.idOf("space_test:stone"),
+                Registries.BLOCKS.idOf("space_test:dirt"),
+                Registries.BLOCKS.idOf("space_test:leaves"),
+                Registries.BLOCKS.idOf("test:lamp")
+        };
+
+        World world = new World(new ImprovedWorldGenerator(SEED));
+        for (int cx = -RADIUS - 1; cx <= RADIUS + 1; cx++) {
+            for (int cz = -RADIUS - 1; cz <= RADIUS + 1; cz++) {
+                world.getChunk(cx, cz);
+            }
+        }
+        world.getLightEngine().awaitIdle();
+        world.addSectionListener(SectionRemeshTest::onSectionChanged);
+        world.getLightEngine().addListener(SectionRemeshTest::onLightChanged);
+
+        Map<Long, List<GreedyMesher.Quad>[]> meshes = new HashMap<>();
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                meshes.put(key(cx, cz), mesh(world, cx, cz, GreedyMesher.ALL_SECTIONS));
+            }
+        }
+
+        System.out.println("=== Section Remesh Test ===");
+        Random random = new Random(11);
+        int span = (RADIUS * 2 + 1) * Chunk.SIZE;
+        int mismatches = 0;
+        long sectionsMeshed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < EDITS_PER_ROUND; i++) {
+                int x = random.nextInt(span) - RADIUS * Chunk.SIZE;
+                int z = random.nextInt(span) - RADIUS * Chunk.SIZE;
+                // Half near the surface, half on section boundaries
+                int y = random.nextBoolean()
+                        ? world.getHeight(x, z) + random.nextInt(5) - 2
+                        : random.nextInt(Chunk.SECTION_COUNT) * ChunkSection.SIZE + (random.nextBoolean() ? 0 : ChunkSection.SIZE - 1);
+                if (y < 0 || y >= Chunk.HEIGHT) continue;
+                world.setBlockId(x, y, z, palette[random.nextInt(palette.length)]);
+            }
+            world.getLightEngine().awaitIdle();
+
+            for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+                for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                    long key = key(cx, cz);
+                    Integer mask = dirty.remove(key);
+                    List<GreedyMesher.Quad>[] kept = meshes.get(key);
+                    if (mask != null) {
+                        List<GreedyMesher.Quad>[] partial = mesh(world, cx, cz, mask);
+                        for (int s = 0; s < Chunk.SECTION_COUNT; s++) {
+                            if ((mask & (1 << s)) != 0) {
+                                kept[s] = partial[s];
+                                sectionsMeshed++;
+                            }
+                        }
+                    }
+
+                    List<GreedyMesher.Quad>[] full = mesh(world, cx, cz, GreedyMesher.ALL_SECTIONS);
+                    for (int s = 0; s < Chunk.SECTION_COUNT; s++) {
+                        int sectionMismatches = BinaryGreedyMesherTest.compare(full[s], kept[s], cx, cz, s);
+                        if (sectionMismatches > 0 && mismatches == 0) System.out.println("  in round " + round);
+                        mismatches += sectionMismatches;
+                    }
+                }
+            }
+            dirty.clear(); // Chunks outside the meshed area
+        }
+
+        int chunks = (RADIUS * 2 + 1) * (RADIUS * 2 + 1);
+        System.out.printf("%d rounds, %.2f sections remeshed per chunk per round%n",
+                ROUNDS, (double) sectionsMeshed / ROUNDS / chunks);
+        System.out.println(mismatches == 0 ? "OK: same surface" : "FAILED: " + mismatches + " mismatched faces");
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    private static List<GreedyMesher.Quad>[] mesh(World world, int cx, int cz, int sectionMask) {
+        Chunk[] neighbors = new Chunk[BlockRegistry.FACES];
+        neighbors[ChunkSection.FACE_NORTH] = world.getChunkIfLoaded(cx, cz - 1);
+        neighbors[ChunkSection.FACE_SOUTH] = world.getChunkIfLoaded(cx, cz + 1);
+        neighbors[ChunkSection.FACE_WEST] = world.getChunkIfLoaded(cx - 1, cz);
+        neighbors[ChunkSection.FACE_EAST] = world.getChunkIfLoaded(cx + 1, cz);
+        try (ChunkSnapshot snapshot = world.getChunk(cx, cz).snapshot()) {
+            return BinaryGreedyMesher.meshSections(snapshot, sectionMask, neighbors);
+        }
+    }
+
+    // Same invalidation as the renderers' onSectionChanged / onLightChanged
+
+    private static void onSectionChanged(int chunkX, int sectionY, int chunkZ, int borderFaces) {
+        int sections = 1 << sectionY;
+        if ((borderFaces & (1 << ChunkSection.FACE_BOTTOM)) != 0) sections |= 1 << sectionY >> 1;
+        if ((borderFaces & (1 << ChunkSection.FACE_TOP)) != 0) sections |= 1 << sectionY << 1;
+        markDirty(chunkX, chunkZ, sections & GreedyMesher.ALL_SECTIONS);
+    }
+
+    private static void onLightChanged(int chunkX, int sectionY, int chunkZ, int borderFaces) {
+        onSectionChanged(chunkX, sectionY, chunkZ, borderFaces);
+        if ((borderFaces & (1 << ChunkSection.FACE_NORTH)) != 0) markDirty(chunkX, chunkZ - 1, 1 << sectionY);
+        if ((borderFaces & (1 << ChunkSection.FACE_SOUTH)) != 0) markDirty(chunkX, chunkZ + 1, 1 << sectionY);
+        if ((borderFaces & (1 << ChunkSection.FACE_WEST)) != 0) markDirty(chunkX - 1, chunkZ, 1 << sectionY);
+        if ((borderFaces & (1 << ChunkSection.FACE_EAST)) != 0) markDirty(chunkX + 1, chunkZ, 1 << sectionY);
+    }
+
+    private static void markDirty(int chunkX, int chunkZ, int sectionMask) {
+        dirty.merge(key(chunkX, chunkZ), sectionMask, (a, b) -> a | b);
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
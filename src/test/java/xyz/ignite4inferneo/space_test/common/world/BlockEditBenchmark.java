@@ -0,0 +1,107 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fill benchmark: fill a 64x64x64 box with stone and clear it again, once
+ * with per-block World.setBlockId calls and once with a BlockEditSession.
+ * Reports time, throughput and how many section change notifications each
+ * approach raised, and checks both leave the world in the same state.
+ */
+public class BlockEditBenchmark {
+
+    private static final int SIZE = 64;
+    private static final int MIN_Y = 64;
+    private static final int ROUNDS = 20;
+    private static final long SEED = 12345L;
+
+    public static void main(String[] args) {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        int stone = Registries.BLOCKS.idOf("space_test:stone");
+        int air = Chunk.AIR_ID;
+        int min = -SIZE / 2;
+        int max = min + SIZE - 1;
+
+        World world = new World(new ImprovedWorldGenerator(SEED));
+        for (int cx = min >> 4; cx <= max >> 4; cx++) {
+            for (int cz = min >> 4; cz <= max >> 4; cz++) {
+                world.getChunk(cx, cz);
+            }
+        }
+        AtomicInteger notifications = new AtomicInteger();
+        world.addSectionListener((chunkX, sectionY, chunkZ, borderFaces) -> notifications.incrementAndGet());
+
+        System.out.println("=== Block Edit Benchmark ===");
+        System.out.println("Box: " + SIZE + "^3 = " + SIZE * SIZE * SIZE + " blocks, fill then clear");
+
+        long perBlockNs = 0, sessionNs = 0;
+        int perBlockNotifications = 0, sessionNotifications = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            notifications.set(0);
+            long start = System.nanoTime();
+            for (int id : new int[]{stone, air}) {
+                for (int y = MIN_Y; y < MIN_Y + SIZE; y++) {
+                    for (int z = min; z <= max; z++) {
+                        for (int x = min; x <= max; x++) {
+                            world.setBlockId(x, y, z, id);
+                        }
+                    }
+                }
+            }
+            perBlockNs = System.nanoTime() - start;
+            perBlockNotifications = notifications.get();
+
+            notifications.set(0);
+            start = System.nanoTime();
+            for (int id : new int[]{stone, air}) {
+                BlockEditSession session = world.beginEdit();
+                session.fill(min, MIN_Y, min, max, MIN_Y + SIZE - 1, max, id);
+                session.commit();
+            }
+            sessionNs = System.nanoTime() - start;
+            sessionNotifications = notifications.get();
+        }
+
+        // Same end state: fill with a session, compare against per-block writes in another world
+        World reference = new World(new ImprovedWorldGenerator(SEED));
+        try (BlockEditSession session = world.beginEdit()) {
+            session.fill(min, MIN_Y, min, max, MIN_Y + SIZE - 1, max, stone);
+            session.fill(min + 8, MIN_Y + 8, min + 8, max - 8, MIN_Y + SIZE - 9, max - 8, air);
+        }
+        for (int y = MIN_Y; y < MIN_Y + SIZE; y++) {
+            for (int z = min; z <= max; z++) {
+                for (int x = min; x <= max; x++) {
+                    boolean inner = x >= min + 8 && x <= max - 8 && z >= min + 8 && z <= max - 8
+                            && y >= MIN_Y + 8 && y <= MIN_Y + SIZE - 9;
+                    reference.setBlockId(x, y, z, inner ? air : stone);
+                }
+            }
+        }
+        int mismatches = 0;
+        for (int y = 0; y < Chunk.HEIGHT; y++) {
+            for (int z = min - 1; z <= max + 1; z++) {
+                for (int x = min - 1; x <= max + 1; x++) {
+                    if (world.getBlockId(x, y, z) != reference.getBlockId(x, y, z)) mismatches++;
+                }
+            }
+        }
+        for (int z = min; z <= max; z++) {
+            for (int x = min; x <= max; x++) {
+                if (world.getHeight(x, z) != reference.getHeight(x, z)) mismatches++;
+            }
+        }
+
+        long blocks = 2L * SIZE * SIZE * SIZE;
+        System.out.printf("Per-block: %8.1f ms (%5.1f M blocks/s), %6d section notifications%n",
+                perBlockNs / 1e6, blocks / (perBlockNs / 1e3), perBlockNotifications);
+        System.out.printf("Session:   %8.1f ms (%5.1f M blocks/s), %6d section notifications%n",
+                sessionNs / 1e6, blocks / (sessionNs / 1e3), sessionNotifications);
+        System.out.printf("Session is %.1fx faster%n", perBlockNs / (double) Math.max(1, sessionNs));
+        System.out.println("End state: " + (mismatches == 0 ? "OK" : mismatches + " mismatches"));
+    }
+}
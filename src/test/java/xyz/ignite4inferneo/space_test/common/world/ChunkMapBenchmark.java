@@ -0,0 +1,136 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * Contention benchmark for the world chunk map.
+ * Several threads hammer getChunk over a render-distance sized area (mostly
+ * hits, a few misses that trigger loading) and we compare ChunkMap against a
+ * synchronized HashMap and ConcurrentHashMap.computeIfAbsent.
+ * Also checks that racing World.getChunk calls generate each chunk once.
+ */
+public class ChunkMapBenchmark {
+
+    private static final int RADIUS = 12;
+    private static final int OPS_PER_THREAD = 2_000_000;
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    interface Map2 {
+        Chunk getOrLoad(long key, LongFunction<Chunk> loader);
+    }
+
+    public static void main(String[] args) throws Exception {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        System.out.println("=== Chunk Map Contention Benchmark ===");
+        System.out.println("Area: " + (RADIUS * 2 + 1) + "x" + (RADIUS * 2 + 1) + " chunks, " + OPS_PER_THREAD + " lookups per thread");
+        System.out.println();
+        System.out.printf("%-8s %18s %18s %18s%n", "threads", "sync HashMap", "ConcurrentHashMap", "ChunkMap");
+
+        for (int threads : THREADS) {
+            Map<Long, Chunk> locked = new HashMap<>();
+            Map2 syncMap = (key, loader) -> {
+                synchronized (locked) {
+                    return locked.computeIfAbsent(key, loader::apply);
+                }
+            };
+
+            ConcurrentHashMap<Long, Chunk> chm = new ConcurrentHashMap<>();
+            Map2 concurrent = (key, loader) -> chm.computeIfAbsent(key, loader::apply);
+
+            ChunkMap chunkMap = new ChunkMap();
+            Map2 striped = chunkMap::computeIfAbsent;
+
+            System.out.printf("%-8d %14.1f M/s %14.1f M/s %14.1f M/s%n", threads,
+                    run(syncMap, threads), run(concurrent, threads), run(striped, threads));
+        }
+
+        System.out.println();
+        checkGenerateOnce();
+    }
+
+    private static double run(Map2 map, int threads) throws InterruptedException {
+        run(map, threads, OPS_PER_THREAD / 4); // Warm up and populate
+        long start = System.nanoTime();
+        run(map, threads, OPS_PER_THREAD);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return threads * (double) OPS_PER_THREAD / seconds / 1e6;
+    }
+
+    private static void run(Map2 map, int threads, int ops) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        LongFunction<Chunk> loader = key -> new Chunk((int) (key >> 32), (int) key);
+
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long sink = 0;
+                try {
+                    start.await();
+                    for (int i = 0; i < ops; i++) {
+                        // 1 in 1000 lookups lands just outside the loaded area
+                        int r = random.nextInt(1000) == 0 ? RADIUS + 8 : RADIUS;
+                        int cx = random.nextInt(-r, r + 1);
+                        int cz = random.nextInt(-r, r + 1);
+                        sink += map.getOrLoad(ChunkMap.key(cx, cz), loader).getChunkX();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (sink == Long.MIN_VALUE) System.out.println(sink);
+                done.countDown();
+            });
+            thread.start();
+        }
+
+        start.countDown();
+        done.await();
+    }
+
+    private static void checkGenerateOnce() throws InterruptedException {
+        AtomicInteger generated = new AtomicInteger();
+        ImprovedWorldGenerator terrain = new ImprovedWorldGenerator(12345L);
+        World world = new World((w, chunk) -> {
+            generated.incrementAndGet();
+            terrain.generateChunk(w, chunk);
+        });
+
+        int threads = 8;
+        int radius = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int cx = -radius; cx <= radius; cx++) {
+                        for (int cz = -radius; cz <= radius; cz++) {
+                            world.getChunk(cx, cz);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+            thread.start();
+        }
+        start.countDown();
+        done.await();
+
+        int expected = (radius * 2 + 1) * (radius * 2 + 1);
+        System.out.println("Generate-once check: " + generated.get() + " generations for " + expected
+                + " chunks across " + threads + " threads -> " + (generated.get() == expected ? "OK" : "FAILED"));
+    }
+}
@@ -0,0 +1,136 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory benchmark: legacy String[16][256][16] chunk layout vs
+ * palette-compressed chunks, both filled from ImprovedWorldGenerator output.
+ * Run with a fixed heap for stable numbers, e.g. -Xms1g -Xmx1g
+ */
+public class ChunkMemoryBenchmark {
+
+    private static final int RADIUS = 8; // Matches render distance
+    private static final long SEED = 12345L;
+
+    public static void main(String[] args) {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        ImprovedWorldGenerator generator = new ImprovedWorldGenerator(SEED);
+        World world = new World(generator);
+
+        int side = RADIUS * 2 + 1;
+        int chunkCount = side * side;
+        System.out.println("=== Chunk Memory Benchmark ===");
+        System.out.println("Chunks: " + chunkCount + " (" + side + "x" + side + ")");
+
+        // Palette layout
+        long before = usedMemory();
+        List<Chunk> chunks = new ArrayList<>(chunkCount);
+        long genStart = System.nanoTime();
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                Chunk chunk = new Chunk(cx, cz);
+                generator.generateChunk(world, chunk);
+                chunks.add(chunk);
+            }
+        }
+        long genMs = (System.nanoTime() - genStart) / 1_000_000;
+        long paletteBytes = usedMemory() - before;
+
+        long estimated = 0;
+        int maxPalette = 0;
+        int sections = 0;
+        for (Chunk chunk : chunks) {
+            estimated += chunk.getMemoryUsage();
+            for (int i = 0; i < Chunk.SECTION_COUNT; i++) {
+                ChunkSection section = chunk.getSection(i);
+                if (section == null) continue;
+                sections++;
+                maxPalette = Math.max(maxPalette, section.getPaletteSize());
+            }
+        }
+
+        // Legacy layout, filled from the same generated chunks
+        before = usedMemory();
+        List<String[][][]> legacy = new ArrayList<>(chunkCount);
+        for (Chunk chunk : chunks) {
+            legacy.add(toLegacy(chunk));
+        }
+        long legacyBytes = usedMemory() - before;
+
+        // Read throughput over the whole data set
+        long readStart = System.nanoTime();
+        long checksum = 0;
+        for (Chunk chunk : chunks) {
+            for (int y = 0; y < Chunk.HEIGHT; y++) {
+                ChunkSection section = chunk.getSection(y >> 4);
+                if (section == null) continue;
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    for (int x = 0; x < Chunk.SIZE; x++) {
+                        if (section.getBlockIndex(x, y & 15, z) != 0) checksum++;
+                    }
+                }
+            }
+        }
+        long paletteReadMs = (System.nanoTime() - readStart) / 1_000_000;
+
+        readStart = System.nanoTime();
+        for (String[][][] blocks : legacy) {
+            for (int y = 0; y < Chunk.HEIGHT; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    for (int x = 0; x < Chunk.SIZE; x++) {
+                        if (!blocks[x][y][z].equals("space_test:air")) checksum++;
+                    }
+                }
+            }
+        }
+        long legacyReadMs = (System.nanoTime() - readStart) / 1_000_000;
+
+        System.out.println("Generation time:      " + genMs + " ms");
+        System.out.println("Largest palette:      " + maxPalette + " entries");
+        System.out.println("Non-empty sections:   " + sections + " of " + chunkCount * Chunk.SECTION_COUNT);
+        System.out.println();
+        System.out.println("Legacy String[][][]:  " + kb(legacyBytes) + " KB total, " + kb(legacyBytes / chunkCount) + " KB/chunk");
+        System.out.println("Paletted (measured):  " + kb(paletteBytes) + " KB total, " + kb(paletteBytes / chunkCount) + " KB/chunk");
+        System.out.println("Paletted (estimated): " + kb(estimated) + " KB total, " + kb(estimated / chunkCount) + " KB/chunk");
+        System.out.printf("Reduction:            %.1fx%n", legacyBytes / (double) Math.max(1, paletteBytes));
+        System.out.println();
+        System.out.println("Full scan, legacy:    " + legacyReadMs + " ms");
+        System.out.println("Full scan, paletted:  " + paletteReadMs + " ms");
+        System.out.println("(checksum " + checksum + ", kept " + legacy.size() + " legacy chunks alive)");
+    }
+
+    private static String[][][] toLegacy(Chunk chunk) {
+        String[][][] blocks = new String[Chunk.SIZE][Chunk.HEIGHT][Chunk.SIZE];
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int y = 0; y < Chunk.HEIGHT; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    blocks[x][y][z] = chunk.getBlock(x, y, z);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long kb(long bytes) {
+        return bytes / 1024;
+    }
+}
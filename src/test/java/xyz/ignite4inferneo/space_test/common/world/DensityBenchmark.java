@@ -0,0 +1,98 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+import xyz.ignite4inferneo.space_test.common.world.density.DensityFunction;
+import xyz.ignite4inferneo.space_test.common.world.density.DensityProgram;
+
+/**
+ * Compiled density evaluation against walking the graph point by point.
+ * Checks both give the same lattice values for the terrain generator's
+ * density, then reports time per chunk for each, and for filling chunks
+ * (lattice, interpolation and block writes).
+ */
+public class DensityBenchmark {
+
+    private static final int RADIUS = 6;
+    private static final long SEED = 12345L;
+    private static final int LATTICE_W = Chunk.SIZE / DensityProgram.CELL_WIDTH + 1;
+    private static final int LATTICE_H = Chunk.HEIGHT / DensityProgram.CELL_HEIGHT + 1;
+
+    public static void main(String[] args) {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        int side = RADIUS * 2 + 1;
+        int chunks = side * side;
+        ImprovedWorldGenerator generator = new ImprovedWorldGenerator(SEED);
+        DensityFunction density = generator.getDensityFunction();
+        DensityProgram program = DensityProgram.compile(density);
+
+        System.out.println("=== Density Benchmark ===");
+        System.out.println("Chunks: " + chunks + ", instructions: " + program.getInstructionCount()
+                + ", lattice points per chunk: " + LATTICE_W * LATTICE_W * LATTICE_H);
+
+        // Warm up both paths
+        for (int i = 0; i < 200; i++) {
+            program.evaluateChunk(i, 0);
+            interpret(density, i, 0);
+        }
+
+        long compiledNs = 0, interpretedNs = 0;
+        int mismatches = 0;
+        double maxError = 0;
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                long start = System.nanoTime();
+                double[] compiled = program.evaluateChunk(cx, cz);
+                compiledNs += System.nanoTime() - start;
+                start = System.nanoTime();
+                double[] interpreted = interpret(density, cx, cz);
+                interpretedNs += System.nanoTime() - start;
+
+                for (int p = 0; p < compiled.length; p++) {
+                    if (compiled[p] != interpreted[p]) {
+                        mismatches++;
+                        maxError = Math.max(maxError, Math.abs(compiled[p] - interpreted[p]));
+                    }
+                }
+            }
+        }
+        System.out.printf("Compiled:    %.2f ms/chunk%n", compiledNs / 1e6 / chunks);
+        System.out.printf("Interpreted: %.2f ms/chunk (%.1fx slower)%n",
+                interpretedNs / 1e6 / chunks, (double) interpretedNs / compiledNs);
+        System.out.println("Mismatches: " + mismatches + (mismatches > 0 ? " (max error " + maxError + ")" : ""));
+
+        int stone = Registries.BLOCKS.idOf("space_test:stone");
+        int[] topY = new int[Chunk.SIZE * Chunk.SIZE];
+        long start = System.nanoTime();
+        long blocks = 0;
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                Chunk chunk = new Chunk(cx + 1000, cz);
+                blocks += program.fillChunk(chunk, stone, topY);
+                chunk.release();
+            }
+        }
+        System.out.printf("Fill chunk:  %.2f ms/chunk, %d solid blocks/chunk%n",
+                (System.nanoTime() - start) / 1e6 / chunks, blocks / chunks);
+    }
+
+    /**
+     * The lattice of one chunk, one tree walk per point
+     */
+    private static double[] interpret(DensityFunction density, int chunkX, int chunkZ) {
+        double[] values = new double[LATTICE_W * LATTICE_W * LATTICE_H];
+        for (int k = 0; k < LATTICE_W; k++) {
+            for (int i = 0; i < LATTICE_W; i++) {
+                for (int j = 0; j < LATTICE_H; j++) {
+                    values[(k * LATTICE_W + i) * LATTICE_H + j] = density.evaluate(
+                            chunkX * Chunk.SIZE + i * DensityProgram.CELL_WIDTH,
+                            j * DensityProgram.CELL_HEIGHT,
+                            chunkZ * Chunk.SIZE + k * DensityProgram.CELL_WIDTH);
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,177 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+import xyz.ignite4inferneo.space_test.common.block.BaseBlock;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * Checks the incremental light engine against a from-scratch flood fill:
+ * sky and block light over a 5x5 chunk area are recomputed with a plain
+ * BFS after generation and after every round of random edits (lamps,
+ * glowing glass, stone and air near the surface, plus an occasional
+ * BlockEditSession fill), and every position must match exactly.
+ */
+public class LightEngineTest {
+
+    private static final int RADIUS = 2;
+    private static final int ROUNDS = 30;
+    private static final int EDITS_PER_ROUND = 20;
+    private static final long SEED = 7L;
+
+    private static final int[] DX = {0, 0, 0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0, 0, 0};
+    private static final int[] DZ = {0, 0, -1, 1, 0, 0};
+
+    public static void main(String[] args) throws Exception {
+        VanillaBlocks.register();
+        Registries.BLOCKS.register("test:lamp", new BaseBlock("test:lamp", "Lamp", 0) {
+            @Override
+            public int getLightLevel() {
+                return 14;
+            }
+        });
+        Registries.BLOCKS.register("test:glow_glass", new BaseBlock("test:glow_glass", "Glow Glass",
+                new int[6], true, true, 1.0f) {
+            @Override
+            public int getLightLevel() {
+                return 9;
+            }
+        });
+        Registries.freezeAll();
+
+        int lamp = Registries.BLOCKS.idOf("test:lamp");
+        int glass = Registries.BLOCKS.idOf("test:glow_glass");
+        int stone = Registries.BLOCKS.idOf("space_test:stone");
+        int[] palette = {lamp, glass, stone, Chunk.AIR_ID, Chunk.AIR_ID};
+
+        World world = new World(new ImprovedWorldGenerator(SEED));
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                world.getChunk(cx, cz);
+            }
+        }
+        world.getLightEngine().awaitIdle();
+
+        System.out.println("=== Light Engine Test ===");
+        int mismatches = compare(world);
+        System.out.println("generated: " + mismatches + " mismatches");
+
+        Random random = new Random(3);
+        int span = (RADIUS * 2 + 1) * Chunk.SIZE;
+        long waitNs = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < EDITS_PER_ROUND; i++) {
+                int x = random.nextInt(span) - RADIUS * Chunk.SIZE;
+                int z = random.nextInt(span) - RADIUS * Chunk.SIZE;
+                int y = Math.max(0, world.getHeight(x, z) + random.nextInt(5) - 3);
+                world.setBlockId(x, y, z, palette[random.nextInt(palette.length)]);
+            }
+            // Dig a lit room now and then, to move a lot of light at once
+            if (round % 10 == 5) {
+                try (BlockEditSession session = world.beginEdit()) {
+                    int x = random.nextInt(20) - 10, z = random.nextInt(20) - 10;
+                    int y = world.getHeight(x, z);
+                    session.fill(x, y - 6, z, x + 7, y + 3, z + 7, Chunk.AIR_ID);
+                    session.setBlockId(x + 3, y - 3, z + 3, lamp);
+                }
+            }
+
+            long start = System.nanoTime();
+            world.getLightEngine().awaitIdle();
+            waitNs += System.nanoTime() - start;
+
+            int roundMismatches = compare(world);
+            if (roundMismatches > 0) System.out.println("round " + round + ": " + roundMismatches + " mismatches");
+            mismatches += roundMismatches;
+        }
+        System.out.printf("edits: %d rounds, %.1f ms waiting for light%n", ROUNDS, waitNs / 1e6);
+
+        System.out.println(mismatches == 0 ? "OK: same light" : "FAILED: " + mismatches + " mismatched values");
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    /**
+     * Flood fill the loaded area from scratch and count positions whose sky
+     * or block light differs from the world. Nothing outside the area
+     * contributes light, the same as for the engine at the loaded edge.
+     */
+    private static int compare(World world) {
+        int n = (RADIUS * 2 + 1) * Chunk.SIZE;
+        int offset = RADIUS * Chunk.SIZE;
+        int[] ids = new int[n * n * Chunk.HEIGHT];
+        for (int x = 0; x < n; x++) {
+            for (int z = 0; z < n; z++) {
+                for (int y = 0; y < Chunk.HEIGHT; y++) {
+                    ids[index(n, x, y, z)] = world.getBlockId(x - offset, y, z - offset);
+                }
+            }
+        }
+
+        byte[] sky = new byte[ids.length];
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        for (int x = 0; x < n; x++) {
+            for (int z = 0; z < n; z++) {
+                for (int y = Chunk.HEIGHT - 1; y >= 0 && !Registries.BLOCKS.isOpaque(ids[index(n, x, y, z)]); y--) {
+                    sky[index(n, x, y, z)] = LightEngine.MAX_LIGHT;
+                    queue.add(new int[]{x, y, z});
+                }
+            }
+        }
+        flood(queue, sky, ids, n, true);
+
+        byte[] block = new byte[ids.length];
+        for (int x = 0; x < n; x++) {
+            for (int z = 0; z < n; z++) {
+                for (int y = 0; y < Chunk.HEIGHT; y++) {
+                    int emission = Registries.BLOCKS.getLightLevel(ids[index(n, x, y, z)]);
+                    if (emission > 0) {
+                        block[index(n, x, y, z)] = (byte) emission;
+                        queue.add(new int[]{x, y, z});
+                    }
+                }
+            }
+        }
+        flood(queue, block, ids, n, false);
+
+        int mismatches = 0;
+        for (int x = 0; x < n; x++) {
+            for (int z = 0; z < n; z++) {
+                for (int y = 0; y < Chunk.HEIGHT; y++) {
+                    int i = index(n, x, y, z);
+                    if (world.getSkyLight(x - offset, y, z - offset) != sky[i]) mismatches++;
+                    if (world.getBlockLight(x - offset, y, z - offset) != block[i]) mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Plain BFS; full sky light keeps its level going straight down
+     */
+    private static void flood(ArrayDeque<int[]> queue, byte[] light, int[] ids, int n, boolean sky) {
+        while (!queue.isEmpty()) {
+            int[] p = queue.poll();
+            int level = light[index(n, p[0], p[1], p[2])];
+            for (int face = 0; face < 6; face++) {
+                int x = p[0] + DX[face], y = p[1] + DY[face], z = p[2] + DZ[face];
+                if (x < 0 || z < 0 || x >= n || z >= n || y < 0 || y >= Chunk.HEIGHT) continue;
+                int i = index(n, x, y, z);
+                if (Registries.BLOCKS.isOpaque(ids[i])) continue;
+
+                int next = sky && level == LightEngine.MAX_LIGHT && DY[face] == -1 ? level : level - 1;
+                if (light[i] < next) {
+                    light[i] = (byte) next;
+                    queue.add(new int[]{x, y, z});
+                }
+            }
+        }
+    }
+
+    private static int index(int n, int x, int y, int z) {
+        return (x * n + z) * Chunk.HEIGHT + y;
+    }
+}
@@ -0,0 +1,113 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+/**
+ * Per-sample vs batched Perlin noise over 16x16 chunk grids, using the
+ * terrain generator's layers (octave, ridged and single noise). Reports
+ * samples per second for both and checks the batch results are
+ * bit-identical to the per-sample calls.
+ */
+public class NoiseBatchBenchmark {
+
+    private static final int GRID = 16;
+    private static final int CHUNKS = 4096;
+    private static final int ROUNDS = 3;
+    private static final double SCALE = 0.003;
+
+    public static void main(String[] args) {
+        PerlinNoise octave = new PerlinNoise(1);
+        PerlinNoise ridged = new PerlinNoise(2);
+        PerlinNoise single = new PerlinNoise(3);
+
+        System.out.println("=== Noise Batch Benchmark ===");
+        System.out.println(CHUNKS + " grids of " + GRID + "x" + GRID + ", 4 + 5 + 1 octaves per sample");
+
+        double[] out = new double[GRID * GRID];
+        double[] xs = new double[GRID];
+        double[] zs = new double[GRID];
+        long scalarNs = Long.MAX_VALUE;
+        long batchNs = Long.MAX_VALUE;
+        long mismatches = 0;
+        double sink = 0;
+
+        for (int round = 0; round < ROUNDS; round++) { // Best of several, the first one warms up
+            long start = System.nanoTime();
+            for (int c = 0; c < CHUNKS; c++) {
+                int baseX = (c % 64) * GRID, baseZ = (c / 64) * GRID;
+                for (int z = 0; z < GRID; z++) {
+                    for (int x = 0; x < GRID; x++) {
+                        double wx = (baseX + x) * SCALE, wz = (baseZ + z) * SCALE;
+                        sink += octave.octaveNoise(wx, wz, 4, 0.5);
+                        sink += ridged.ridgedNoise(wx, wz, 5, 0.5);
+                        sink += single.noise(wx * 8, wz * 8);
+                    }
+                }
+            }
+            scalarNs = Math.min(scalarNs, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int c = 0; c < CHUNKS; c++) {
+                int baseX = (c % 64) * GRID, baseZ = (c / 64) * GRID;
+                for (int i = 0; i < GRID; i++) {
+                    xs[i] = (baseX + i) * SCALE;
+                    zs[i] = (baseZ + i) * SCALE;
+                }
+                octave.fillOctaveNoise(out, xs, zs, 4, 0.5);
+                sink += out[0];
+                ridged.fillRidgedNoise(out, xs, zs, 5, 0.5);
+                sink += out[0];
+                for (int i = 0; i < GRID; i++) {
+                    xs[i] *= 8;
+                    zs[i] *= 8;
+                }
+                single.fillNoise(out, xs, zs);
+                sink += out[0];
+            }
+            batchNs = Math.min(batchNs, System.nanoTime() - start);
+        }
+
+        // Exactness over a different area, including negative coordinates
+        double[] expected = new double[GRID * GRID];
+        for (int c = 0; c < 256; c++) {
+            int baseX = (c % 16 - 8) * GRID * 7, baseZ = (c / 16 - 8) * GRID * 5;
+            for (int i = 0; i < GRID; i++) {
+                xs[i] = (baseX + i) * SCALE;
+                zs[i] = (baseZ + i) * SCALE;
+            }
+            octave.fillOctaveNoise(out, xs, zs, 4, 0.5);
+            for (int z = 0; z < GRID; z++) {
+                for (int x = 0; x < GRID; x++) {
+                    expected[z * GRID + x] = octave.octaveNoise(xs[x], zs[z], 4, 0.5);
+                }
+            }
+            mismatches += countMismatches(out, expected);
+            ridged.fillRidgedNoise(out, xs, zs, 5, 0.5);
+            for (int z = 0; z < GRID; z++) {
+                for (int x = 0; x < GRID; x++) {
+                    expected[z * GRID + x] = ridged.ridgedNoise(xs[x], zs[z], 5, 0.5);
+                }
+            }
+            mismatches += countMismatches(out, expected);
+            single.fillNoise(out, xs, zs);
+            for (int z = 0; z < GRID; z++) {
+                for (int x = 0; x < GRID; x++) {
+                    expected[z * GRID + x] = single.noise(xs[x], zs[z]);
+                }
+            }
+            mismatches += countMismatches(out, expected);
+        }
+
+        long samples = (long) CHUNKS * GRID * GRID;
+        System.out.printf("Per sample: %6.1f ms (%6.1f M columns/s)%n", scalarNs / 1e6, samples * 1e3 / scalarNs);
+        System.out.printf("Batched:    %6.1f ms (%6.1f M columns/s)%n", batchNs / 1e6, samples * 1e3 / batchNs);
+        System.out.printf("Batched is %.1fx faster%n", (double) scalarNs / batchNs);
+        System.out.println("Results: " + (mismatches == 0 ? "identical" : mismatches + " MISMATCHES") + " (checksum " + (sink != 0) + ")");
+    }
+
+    private static long countMismatches(double[] actual, double[] expected) {
+        long mismatches = 0;
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.doubleToRawLongBits(actual[i]) != Double.doubleToRawLongBits(expected[i])) mismatches++;
+        }
+        return mismatches;
+    }
+}
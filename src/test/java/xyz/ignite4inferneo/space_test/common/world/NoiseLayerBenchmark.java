@@ -0,0 +1,78 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+
+/**
+ * Coarse, cached noise layers against exact per-column sampling. Fills the
+ * terrain generator's three low-frequency layers for a square of chunks
+ * both ways and reports noise evaluations per chunk, time, cache hit rate
+ * and the interpolation error.
+ */
+public class NoiseLayerBenchmark {
+
+    private static final int RADIUS = 16;
+    private static final int CELL = 4;
+    private static final long SEED = 12345L;
+
+    public static void main(String[] args) {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        int side = RADIUS * 2 + 1;
+        int chunks = side * side;
+        System.out.println("=== Noise Layer Benchmark ===");
+        System.out.println("Chunks: " + chunks + ", lattice cell: " + CELL + " blocks");
+
+        PerlinNoise continental = new PerlinNoise(SEED);
+        PerlinNoise peaks = new PerlinNoise(SEED + 2);
+        PerlinNoise erosion = new PerlinNoise(SEED + 1);
+        NoiseLayer.Source[] sources = {
+                (out, xs, zs) -> continental.fillOctaveNoise(out, scaled(xs, 0.0015), scaled(zs, 0.0015), 4, 0.5),
+                (out, xs, zs) -> peaks.fillRidgedNoise(out, scaled(xs, 0.006), scaled(zs, 0.006), 5, 0.5),
+                (out, xs, zs) -> erosion.fillOctaveNoise(out, scaled(xs, 0.008), scaled(zs, 0.008), 4, 0.6)
+        };
+        String[] names = {"continental", "peaks", "erosion"};
+
+        for (int l = 0; l < sources.length; l++) {
+            NoiseLayer exact = new NoiseLayer(sources[l], 1);
+            NoiseLayer coarse = new NoiseLayer(sources[l], CELL);
+            double[] expected = new double[Chunk.SIZE * Chunk.SIZE];
+            double[] actual = new double[Chunk.SIZE * Chunk.SIZE];
+            double maxError = 0, totalError = 0;
+            long exactNs = 0, coarseNs = 0;
+
+            for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+                for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                    long start = System.nanoTime();
+                    exact.fill(expected, cx * Chunk.SIZE, cz * Chunk.SIZE, Chunk.SIZE, Chunk.SIZE);
+                    exactNs += System.nanoTime() - start;
+                    start = System.nanoTime();
+                    coarse.fill(actual, cx * Chunk.SIZE, cz * Chunk.SIZE, Chunk.SIZE, Chunk.SIZE);
+                    coarseNs += System.nanoTime() - start;
+                    for (int i = 0; i < expected.length; i++) {
+                        double error = Math.abs(expected[i] - actual[i]);
+                        maxError = Math.max(maxError, error);
+                        totalError += error;
+                    }
+                }
+            }
+
+            long lookups = coarse.getEvaluationCount() + coarse.getCacheHitCount();
+            System.out.printf("%-12s exact %5.1f evals/chunk %6.1f ms | coarse %4.1f evals/chunk %5.1f ms (%.1fx fewer, %.0f%% cache hits) | error max %.4f mean %.5f%n",
+                    names[l], (double) exact.getEvaluationCount() / chunks, exactNs / 1e6,
+                    (double) coarse.getEvaluationCount() / chunks, coarseNs / 1e6,
+                    (double) exact.getEvaluationCount() / coarse.getEvaluationCount(),
+                    100.0 * coarse.getCacheHitCount() / lookups,
+                    maxError, totalError / ((double) chunks * expected.length));
+        }
+    }
+
+    private static double[] scaled(int[] blocks, double scale) {
+        double[] coords = new double[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            coords[i] = blocks[i] * scale;
+        }
+        return coords;
+    }
+}
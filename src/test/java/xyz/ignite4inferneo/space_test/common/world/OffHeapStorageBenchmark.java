@@ -0,0 +1,117 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+
+/**
+ * Heap vs off-heap chunk storage: loads and lights the same area once with
+ * each backend, then reports Java heap retained, native memory used, how
+ * long a full GC takes with the world loaded, full-scan read time, and how
+ * much native memory is returned on unload. Both worlds must read back the
+ * same blocks and light.
+ * Run with a fixed heap for stable numbers, e.g. -Xms1g -Xmx1g
+ */
+public class OffHeapStorageBenchmark {
+
+    private static final int RADIUS = 12;
+    private static final int GC_ROUNDS = 5;
+    private static final int SCAN_ROUNDS = 3;
+    private static final long SEED = 12345L;
+
+    public static void main(String[] args) throws InterruptedException {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        int side = RADIUS * 2 + 1;
+        System.out.println("=== Off-Heap Storage Benchmark ===");
+        System.out.println("Chunks: " + side * side + " (" + side + "x" + side + ")");
+
+        long heapChecksum = run(false);
+        long offHeapChecksum = run(true);
+        System.out.println("Contents: " + (heapChecksum == offHeapChecksum ? "OK" : "MISMATCH"));
+    }
+
+    private static long run(boolean offHeap) throws InterruptedException {
+        OffHeapArena.setEnabled(offHeap);
+        long heapBefore = usedMemory();
+        long nativeBefore = OffHeapArena.getUsedBytes();
+
+        World world = new World(new ImprovedWorldGenerator(SEED));
+        long start = System.nanoTime();
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                world.getChunk(cx, cz);
+            }
+        }
+        world.getLightEngine().awaitIdle();
+        long loadMs = (System.nanoTime() - start) / 1_000_000;
+
+        long heapBytes = usedMemory() - heapBefore;
+        long nativeBytes = OffHeapArena.getUsedBytes() - nativeBefore;
+
+        long gcNs = 0;
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            long gcStart = System.nanoTime();
+            System.gc();
+            gcNs += System.nanoTime() - gcStart;
+        }
+
+        long checksum = 0;
+        long readMs = Long.MAX_VALUE;
+        for (int round = 0; round < SCAN_ROUNDS; round++) { // Best of several, the first one warms up
+            start = System.nanoTime();
+            checksum = scan(world);
+            readMs = Math.min(readMs, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        world.getChunkProvider().unload(chunk -> true);
+        world.getLightEngine().awaitIdle();
+        world.getLightEngine().shutdown();
+        long nativeAfterUnload = OffHeapArena.getUsedBytes() - nativeBefore;
+        world = null;
+        usedMemory(); // Let the cleaner return anything snapshots still held
+        long nativeAfterGc = OffHeapArena.getUsedBytes() - nativeBefore;
+
+        System.out.println();
+        System.out.println(offHeap ? "Off-heap:" : "Heap:");
+        System.out.println("  Load + light:       " + loadMs + " ms");
+        System.out.println("  Java heap retained: " + kb(heapBytes) + " KB");
+        System.out.println("  Native memory:      " + kb(nativeBytes) + " KB");
+        System.out.printf("  Full GC:            %.1f ms avg%n", gcNs / 1e6 / GC_ROUNDS);
+        System.out.println("  Full scan:          " + readMs + " ms");
+        System.out.println("  Native after unload: " + kb(nativeAfterUnload) + " KB, after GC " + kb(nativeAfterGc) + " KB");
+        return checksum;
+    }
+
+    private static long scan(World world) {
+        long checksum = 0;
+        for (Chunk chunk : world.getChunks().values()) {
+            for (int y = 0; y < Chunk.HEIGHT; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    for (int x = 0; x < Chunk.SIZE; x++) {
+                        checksum = checksum * 31 + chunk.getBlockId(x, y, z);
+                        checksum = checksum * 31 + chunk.getSkyLight(x, y, z) * 16 + chunk.getBlockLight(x, y, z);
+                    }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long kb(long bytes) {
+        return bytes / 1024;
+    }
+}
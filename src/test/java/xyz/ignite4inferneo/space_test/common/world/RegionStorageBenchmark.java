@@ -0,0 +1,114 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Region file benchmark: generate chunks, save them, reopen the storage and
+ * load them back. Compares load time with generation time and checks every
+ * block survives the round trip. Runs twice: the first pass includes JIT
+ * warm-up and native library loading, the second is steady state.
+ */
+public class RegionStorageBenchmark {
+
+    private static final int RADIUS = 12;
+    private static final long SEED = 12345L;
+
+    public static void main(String[] args) throws IOException {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        int side = RADIUS * 2 + 1;
+        System.out.println("=== Region Storage Benchmark ===");
+        System.out.println("Chunks: " + side * side + " (" + side + "x" + side + ")");
+
+        for (int pass = 1; pass <= 2; pass++) {
+            System.out.println();
+            System.out.println(pass == 1 ? "Cold pass:" : "Warm pass:");
+            Path dir = Files.createTempDirectory("region-bench");
+            try {
+                run(dir);
+            } finally {
+                try (Stream<Path> files = Files.walk(dir)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+                }
+            }
+        }
+    }
+
+    private static void run(Path dir) throws IOException {
+        ImprovedWorldGenerator generator = new ImprovedWorldGenerator(SEED);
+        World world = new World(generator);
+
+        List<Chunk> chunks = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int cx = -RADIUS; cx <= RADIUS; cx++) {
+            for (int cz = -RADIUS; cz <= RADIUS; cz++) {
+                Chunk chunk = new Chunk(cx, cz);
+                generator.generateChunk(world, chunk);
+                chunks.add(chunk);
+            }
+        }
+        long genNs = System.nanoTime() - start;
+
+        // Some edits, so we know they persist
+        chunks.get(0).setBlock(1, 200, 1, "space_test:planks");
+        chunks.get(chunks.size() - 1).setBlock(15, 3, 15, "space_test:air");
+
+        start = System.nanoTime();
+        try (RegionStorage storage = new RegionStorage(dir)) {
+            for (Chunk chunk : chunks) {
+                storage.save(chunk);
+            }
+            storage.flush();
+        }
+        long saveNs = System.nanoTime() - start;
+
+        long bytes;
+        try (Stream<Path> files = Files.list(dir)) {
+            bytes = files.mapToLong(p -> p.toFile().length()).sum();
+        }
+
+        start = System.nanoTime();
+        List<Chunk> loaded = new ArrayList<>();
+        try (RegionStorage storage = new RegionStorage(dir)) {
+            for (Chunk chunk : chunks) {
+                loaded.add(storage.load(chunk.getChunkX(), chunk.getChunkZ()));
+            }
+        }
+        long loadNs = System.nanoTime() - start;
+
+        int mismatches = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk a = chunks.get(i);
+            Chunk b = loaded.get(i);
+            if (b == null) {
+                mismatches++;
+                continue;
+            }
+            for (int y = 0; y < Chunk.HEIGHT; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    for (int x = 0; x < Chunk.SIZE; x++) {
+                        if (a.getBlockId(x, y, z) != b.getBlockId(x, y, z)) mismatches++;
+                    }
+                }
+            }
+        }
+
+        int count = chunks.size();
+        System.out.printf("Generate: %8.1f ms (%.3f ms/chunk)%n", genNs / 1e6, genNs / 1e6 / count);
+        System.out.printf("Save:     %8.1f ms (%.3f ms/chunk)%n", saveNs / 1e6, saveNs / 1e6 / count);
+        System.out.printf("Load:     %8.1f ms (%.3f ms/chunk)%n", loadNs / 1e6, loadNs / 1e6 / count);
+        System.out.printf("Load is %.1fx faster than generating%n", genNs / (double) Math.max(1, loadNs));
+        System.out.println("On disk:  " + bytes / 1024 + " KB (" + bytes / count + " bytes/chunk)");
+        System.out.println("Round trip: " + (mismatches == 0 ? "OK" : mismatches + " mismatched blocks"));
+    }
+}
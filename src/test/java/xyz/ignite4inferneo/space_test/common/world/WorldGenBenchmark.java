@@ -0,0 +1,75 @@
+package xyz.ignite4inferneo.space_test.common.world;
+
+import xyz.ignite4inferneo.space_test.api.registry.Registries;
+import xyz.ignite4inferneo.space_test.common.VanillaBlocks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chunk generation throughput against worker count: generates the same
+ * area with 1, 2, 4, ... threads up to the core count and reports chunks
+ * per second. Every run must produce the same blocks as the single-threaded
+ * one, whatever order the chunks finished in.
+ * Usage: WorldGenBenchmark [radius] [maxThreads]
+ */
+public class WorldGenBenchmark {
+
+    private static final long SEED = 12345L;
+
+    public static void main(String[] args) {
+        VanillaBlocks.register();
+        Registries.freezeAll();
+
+        int radius = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int side = radius * 2 + 1;
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < maxThreads; t *= 2) threadCounts.add(t);
+        threadCounts.add(maxThreads);
+
+        System.out.println("=== World Generation Benchmark ===");
+        System.out.println("Chunks: " + side * side + " (" + side + "x" + side + "), cores: " + Runtime.getRuntime().availableProcessors());
+
+        run(radius, 1); // Warm up the JIT
+
+        long reference = 0;
+        double baseRate = 0;
+        for (int threads : threadCounts) {
+            long start = System.nanoTime();
+            long checksum = run(radius, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double rate = side * side / seconds;
+            if (threads == 1) {
+                reference = checksum;
+                baseRate = rate;
+            }
+            System.out.printf("%3d threads: %7.1f chunks/s (%.2fx)  %s%n", threads, rate, rate / baseRate,
+                    checksum == reference ? "identical" : "MISMATCH");
+        }
+    }
+
+    private static long run(int radius, int threads) {
+        World world = new World(new ImprovedWorldGenerator(SEED), null, threads);
+        world.getChunkProvider().requestArea(0, 0, radius).join();
+
+        // Checksum in a fixed order, independent of completion order
+        long checksum = 0;
+        for (int cx = -radius; cx <= radius; cx++) {
+            for (int cz = -radius; cz <= radius; cz++) {
+                Chunk chunk = world.getChunkIfLoaded(cx, cz);
+                for (int y = 0; y < Chunk.HEIGHT; y++) {
+                    for (int z = 0; z < Chunk.SIZE; z++) {
+                        for (int x = 0; x < Chunk.SIZE; x++) {
+                            checksum = checksum * 31 + chunk.getBlockId(x, y, z);
+                        }
+                    }
+                }
+            }
+        }
+        world.getLightEngine().shutdown();
+        world.getChunkProvider().shutdown();
+        return checksum;
+    }
+}